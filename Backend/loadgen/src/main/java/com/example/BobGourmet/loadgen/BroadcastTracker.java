@@ -0,0 +1,44 @@
+package com.example.BobGourmet.loadgen;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time from an HTTP call to each room member receiving the resulting broadcast. The caller registers an
+ * expectation under a key (e.g. {@code roomId/submit/username}) just before the request; every member that
+ * later sees the matching frame records one delivery. A member counts each expectation once, since the same
+ * fact can reach it twice (a MENU_STATUS_UPDATE snapshot and a MENUS_SUBMITTED delta, or repeated snapshots).
+ */
+final class BroadcastTracker {
+
+    private final LatencyRecorder recorder;
+    private final Map<String, Expectation> pending = new ConcurrentHashMap<>();
+
+    BroadcastTracker(LatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    void expect(String key, String operation, int receivers) {
+        pending.put(key, new Expectation("broadcast." + operation, System.nanoTime()));
+        recorder.expect("broadcast." + operation, receivers);
+    }
+
+    /**
+     * @param seen the receiving user's own set, so each expectation is recorded once per receiver
+     */
+    void delivered(String key, Set<String> seen) {
+        long receivedAt = System.nanoTime();
+        Expectation expectation = pending.get(key);
+        if (expectation != null && seen.add(key + "@" + expectation.startedAt())) {
+            recorder.record(expectation.operation(), receivedAt - expectation.startedAt());
+        }
+    }
+
+    void forget(String keyPrefix) {
+        pending.keySet().removeIf(key -> key.startsWith(keyPrefix));
+    }
+
+    private record Expectation(String operation, long startedAt) {
+    }
+}
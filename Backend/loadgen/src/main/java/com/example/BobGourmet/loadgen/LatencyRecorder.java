@@ -0,0 +1,75 @@
+package com.example.BobGourmet.loadgen;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies and errors per operation name. Samples are kept in full; a run of a few thousand users
+ * produces a few hundred thousand, which sorts in well under a second at report time.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Operation> operations = new ConcurrentSkipListMap<>();
+
+    void record(String operation, long nanos) {
+        operation(operation).record(nanos);
+    }
+
+    void error(String operation) {
+        operation(operation).errors.incrementAndGet();
+    }
+
+    // broadcast deliveries that should arrive for an operation (one per room member)
+    void expect(String operation, int deliveries) {
+        operation(operation).expected.addAndGet(deliveries);
+    }
+
+    void report(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%nLoad run finished in %.1f s%n", seconds);
+        out.printf("%-20s %9s %7s %9s %9s %9s %9s %10s%n", "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "max ms", "delivered");
+        operations.forEach((name, operation) -> {
+            List<Long> samples;
+            synchronized (operation) {
+                samples = new ArrayList<>(operation.samples);
+            }
+            Collections.sort(samples);
+            long expected = operation.expected.get();
+            out.printf("%-20s %9d %7d %9.1f %9.1f %9.1f %9.1f %10s%n",
+                    name, samples.size(), operation.errors.get(), samples.size() / seconds,
+                    millis(percentile(samples, 50)), millis(percentile(samples, 99)),
+                    millis(samples.isEmpty() ? 0 : samples.get(samples.size() - 1)),
+                    expected > 0 ? String.format("%.1f%%", 100.0 * samples.size() / expected) : "-");
+        });
+    }
+
+    private Operation operation(String name) {
+        return operations.computeIfAbsent(name, n -> new Operation());
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) return 0;
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static final class Operation {
+        private final List<Long> samples = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong expected = new AtomicLong();
+
+        synchronized void record(long nanos) {
+            samples.add(nanos);
+        }
+    }
+}
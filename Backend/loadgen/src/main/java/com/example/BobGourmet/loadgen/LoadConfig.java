@@ -0,0 +1,55 @@
+package com.example.BobGourmet.loadgen;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Load run settings, from {@code --name=value} arguments. Users are the backend's dev seed accounts
+ * (app.loadtest.seed-users): {@code <user-prefix><user-offset>} onwards, all with the same password.
+ */
+record LoadConfig(String baseUrl,
+                  int users,
+                  int roomSize,
+                  int rounds,
+                  double churn,
+                  long thinkMs,
+                  long rampUpMs,
+                  long broadcastTimeoutMs,
+                  String userPrefix,
+                  int userOffset,
+                  String password) {
+
+    static LoadConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int split = arg.indexOf('=');
+            options.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        LoadConfig config = new LoadConfig(
+                options.getOrDefault("base-url", "http://localhost:8080"),
+                Integer.parseInt(options.getOrDefault("users", "1000")),
+                Integer.parseInt(options.getOrDefault("room-size", "4")),
+                Integer.parseInt(options.getOrDefault("rounds", "3")),
+                Double.parseDouble(options.getOrDefault("churn", "0.1")),
+                Long.parseLong(options.getOrDefault("think-ms", "500")),
+                Long.parseLong(options.getOrDefault("ramp-up-ms", "30000")),
+                Long.parseLong(options.getOrDefault("broadcast-timeout-ms", "5000")),
+                options.getOrDefault("user-prefix", "load-user-"),
+                Integer.parseInt(options.getOrDefault("user-offset", "0")),
+                options.getOrDefault("password", "loadtest-password"));
+        if (config.roomSize() < 2 || config.roomSize() > 10) {
+            throw new IllegalArgumentException("room-size must be between 2 and 10");
+        }
+        if (config.users() < config.roomSize()) {
+            throw new IllegalArgumentException("users must be at least room-size");
+        }
+        return config;
+    }
+
+    int rooms() {
+        return users / roomSize;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.BobGourmet.loadgen;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives simulated users against a running backend through its public HTTP and STOMP endpoints and prints
+ * throughput and p50/p99 latency per operation, plus broadcast delivery time.
+ * <p>
+ * The backend must run with the dev profile and app.loadtest.seed-users (LOADTEST_SEED_USERS) at least
+ * {@code users}, so the accounts exist and can log in. Example:
+ * <pre>
+ * ./gradlew :loadgen:run --args="--users=2000 --room-size=4 --rounds=5 --churn=0.2 --ramp-up-ms=60000"
+ * </pre>
+ * Options: base-url, users, room-size (2-10), rounds, churn (chance a member leaves and rejoins per round),
+ * think-ms, ramp-up-ms, user-prefix, user-offset, password.
+ */
+public final class LoadGenerator {
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.parse(args);
+        LatencyRecorder recorder = new LatencyRecorder();
+        BroadcastTracker tracker = new BroadcastTracker(recorder);
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            ThreadPoolTaskScheduler heartbeatScheduler = new ThreadPoolTaskScheduler();
+            heartbeatScheduler.setPoolSize(2);
+            heartbeatScheduler.setThreadNamePrefix("loadgen-heartbeat-");
+            heartbeatScheduler.initialize();
+
+            // SockJS over a plain WebSocket transport: the /ws-BobGourmet path browsers use
+            WebSocketStompClient stompClient = new WebSocketStompClient(
+                    new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+            stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+            stompClient.setTaskScheduler(heartbeatScheduler);
+            stompClient.setDefaultHeartbeat(new long[]{10000, 10000});
+
+            int rooms = config.rooms();
+            System.out.printf("Running %d rooms of %d users against %s (%d rounds, churn %.2f)%n",
+                    rooms, config.roomSize(), config.baseUrl(), config.rounds(), config.churn());
+
+            AtomicInteger failedRooms = new AtomicInteger();
+            List<Future<?>> runs = new ArrayList<>();
+            long startedAt = System.nanoTime();
+            for (int room = 0; room < rooms; room++) {
+                List<SimulatedUser> users = new ArrayList<>();
+                for (int slot = 0; slot < config.roomSize(); slot++) {
+                    String username = config.userPrefix() + (config.userOffset() + room * config.roomSize() + slot);
+                    users.add(new SimulatedUser(username, config, httpClient, objectMapper, recorder, tracker));
+                }
+                RoomScenario scenario = new RoomScenario(room, config, users, executor, stompClient, tracker);
+                // rooms start spread over the ramp-up so the node sees a rising load instead of one burst
+                long delayMs = rooms > 1 ? config.rampUpMs() * room / (rooms - 1) : 0;
+                int roomIndex = room;
+                runs.add(executor.submit(() -> {
+                    try {
+                        Thread.sleep(delayMs);
+                        scenario.run();
+                    } catch (Exception e) {
+                        failedRooms.incrementAndGet();
+                        System.err.printf("Room %d stopped: %s%n", roomIndex, e.getMessage());
+                    }
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+
+            recorder.report(System.out, System.nanoTime() - startedAt);
+            System.out.printf("Rooms completed: %d of %d%n", rooms - failedRooms.get(), rooms);
+            heartbeatScheduler.shutdown();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.BobGourmet.loadgen;
+
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One room's life, driven the way a lunch group uses the app: the host creates the room and the others join,
+ * then each round everyone submits menus, recommends one, the host draws and resets. With churn, members
+ * leave and rejoin between rounds. At the end everyone leaves, the host last, which closes the room.
+ */
+final class RoomScenario {
+
+    private static final List<String> MENUS = List.of(
+            "kimchi-stew", "bibimbap", "ramen", "pho", "tonkatsu", "bulgogi", "sushi", "tteokbokki",
+            "naengmyeon", "curry", "pasta", "burger", "dumplings", "jjajangmyeon", "salad", "pizza");
+
+    private final int index;
+    private final LoadConfig config;
+    private final List<SimulatedUser> users;
+    private final ExecutorService executor;
+    private final WebSocketStompClient stompClient;
+    private final BroadcastTracker tracker;
+
+    RoomScenario(int index, LoadConfig config, List<SimulatedUser> users, ExecutorService executor,
+                 WebSocketStompClient stompClient, BroadcastTracker tracker) {
+        this.index = index;
+        this.config = config;
+        this.users = users;
+        this.executor = executor;
+        this.stompClient = stompClient;
+        this.tracker = tracker;
+    }
+
+    void run() throws Exception {
+        SimulatedUser host = users.get(0);
+        List<SimulatedUser> members = users.subList(1, users.size());
+        String roomId = null;
+        try {
+            parallel(users, user -> {
+                user.login();
+                return null;
+            });
+            parallel(users, user -> {
+                user.connect(stompClient);
+                return null;
+            });
+
+            roomId = host.post("create", "/api/MatchRooms", Map.of(
+                    "roomName", "load-" + index,
+                    "maxUsers", users.size(),
+                    "inputDeadlineSeconds", 0)).path("roomId").asText();
+            host.subscribeRoom(roomId);
+            String roomPath = "/api/MatchRooms/" + roomId;
+            String subscribedRoomId = roomId;
+            parallel(members, member -> {
+                member.post("join", roomPath + "/join", Map.of());
+                member.subscribeRoom(subscribedRoomId);
+                return null;
+            });
+            think();
+
+            for (int round = 0; round < config.rounds(); round++) {
+                List<String> submitted = new CopyOnWriteArrayList<>();
+                parallel(users, user -> {
+                    List<String> menus = List.of(randomMenu(), randomMenu());
+                    tracker.expect(subscribedRoomId + "/submit/" + user.username(), "submit", users.size());
+                    user.post("submit", roomPath + "/menus", Map.of("menus", menus));
+                    submitted.addAll(menus);
+                    return null;
+                });
+                think();
+
+                // recommend something that is actually on the table this round
+                parallel(users, user -> {
+                    String menu = submitted.get(ThreadLocalRandom.current().nextInt(submitted.size()));
+                    user.post("vote", roomPath + "/menus/" + URLEncoder.encode(menu, StandardCharsets.UTF_8) + "/recommend", null);
+                    return null;
+                });
+                think();
+
+                tracker.expect(roomId + "/draw", "draw", users.size());
+                host.post("draw", roomPath + "/start-draw", null);
+                think();
+                host.post("reset", roomPath + "/reset", null);
+
+                for (SimulatedUser member : members) {
+                    if (ThreadLocalRandom.current().nextDouble() < config.churn()) {
+                        member.post("leave", roomPath + "/leave", null);
+                        member.post("join", roomPath + "/join", Map.of());
+                    }
+                }
+                think();
+            }
+        } finally {
+            if (roomId != null) {
+                String roomPath = "/api/MatchRooms/" + roomId;
+                List<SimulatedUser> leavingOrder = new ArrayList<>(members);
+                leavingOrder.add(host);
+                for (SimulatedUser user : leavingOrder) {
+                    try {
+                        user.post("leave", roomPath + "/leave", null);
+                    } catch (Exception ignored) {
+                        // already counted as a leave error
+                    }
+                }
+                tracker.forget(roomId + "/");
+            }
+            users.forEach(SimulatedUser::disconnect);
+        }
+    }
+
+    private static String randomMenu() {
+        return MENUS.get(ThreadLocalRandom.current().nextInt(MENUS.size()));
+    }
+
+    private void think() throws InterruptedException {
+        if (config.thinkMs() > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(config.thinkMs() / 2, config.thinkMs() + 1));
+        }
+    }
+
+    private void parallel(List<SimulatedUser> targets, UserAction action) throws Exception {
+        List<Future<Void>> futures = new ArrayList<>();
+        for (SimulatedUser user : targets) {
+            Callable<Void> task = () -> action.run(user);
+            futures.add(executor.submit(task));
+        }
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+    }
+
+    @FunctionalInterface
+    private interface UserAction {
+        Void run(SimulatedUser user) throws Exception;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.BobGourmet.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One client: a JWT from /api/auth/login, REST calls with it, and a STOMP session over SockJS on
+ * /ws-BobGourmet, the same path the frontend takes. Every call is timed under its operation name;
+ * failures are counted and rethrown so the scenario can decide whether the room can carry on.
+ */
+final class SimulatedUser {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String username;
+    private final LoadConfig config;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final LatencyRecorder recorder;
+    private final BroadcastTracker tracker;
+    // broadcast expectations this user already received, see BroadcastTracker#delivered
+    private final Set<String> seenBroadcasts = ConcurrentHashMap.newKeySet();
+
+    private String token;
+    private StompSession stompSession;
+
+    SimulatedUser(String username, LoadConfig config, HttpClient httpClient, ObjectMapper objectMapper,
+                  LatencyRecorder recorder, BroadcastTracker tracker) {
+        this.username = username;
+        this.config = config;
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.recorder = recorder;
+        this.tracker = tracker;
+    }
+
+    String username() {
+        return username;
+    }
+
+    void login() throws Exception {
+        JsonNode response = post("login", "/api/auth/login", Map.of("username", username, "password", config.password()), false);
+        this.token = response.path("accessToken").asText();
+    }
+
+    void connect(WebSocketStompClient stompClient) throws Exception {
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + token);
+        long startedAt = System.nanoTime();
+        try {
+            this.stompSession = stompClient.connectAsync(config.baseUrl() + "/ws-BobGourmet", new WebSocketHttpHeaders(),
+                    connectHeaders, new StompSessionHandlerAdapter() {}).get(30, TimeUnit.SECONDS);
+            recorder.record("connect", System.nanoTime() - startedAt);
+        } catch (Exception e) {
+            recorder.error("connect");
+            throw e;
+        }
+    }
+
+    void disconnect() {
+        if (stompSession != null && stompSession.isConnected()) {
+            stompSession.disconnect();
+        }
+    }
+
+    /**
+     * Room topics the frontend subscribes to. Submissions show up either in a MENU_STATUS_UPDATE snapshot
+     * (full mode) or as a MENUS_SUBMITTED delta, so both are watched.
+     */
+    void subscribeRoom(String roomId) {
+        String topic = "/topic/room/" + roomId;
+        stompSession.subscribe(topic + "/events", frameHandler(payload -> {
+            if ("draw_result".equals(payload.path("type").asText())) {
+                tracker.delivered(roomId + "/draw", seenBroadcasts);
+            }
+        }));
+        stompSession.subscribe(topic + "/menuStatus", frameHandler(payload ->
+                payload.path("payload").path("userSubmitStatus").properties().forEach(entry -> {
+                    if (entry.getValue().asBoolean()) {
+                        tracker.delivered(roomId + "/submit/" + entry.getKey(), seenBroadcasts);
+                    }
+                })));
+        stompSession.subscribe(topic + "/deltas", frameHandler(payload -> {
+            JsonNode delta = payload.path("payload");
+            if ("MENUS_SUBMITTED".equals(delta.path("op").asText())) {
+                tracker.delivered(roomId + "/submit/" + delta.path("data").path("username").asText(), seenBroadcasts);
+            }
+        }));
+    }
+
+    JsonNode post(String operation, String path, Object body) throws Exception {
+        return post(operation, path, body, true);
+    }
+
+    private JsonNode post(String operation, String path, Object body, boolean authenticated) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(config.baseUrl() + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (authenticated) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        long startedAt = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            recorder.error(operation);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - startedAt;
+        if (response.statusCode() / 100 != 2) {
+            recorder.error(operation);
+            throw new IllegalStateException(operation + " as " + username + " failed with HTTP "
+                    + response.statusCode() + ": " + response.body());
+        }
+        recorder.record(operation, elapsed);
+        String responseBody = response.body();
+        return responseBody == null || responseBody.isBlank() || !responseBody.startsWith("{")
+                ? objectMapper.createObjectNode()
+                : objectMapper.readTree(responseBody);
+    }
+
+    private StompFrameHandler frameHandler(Consumer<JsonNode> consumer) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return JsonNode.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                if (payload instanceof JsonNode node) {
+                    consumer.accept(node);
+                }
+            }
+        };
+    }
+}
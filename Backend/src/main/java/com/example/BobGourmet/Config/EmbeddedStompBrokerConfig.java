@@ -0,0 +1,42 @@
+package com.example.BobGourmet.Config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.core.config.Configuration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * In-process Artemis broker with a STOMP acceptor, so the broker relay path
+ * (app.websocket.broker=relay) can be run and benchmarked without an external broker.
+ * Not meant for production: no persistence, no security. Artemis is only on the bootRun and test classpaths
+ * (testAndDevelopmentOnly), so the profile fails to start from the packaged jar.
+ */
+@Slf4j
+@org.springframework.context.annotation.Configuration
+@Profile("embedded-broker")
+public class EmbeddedStompBrokerConfig {
+
+    @Value("${app.websocket.relay.host:127.0.0.1}")
+    private String host;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int port;
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public EmbeddedActiveMQ embeddedStompBroker() throws Exception {
+        Configuration configuration = new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                // Spring's relay sends /topic/** to multicast and /queue/** to anycast addresses
+                .addAcceptorConfiguration("stomp", "tcp://" + host + ":" + port
+                        + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/");
+
+        EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(configuration);
+        log.info("Embedded STOMP broker will listen on {}:{}", host, port);
+        return broker;
+    }
+}
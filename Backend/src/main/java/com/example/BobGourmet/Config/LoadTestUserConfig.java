@@ -0,0 +1,49 @@
+package com.example.BobGourmet.Config;
+
+import com.example.BobGourmet.Entity.User;
+import com.example.BobGourmet.Repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// dev only: verified local accounts load-user-0..N-1 for the loadgen module (local signups need email verification)
+@Slf4j
+@Configuration
+@Profile("dev")
+public class LoadTestUserConfig {
+
+    @Value("${app.loadtest.seed-users:0}")
+    private int seedUsers;
+
+    @Value("${app.loadtest.password:loadtest-password}")
+    private String password;
+
+    @Bean
+    public ApplicationRunner seedLoadTestUsers(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+        return args -> {
+            if (seedUsers <= 0) {
+                return;
+            }
+            String passwordHash = passwordEncoder.encode(password); // one hash for all, BCrypt per user is too slow
+            List<User> users = new ArrayList<>();
+            for (int i = 0; i < seedUsers; i++) {
+                String username = "load-user-" + i;
+                if (userRepository.findByUsername(username).isPresent()) {
+                    continue;
+                }
+                User user = new User(username, username + "@loadtest.local", passwordHash, "부하" + i);
+                user.setEmailVerified(true);
+                users.add(user);
+            }
+            userRepository.saveAll(users);
+            log.info("Seeded {} load test users", users.size());
+        };
+    }
+}
@@ -15,8 +15,13 @@ import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -24,6 +29,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -42,6 +48,8 @@ import com.example.BobGourmet.Entity.User;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Configuration
 @RequiredArgsConstructor
@@ -58,6 +66,9 @@ public class SecurityConfig {
     @Value("${oauth.frontend.base-url:http://localhost:5173}")
     private String frontendBaseUrl;
 
+    @Value("${app.admin.usernames:}")
+    private String[] adminUsernames;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtProvider jwtProvider, UserDetailsService userDetailsService) throws Exception {
 
@@ -75,6 +86,11 @@ public class SecurityConfig {
                                 "/webjars/**",
                                 "/v3/api-docs/**").permitAll()
                         .requestMatchers("/ws-BobGourmet/**").permitAll()
+                        // plain WebSocket endpoint for CBOR and gzip clients; like SockJS, STOMP CONNECT carries the JWT
+                        .requestMatchers("/ws-BobGourmet-native").permitAll()
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        // leases, roomtraffic and any other endpoint show cluster internals: operators only
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).access(adminOnly())
                         .requestMatchers("/api/MatchRooms/**").authenticated()
                         .anyRequest().authenticated()
                 )
@@ -98,6 +114,19 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // signed-in users named in app.admin.usernames; there is no admin role in the user model
+    private AuthorizationManager<RequestAuthorizationContext> adminOnly() {
+        Set<String> admins = Arrays.stream(adminUsernames)
+                .map(String::trim)
+                .filter(username -> !username.isEmpty())
+                .collect(Collectors.toSet());
+        return (authentication, context) -> {
+            Authentication auth = authentication.get();
+            return new AuthorizationDecision(auth != null && auth.isAuthenticated()
+                    && !(auth instanceof AnonymousAuthenticationToken) && admins.contains(auth.getName()));
+        };
+    }
+
     @Bean
     public DefaultOAuth2UserService customOAuth2UserService() {
         return new DefaultOAuth2UserService() {
@@ -1,34 +1,53 @@
 package com.example.BobGourmet.Config;
 
+import com.example.BobGourmet.Service.BroadcastTrafficMeter;
+import com.example.BobGourmet.Service.IdleSessionEvictor;
+import com.example.BobGourmet.Service.OutboundSessionPolicy;
+import com.example.BobGourmet.Service.RedisBrokerBridge;
+import com.example.BobGourmet.Service.SessionPayloadEncoder;
+import com.example.BobGourmet.Service.StompChannelExecutors;
 import com.example.BobGourmet.utils.JwtProvider;
 import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
 import org.springframework.messaging.converter.DefaultContentTypeResolver;
 import org.springframework.messaging.converter.MappingJackson2MessageConverter;
 import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.converter.StringMessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketExtension;
 import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
 import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
 
+import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -39,29 +58,190 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtProvider jwtProvider;
     private final UserDetailsService userDetailsService;
+    // present when app.websocket.broker=redis
+    private final ObjectProvider<RedisBrokerBridge> redisBrokerBridge;
+    private final SessionPayloadEncoder payloadEncoder;
+    private final OutboundSessionPolicy outboundSessionPolicy;
+    private final StompChannelExecutors channelExecutors;
+    private final IdleSessionEvictor idleSessionEvictor;
+    private final BroadcastTrafficMeter broadcastTrafficMeter;
 
     @Value("${cors.allowed-origins}")
     private String allowedOrigins;
 
+    // simple | redis | relay
+    @Value("${app.websocket.broker:simple}")
+    private String brokerMode;
+
+    // permessage-deflate 확장 협상 여부 (기본값 true: 컨테이너가 지원하면 협상, false면 거절)
+    @Value("${app.websocket.compression.permessage-deflate:true}")
+    private boolean permessageDeflate;
+
+    // STOMP 하트비트: 서버 송신 간격, 클라이언트에게 기대하는 송신 간격 (0 = 사용 안 함)
+    @Value("${app.websocket.heartbeat.server-ms:10000}")
+    private long serverHeartbeatMs;
+
+    @Value("${app.websocket.heartbeat.client-ms:10000}")
+    private long clientHeartbeatMs;
+
+    @Value("${app.websocket.relay.host:127.0.0.1}")
+    private String relayHost;
+
+    @Value("${app.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.websocket.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${app.websocket.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${app.websocket.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${app.websocket.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
     public void configureMessageBroker(MessageBrokerRegistry config){
 
         // 클라이언트가 메시지를 구독할 때 사용할 prefix(topic, queue 등)
-        config.enableSimpleBroker("/topic", "/queue"); // "/user" prefix는 자동으로 사용 가능
+        if("relay".equals(brokerMode)){
+            // 외부(또는 embedded-broker 프로필의 내장) STOMP 브로커가 세션별 fan-out 담당
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayClientLogin)
+                    .setClientPasscode(relayClientPasscode)
+                    .setSystemLogin(relaySystemLogin)
+                    .setSystemPasscode(relaySystemPasscode)
+                    .setUserDestinationBroadcast(RedisBrokerBridge.USER_BROADCAST_DESTINATION)
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+        }else{
+            config.enableSimpleBroker("/topic", "/queue") // "/user" prefix는 자동으로 사용 가능
+                    .setHeartbeatValue(new long[]{serverHeartbeatMs, clientHeartbeatMs})
+                    .setTaskScheduler(brokerTaskScheduler());
+        }
+
+        // 브로커 채널: 발행 메시지 집계, redis 모드에서는 Redis로 복제해 다른 노드의 구독자에게 전달
+        config.configureBrokerChannel().interceptors(broadcastTrafficMeter.publishedInterceptor());
+        RedisBrokerBridge bridge = redisBrokerBridge.getIfAvailable();
+        if(bridge != null){
+            config.configureBrokerChannel().interceptors(bridge);
+        }
 
         // 클라이언트가 서버로 메시지를 보낼 때 사용할 prefix
         config.setApplicationDestinationPrefixes("/app");
     }
 
+    // 하트비트 송신과 클라이언트 하트비트 누락 검사 전용 스케줄러 (컨테이너가 초기화와 종료를 관리)
+    // autowireCandidate = false: 유일한 TaskScheduler 후보가 바뀌면 @Scheduled 작업이 단일 스레드 기본 스케줄러로 밀려남
+    // configureMessageBroker의 brokerTaskScheduler() 호출은 @Configuration 프록시를 거쳐 이 빈을 주입받음
+    @Bean(autowireCandidate = false)
+    public ThreadPoolTaskScheduler brokerTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("ws-heartbeat-");
+        scheduler.setDaemon(true);
+        return scheduler;
+    }
+
     public void registerStompEndpoints(StompEndpointRegistry registry) {
 
         //클라이언트가 WebSocket 핸드셰이크를 위해 연결할 엔드포인트
         registry.addEndpoint("/ws-BobGourmet") // 엔드포인트 경로 (application.properties와 맞출 필요 없음)
+                .setHandshakeHandler(handshakeHandler()) // SockJS의 websocket 전송에도 적용
                 .setAllowedOrigins(allowedOrigins)
                 .withSockJS(); // SockJS 사용 시 (오래된 브라우저 호환성)
+
+        // SockJS 없는 순수 WebSocket 엔드포인트: 바이너리 프레임(CBOR 페이로드)은 여기서만 협상 가능
+        registry.addEndpoint("/ws-BobGourmet-native")
+                .setHandshakeHandler(handshakeHandler())
+                .setAllowedOrigins(allowedOrigins)
+                .addInterceptors(new HandshakeInterceptor() {
+                    @Override
+                    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+                        attributes.put(SessionPayloadEncoder.NATIVE_WEBSOCKET_ATTRIBUTE, true);
+                        return true;
+                    }
+
+                    @Override
+                    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                               WebSocketHandler wsHandler, Exception exception) {
+                    }
+                });
+    }
+
+    // 컨테이너(Tomcat)가 지원하는 확장을 그대로 수락하되, 설정으로 끈 경우 permessage-deflate만 제외
+    private DefaultHandshakeHandler handshakeHandler() {
+        return new DefaultHandshakeHandler() {
+            @Override
+            protected List<WebSocketExtension> filterRequestedExtensions(ServerHttpRequest request,
+                                                                         List<WebSocketExtension> requestedExtensions,
+                                                                         List<WebSocketExtension> supportedExtensions) {
+                List<WebSocketExtension> accepted = super.filterRequestedExtensions(request, requestedExtensions, supportedExtensions);
+                if(permessageDeflate){
+                    return accepted;
+                }
+                return accepted.stream()
+                        .filter(extension -> !SessionPayloadEncoder.PERMESSAGE_DEFLATE.equals(extension.getName()))
+                        .toList();
+            }
+        };
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // Boot이 먼저 등록한 JSON 컨버터를 계측용으로 교체하고, 수신용 CBOR 컨버터를 뒤에 추가
+        messageConverters.removeIf(converter -> converter instanceof MappingJackson2MessageConverter);
+        if(messageConverters.isEmpty()){
+            messageConverters.add(new StringMessageConverter());
+            messageConverters.add(new ByteArrayMessageConverter());
+        }
+        messageConverters.add(payloadEncoder.jsonConverter());
+        messageConverters.add(payloadEncoder.cborConverter());
+        return false;
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // 세션별 송신 큐(스냅샷 conflation, 이벤트 개수 제한)가 소켓 앞에 위치; 아래 한도는 그 위의 Spring 버퍼 백스톱
+        registration.setSendTimeLimit((int) outboundSessionPolicy.getSendTimeLimitMs())
+                .setSendBufferSizeLimit(outboundSessionPolicy.getBufferSizeLimit())
+                .addDecoratorFactory(handler -> new WebSocketHandlerDecorator(handler) {
+                    @Override
+                    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                        payloadEncoder.afterConnectionEstablished(session);
+                        WebSocketSession decorated = outboundSessionPolicy.decorate(session);
+                        idleSessionEvictor.register(session, decorated);
+                        super.afterConnectionEstablished(decorated);
+                    }
+
+                    // 수신 프레임(STOMP 프레임, 하트비트, pong)마다 유휴 시간 초기화
+                    @Override
+                    public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                        idleSessionEvictor.touch(session.getId());
+                        super.handleMessage(session, message);
+                    }
+
+                    @Override
+                    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                        idleSessionEvictor.unregister(session.getId());
+                        super.afterConnectionClosed(session, closeStatus);
+                    }
+                });
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // 핸들링 타이머와 전송량 집계는 인코딩 이후(실제 전송 대상 메시지)에 위치
+        registration.executor(channelExecutors.outboundExecutor())
+                .interceptors(payloadEncoder, broadcastTrafficMeter.deliveredInterceptor(), channelExecutors.outboundInterceptor());
     }
 
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutors.inboundExecutor());
         registration.interceptors(new ChannelInterceptor() {
             @Override
             public Message<?> preSend(Message<?> message, MessageChannel channel){
@@ -94,9 +274,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                     log.error("Error processing WebSocket CONNECT header", e);
                     }
                 }
-                return message;
+                return payloadEncoder.handleInbound(message);
             }
-        });
+        }, channelExecutors.inboundInterceptor());
     }
 
 
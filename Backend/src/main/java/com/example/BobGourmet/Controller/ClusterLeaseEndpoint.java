@@ -0,0 +1,28 @@
+package com.example.BobGourmet.Controller;
+
+import com.example.BobGourmet.Service.ClusterLeaseService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// exposed as /actuator/leases: which node holds each scheduled-job lease right now
+@Component
+@Endpoint(id = "leases")
+@RequiredArgsConstructor
+public class ClusterLeaseEndpoint {
+
+    private final ClusterLeaseService clusterLeaseService;
+
+    @ReadOperation
+    public Map<String, Object> leases() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("nodeId", clusterLeaseService.getNodeId());
+        result.put("heldByThisNode", clusterLeaseService.getHeldLeaseNames());
+        result.put("leases", clusterLeaseService.describeLeases());
+        return result;
+    }
+}
@@ -4,15 +4,23 @@ import com.example.BobGourmet.DTO.MenuDTO.MenuStatus;
 import com.example.BobGourmet.DTO.MenuDTO.SubmitMenuRequest;
 import com.example.BobGourmet.DTO.RoomDTO.CreateRoomRequest;
 import com.example.BobGourmet.DTO.RoomDTO.JoinRoomRequest;
+import com.example.BobGourmet.DTO.RoomDTO.LobbySnapshot;
+import com.example.BobGourmet.DTO.RoomDTO.ParticipantPage;
 import com.example.BobGourmet.DTO.RoomDTO.RoomDetails;
+import com.example.BobGourmet.DTO.RoomDTO.RoomSnapshot;
+import com.example.BobGourmet.DTO.RoomDTO.RoundSettingsRequest;
 import com.example.BobGourmet.Exception.RoomException;
+import com.example.BobGourmet.Service.LobbyService;
 import com.example.BobGourmet.Service.MatchroomService;
-import com.example.BobGourmet.Service.MenuService;
-import com.example.BobGourmet.Service.RoomStateService;
+import com.example.BobGourmet.Service.RoomCommandService;
+import com.example.BobGourmet.Service.RoomRateLimiter;
+import com.example.BobGourmet.Service.TimedRoundService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -21,7 +29,6 @@ import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Operation;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Tag(name= "MatchRooms", description="매치룸 관련 API")
@@ -32,22 +39,54 @@ import java.util.Optional;
 public class MatchRoomController {
 
     private final MatchroomService matchroomService;
-    private final MenuService menuService;
-    private final RoomStateService roomStateService;
+    private final RoomCommandService roomCommandService;
+    private final TimedRoundService timedRoundService;
+    private final LobbyService lobbyService;
+    private final RoomRateLimiter roomRateLimiter;
 
+    // ETag responses are revalidated on every use (no-cache) instead of Spring Security's default no-store,
+    // so browsers send If-None-Match and unchanged polls come back as 304 without a body
     @GetMapping
-    public ResponseEntity<List<RoomDetails>> getActiveRooms() {
+    public ResponseEntity<List<RoomDetails>> getActiveRooms(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = "\"rooms-" + matchroomService.getActiveRoomsVersionTag() + "\"";
+        if (matchesETag(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
         List<RoomDetails> rooms = matchroomService.getAllActiveRooms();
-        return ResponseEntity.ok(rooms);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(rooms);
+    }
+
+    @Operation(summary = "로비 스냅샷 조회", description = "방 목록(요약)과 로비 버전 조회; 이후 변경은 /topic/lobby 의 diff로 수신")
+    @GetMapping("/lobby")
+    public ResponseEntity<LobbySnapshot> getLobbySnapshot(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = "\"lobby-" + lobbyService.getLobbyVersion() + "\"";
+        if (matchesETag(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+        LobbySnapshot snapshot = lobbyService.getSnapshot();
+        return ResponseEntity.ok().eTag("\"lobby-" + snapshot.getVersion() + "\"").cacheControl(CacheControl.noCache()).body(snapshot);
     }
 
-    @Operation(summary = "방 정보 조회", description = "특정 방의 상세 정보 조회")
+    @Operation(summary = "방 정보 조회", description = "특정 방의 상세 정보 조회; If-None-Match 가 방 버전과 같으면 304")
     @GetMapping("/{roomId}")
     public ResponseEntity<RoomDetails> getRoomInfo(@AuthenticationPrincipal UserDetails userDetails,
-                                                   @PathVariable String roomId) {
+                                                   @PathVariable String roomId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // tag read before the build: if a change lands in between, the client keeps a stale tag and refetches next time.
+        // Mutations bump the version before they respond, so a client never revalidates against a change it caused
+        String eTagValue = matchroomService.getRoomETagValue(roomId);
+        String eTag = eTagValue != null ? "\"" + roomId + "-" + eTagValue + "\"" : null;
+        if (eTag != null && matchesETag(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
         try {
             RoomDetails roomDetails = matchroomService.buildRoomDetails(roomId);
-            return ResponseEntity.ok(roomDetails);
+            if (eTag == null) {
+                return ResponseEntity.ok(roomDetails);
+            }
+            return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache()).body(roomDetails);
         } catch (RoomException e) {
             if (e.getMessage().contains("찾을 수 없습니다")) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
@@ -56,6 +95,22 @@ public class MatchRoomController {
         }
     }
 
+    @Operation(summary = "방 스냅샷 조회", description = "델타 이벤트 버전이 어긋났을 때 재동기화용 전체 상태(버전 포함) 조회")
+    @GetMapping("/{roomId}/snapshot")
+    public ResponseEntity<RoomSnapshot> getRoomSnapshot(@AuthenticationPrincipal UserDetails userDetails,
+                                                        @PathVariable String roomId) {
+        return ResponseEntity.ok(matchroomService.buildRoomSnapshot(userDetails.getUsername(), roomId));
+    }
+
+    @Operation(summary = "참여자 목록 페이지 조회", description = "사용자명 순으로 정렬된 참여자 목록 페이지; 대규모 방은 관전자도 조회 가능")
+    @GetMapping("/{roomId}/participants")
+    public ResponseEntity<ParticipantPage> getParticipants(@AuthenticationPrincipal UserDetails userDetails,
+                                                           @PathVariable String roomId,
+                                                           @RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(matchroomService.getParticipantPage(userDetails.getUsername(), roomId, page, size));
+    }
+
     @Operation(summary= "방 생성", description="새로운 매치룸 생성")
     @PostMapping
     public ResponseEntity<RoomDetails> createRoom(@AuthenticationPrincipal UserDetails userDetails,
@@ -63,6 +118,7 @@ public class MatchRoomController {
                                                   HttpServletRequest httpServletRequest) {
         String hostIp = httpServletRequest.getRemoteAddr(); // IP address of the client who sent the request
         int hostPort = httpServletRequest.getRemotePort(); // port of the client who sent the request
+        roomRateLimiter.check(RoomRateLimiter.Action.CREATE, userDetails.getUsername(), null);
 
         RoomDetails roomDetails = matchroomService.createRoom(
                 userDetails.getUsername(),
@@ -80,11 +136,22 @@ public class MatchRoomController {
                                                 HttpServletRequest httpServletRequest) {
         String joinerIp = httpServletRequest.getRemoteAddr(); // joiner's IP address
         int joinerPort = httpServletRequest.getRemotePort();
+        roomRateLimiter.check(RoomRateLimiter.Action.JOIN, userDetails.getUsername(), roomId);
         RoomDetails roomDetails = matchroomService.joinRoom(userDetails.getUsername(), roomId, request,
                 joinerIp, joinerPort);
         return ResponseEntity.ok(roomDetails);
     }
 
+    @Operation(summary= "빠른 참여", description="빈 자리가 있는 공개 방(메뉴 입력 중)에 바로 참여, 없으면 새 방 생성")
+    @PostMapping("/quick-join")
+    public ResponseEntity<RoomDetails> quickJoin(@AuthenticationPrincipal UserDetails userDetails,
+                                                 HttpServletRequest httpServletRequest) {
+        roomRateLimiter.check(RoomRateLimiter.Action.JOIN, userDetails.getUsername(), null);
+        RoomDetails roomDetails = matchroomService.quickJoin(userDetails.getUsername(),
+                httpServletRequest.getRemoteAddr(), httpServletRequest.getRemotePort());
+        return ResponseEntity.ok(roomDetails);
+    }
+
     @Operation(summary= "방 퇴장", description="참여중인 방에서 퇴장")
     @PostMapping("/{roomId}/leave")
     public ResponseEntity<String> leaveRoom(@AuthenticationPrincipal UserDetails userDetails,
@@ -98,17 +165,7 @@ public class MatchRoomController {
     public ResponseEntity<MenuStatus> submitMenus(@AuthenticationPrincipal UserDetails userDetails,
                                                   @PathVariable String roomId,
                                                   @RequestBody SubmitMenuRequest request) {
-        Map<String,Object> result = menuService.submitMenus(userDetails.getUsername(), roomId, request);
-        String nextState = (String) result.get("nextState");
-
-        if("submitted".equals(nextState)){
-            roomStateService.allMenusSubmitted(roomId);
-            matchroomService.broadcastRoomStateUpdate(roomId, "submitted",matchroomService.buildRoomDetails(roomId));
-        }else if("inputting".equals(nextState)){
-            roomStateService.startMenuInput(roomId);
-            matchroomService.broadcastRoomStateUpdate(roomId, "inputting",matchroomService.buildRoomDetails(roomId));
-        }
-        return ResponseEntity.ok((MenuStatus)result.get("menuStatus"));
+        return ResponseEntity.ok(roomCommandService.submitMenus(userDetails.getUsername(), roomId, request));
     }
 
     @Operation(summary= "추첨 시작", description="추첨된 메뉴들을 기반으로 추첨 시작")
@@ -116,36 +173,23 @@ public class MatchRoomController {
     public ResponseEntity<RoomDetails> startDraw(@AuthenticationPrincipal UserDetails userDetails,
                                                  @PathVariable String roomId){
 
-        try {
-            Map<String, Object> drawResult = menuService.startDraw(userDetails.getUsername(), roomId);
-            String selectedMenu = (String) drawResult.get("selectedMenu");
-            long timestamp = (long) drawResult.get("timestamp");
-            roomStateService.startResultViewing(roomId, selectedMenu, timestamp);
-            RoomDetails roomDetails = matchroomService.buildRoomDetails(roomId);
-            matchroomService.broadcastRoomStateUpdate(roomId, "result_viewing",roomDetails);
-            return ResponseEntity.ok(roomDetails);
-        }
-        catch (RoomException e) {
-            if(e.getMessage().contains("추첨할 메뉴가 없습니다.")){
-                log.warn("Draw failed for room {}: {}. Resetting room.", roomId, e.getMessage());
-                roomStateService.startMenuInput(roomId);
-                RoomDetails updatedDetails = matchroomService.buildRoomDetails(roomId);
-                return new ResponseEntity<>(updatedDetails, HttpStatus.OK);
-            }throw e;
-
-        }
+        return ResponseEntity.ok(roomCommandService.startDraw(userDetails.getUsername(), roomId));
     }
 
 
     @Operation(summary= "방 초기화", description="메뉴 다시 받기 위해 초기화")
     @PostMapping("/{roomId}/reset")
     public ResponseEntity<RoomDetails> resetDraw(@AuthenticationPrincipal UserDetails userDetails,@PathVariable String roomId){
-        menuService.resetDraw(userDetails.getUsername(), roomId);
-        roomStateService.startMenuInput(roomId);
-        RoomDetails updatedDetails = matchroomService.buildRoomDetails(roomId);
-        matchroomService.broadcastRoomStateUpdate(roomId, "inputting",updatedDetails);
+        return ResponseEntity.ok(roomCommandService.resetDraw(userDetails.getUsername(), roomId));
+    }
 
-        return ResponseEntity.ok(updatedDetails);
+    @Operation(summary= "라운드 타이머 설정", description="호스트가 메뉴 입력 제한 시간, 결과 확인 시간, 마감 동작을 설정")
+    @PutMapping("/{roomId}/round-settings")
+    public ResponseEntity<RoomDetails> updateRoundSettings(@AuthenticationPrincipal UserDetails userDetails,
+                                                           @PathVariable String roomId,
+                                                           @RequestBody RoundSettingsRequest request){
+        RoomDetails roomDetails = timedRoundService.updateRoundSettings(userDetails.getUsername(), roomId, request);
+        return ResponseEntity.ok(roomDetails);
     }
 
     @Operation(summary= "특정 메뉴 추천", description="추가되어 있는 특정 메뉴 추천(대신 개인이 추가 가능한 메뉴 하나 삭감")
@@ -153,7 +197,7 @@ public class MatchRoomController {
     public ResponseEntity<MenuStatus> recommendMenu(@AuthenticationPrincipal UserDetails userDetails,
                                                     @PathVariable String roomId,
                                                     @PathVariable String menuKey){
-        MenuStatus menuStatus = menuService.recommendMenu(userDetails.getUsername(), roomId, menuKey);
+        MenuStatus menuStatus = roomCommandService.recommendMenu(userDetails.getUsername(), roomId, menuKey);
         return ResponseEntity.ok(menuStatus);
     }
 
@@ -162,9 +206,28 @@ public class MatchRoomController {
     public ResponseEntity<MenuStatus> dislikeMenu(@AuthenticationPrincipal UserDetails userDetails,
                                                   @PathVariable String roomId,
                                                   @PathVariable String menuKey){
-        MenuStatus menuStatus = menuService.dislikeMenu(userDetails.getUsername(), roomId, menuKey);
+        MenuStatus menuStatus = roomCommandService.dislikeMenu(userDetails.getUsername(), roomId, menuKey);
         return ResponseEntity.ok(menuStatus);
     }
 
+    // weak comparison, as RFC 9110 asks for If-None-Match
+    private static boolean matchesETag(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
 
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(CacheControl.noCache()).build();
+    }
 }
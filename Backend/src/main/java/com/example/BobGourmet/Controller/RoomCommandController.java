@@ -0,0 +1,130 @@
+package com.example.BobGourmet.Controller;
+
+import com.example.BobGourmet.DTO.CommandResult;
+import com.example.BobGourmet.DTO.MenuDTO.SubmitMenuRequest;
+import com.example.BobGourmet.Exception.RateLimitExceededException;
+import com.example.BobGourmet.Exception.RoomException;
+import com.example.BobGourmet.Service.RoomCommandService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+/**
+ * STOMP versions of the menu and draw commands of {@link MatchRoomController}, sent to /app/rooms/{roomId}/...
+ * over the already authenticated socket. The sender gets a small ack on /user/queue/acks (or an error on
+ * /user/queue/errors) carrying the optional command-id header; the resulting state arrives through the usual room broadcasts.
+ * A throttled command's error carries retryAfterMs.
+ */
+@Slf4j
+@Controller
+@RequiredArgsConstructor
+public class RoomCommandController {
+
+    public static final String COMMAND_ID_HEADER = "command-id";
+
+    private final RoomCommandService roomCommandService;
+
+    @MessageMapping("/rooms/{roomId}/menus")
+    @SendToUser(destinations = "/queue/acks", broadcast = false)
+    public CommandResult submitMenus(Principal principal, @DestinationVariable String roomId,
+                                     @Payload SubmitMenuRequest request,
+                                     @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                     SimpMessageHeaderAccessor accessor) {
+        roomCommandService.submitMenus(username(principal), roomId, request);
+        return ack(commandId, accessor);
+    }
+
+    @MessageMapping("/rooms/{roomId}/menus/{menuKey}/recommend")
+    @SendToUser(destinations = "/queue/acks", broadcast = false)
+    public CommandResult recommendMenu(Principal principal, @DestinationVariable String roomId,
+                                       @DestinationVariable String menuKey,
+                                       @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                       SimpMessageHeaderAccessor accessor) {
+        roomCommandService.recommendMenu(username(principal), roomId, menuKey);
+        return ack(commandId, accessor);
+    }
+
+    @MessageMapping("/rooms/{roomId}/menus/{menuKey}/dislike")
+    @SendToUser(destinations = "/queue/acks", broadcast = false)
+    public CommandResult dislikeMenu(Principal principal, @DestinationVariable String roomId,
+                                     @DestinationVariable String menuKey,
+                                     @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                     SimpMessageHeaderAccessor accessor) {
+        roomCommandService.dislikeMenu(username(principal), roomId, menuKey);
+        return ack(commandId, accessor);
+    }
+
+    @MessageMapping("/rooms/{roomId}/draw")
+    @SendToUser(destinations = "/queue/acks", broadcast = false)
+    public CommandResult startDraw(Principal principal, @DestinationVariable String roomId,
+                                   @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                   SimpMessageHeaderAccessor accessor) {
+        roomCommandService.startDraw(username(principal), roomId);
+        return ack(commandId, accessor);
+    }
+
+    @MessageMapping("/rooms/{roomId}/reset")
+    @SendToUser(destinations = "/queue/acks", broadcast = false)
+    public CommandResult resetDraw(Principal principal, @DestinationVariable String roomId,
+                                   @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                   SimpMessageHeaderAccessor accessor) {
+        roomCommandService.resetDraw(username(principal), roomId);
+        return ack(commandId, accessor);
+    }
+
+    @MessageExceptionHandler(RateLimitExceededException.class)
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public CommandResult handleRateLimitExceeded(RateLimitExceededException ex,
+                                                 @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                                 SimpMessageHeaderAccessor accessor) {
+        return new CommandResult(commandId, accessor.getDestination(), "Too Many Requests", ex.getMessage(), ex.getRetryAfterMs());
+    }
+
+    @MessageExceptionHandler(RoomException.class)
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public CommandResult handleRoomException(RoomException ex,
+                                             @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                             SimpMessageHeaderAccessor accessor) {
+        log.warn("STOMP command {} failed: {}", accessor.getDestination(), ex.getMessage());
+        return new CommandResult(commandId, accessor.getDestination(), "Room Error", ex.getMessage(), null);
+    }
+
+    // commands on a room the sender is not a member of; same answer as the REST GlobalExceptionHandler
+    @MessageExceptionHandler(SecurityException.class)
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public CommandResult handleSecurityException(SecurityException ex,
+                                                 @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                                 SimpMessageHeaderAccessor accessor) {
+        log.warn("STOMP command {} denied: {}", accessor.getDestination(), ex.getMessage());
+        return new CommandResult(commandId, accessor.getDestination(), "Access Denied", "no permission", null);
+    }
+
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public CommandResult handleException(Exception ex,
+                                         @Header(name = COMMAND_ID_HEADER, required = false) String commandId,
+                                         SimpMessageHeaderAccessor accessor) {
+        log.error("STOMP command {} failed", accessor.getDestination(), ex);
+        return new CommandResult(commandId, accessor.getDestination(), "Internal Server Error", "요청 처리 중 오류가 발생했습니다.", null);
+    }
+
+    private String username(Principal principal) {
+        if (principal == null) {
+            throw new RoomException("인증되지 않은 WebSocket 세션입니다.");
+        }
+        return principal.getName();
+    }
+
+    private CommandResult ack(String commandId, SimpMessageHeaderAccessor accessor) {
+        return new CommandResult(commandId, accessor.getDestination(), null, null, null);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.BobGourmet.Controller;
+
+import com.example.BobGourmet.Service.BroadcastTrafficMeter;
+import com.example.BobGourmet.Service.WebSocketSessionRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// exposed as /actuator/roomtraffic?top=N: rooms on this node with the most outbound broadcast bytes,
+// each with its connected sessions across the cluster
+@Component
+@Endpoint(id = "roomtraffic")
+@RequiredArgsConstructor
+public class RoomTrafficEndpoint {
+
+    private static final int DEFAULT_TOP = 10;
+
+    private final BroadcastTrafficMeter broadcastTrafficMeter;
+    private final WebSocketSessionRegistry sessionRegistry;
+
+    @ReadOperation
+    public Map<String, Object> roomTraffic(@Nullable Integer top) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("trackedRooms", broadcastTrafficMeter.trackedRoomCount());
+        List<Map<String, Object>> rooms = broadcastTrafficMeter.topRooms(top != null && top > 0 ? top : DEFAULT_TOP);
+        rooms.forEach(room -> room.put("connectedSessions", sessionRegistry.countRoomSessions((String) room.get("roomId"))));
+        result.put("rooms", rooms);
+        return result;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.BobGourmet.DTO.ClusterDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// a broker message as relayed between nodes over Redis pub/sub; the payload is already encoded (JSON bytes)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BrokerEnvelope {
+
+    private String originNodeId;
+    private String destination;
+    private Map<String, List<String>> nativeHeaders;
+    private String contentType;
+    private byte[] payload;
+}
@@ -0,0 +1,15 @@
+package com.example.BobGourmet.DTO.ClusterDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaseInfo {
+    private String leaseName;
+    private String ownerNodeId;
+    private long fencingToken;
+    private long remainingTtlMs;
+}
@@ -0,0 +1,16 @@
+package com.example.BobGourmet.DTO.ClusterDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// a user-destination message forwarded to the node that holds the user's session
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserMessageEnvelope {
+
+    private String username;
+    private String destination; // user destination without the /user prefix, e.g. /queue/events
+    private String payloadJson;
+}
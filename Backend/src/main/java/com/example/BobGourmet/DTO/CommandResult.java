@@ -0,0 +1,17 @@
+package com.example.BobGourmet.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// STOMP 명령 응답: /user/queue/acks(성공) 또는 /user/queue/errors(실패)로 전송
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommandResult {
+    private String commandId; // 클라이언트가 보낸 command-id 헤더 (없으면 null)
+    private String command;   // 명령 destination (예: /app/rooms/{roomId}/draw)
+    private String error;     // 실패 시 오류 종류
+    private String message;   // 실패 시 오류 메시지
+    private Long retryAfterMs; // 요청 제한에 걸렸을 때 다시 시도할 수 있을 때까지의 시간 (그 외에는 null)
+}
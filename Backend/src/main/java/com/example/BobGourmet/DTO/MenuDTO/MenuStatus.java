@@ -17,4 +17,6 @@ public class MenuStatus {
     private Map<String, MenuVoteDetails> menuVotes;
     private Set<String> dislikedAndExcludedMenuKeys;
     private Map<String,Boolean> userSubmitStatus;
+    // menu -> counts; the only vote data in large rooms, where per-user maps and voter sets are left out
+    private Map<String, MenuVoteCount> voteCounts;
 }
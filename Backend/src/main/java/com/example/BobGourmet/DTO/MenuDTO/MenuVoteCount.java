@@ -0,0 +1,14 @@
+package com.example.BobGourmet.DTO.MenuDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuVoteCount {
+    private int recommendCount;
+    private int dislikeCount;
+    private boolean excluded;
+}
@@ -13,4 +13,5 @@ public class Participant {
     private String nickname;
     private String endpoint;
     private boolean submittedMenu;
+    private String status; // online | away
 }
@@ -18,4 +18,12 @@ public class CreateRoomRequest {
 
     private boolean isPrivate;
     private String password;
+
+    // optional timed round settings (null = defaults, inputDeadlineSeconds 0 = no countdown)
+    private Integer inputDeadlineSeconds;
+    private Integer resultViewSeconds;
+    private String deadlineAction; // "draw" or "submit"
+
+    // team-wide vote: capacity from app.room.large.max-users (maxUsers is ignored), spectators allowed
+    private boolean largeRoom;
 }
\ No newline at end of file
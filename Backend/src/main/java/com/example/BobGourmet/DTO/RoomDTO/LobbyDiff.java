@@ -0,0 +1,18 @@
+package com.example.BobGourmet.DTO.RoomDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbyDiff {
+
+    private long version; // lobby-wide; a gap means a missed diff, resync from the lobby snapshot
+    private String op;    // ROOM_CREATED, ROOM_CLOSED, MEMBER_COUNT_CHANGED, STATE_CHANGED
+    private String roomId;
+    private Map<String, Object> data;
+}
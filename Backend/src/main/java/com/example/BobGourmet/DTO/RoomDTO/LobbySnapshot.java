@@ -0,0 +1,16 @@
+package com.example.BobGourmet.DTO.RoomDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LobbySnapshot {
+
+    private long version; // diffs with a higher version apply on top of this snapshot
+    private List<RoomSummary> rooms;
+}
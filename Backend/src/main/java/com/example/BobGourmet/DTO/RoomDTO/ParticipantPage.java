@@ -0,0 +1,20 @@
+package com.example.BobGourmet.DTO.RoomDTO;
+
+import com.example.BobGourmet.DTO.Participant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ParticipantPage {
+
+    private String roomId;
+    private int page;
+    private int size;
+    private long totalCount;
+    private List<Participant> participants; // sorted by username
+}
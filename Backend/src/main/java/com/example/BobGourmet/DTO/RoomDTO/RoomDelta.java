@@ -0,0 +1,18 @@
+package com.example.BobGourmet.DTO.RoomDTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomDelta {
+
+    private String roomId;
+    private long version; // clients resync from the snapshot when this isn't lastVersion + 1
+    private String op; // e.g. "MENU_RECOMMENDED", "USER_LEFT", "STATE_CHANGED"
+    private Map<String, Object> data;
+}
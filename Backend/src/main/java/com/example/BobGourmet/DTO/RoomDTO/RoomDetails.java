@@ -22,6 +22,10 @@ public class RoomDetails {
     private String state; // "WAITING", "SUBMITTING_MENUS", "VOTING", "DRAWING", "RESULT_DISPLAYED"
     private boolean isPrivate;
     private String hostNickname;
-
+    private Long roundDeadline; // epoch millis when the current phase ends, null if untimed
+    private Integer inputDeadlineSeconds;
+    private Integer resultViewSeconds;
+    private int participantCount; // all members; in a large room users/participants hold only the first page
+    private boolean largeRoom;
 
 }
\ No newline at end of file
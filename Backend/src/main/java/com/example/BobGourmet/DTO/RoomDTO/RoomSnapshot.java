@@ -0,0 +1,16 @@
+package com.example.BobGourmet.DTO.RoomDTO;
+
+import com.example.BobGourmet.DTO.MenuDTO.MenuStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoomSnapshot {
+
+    private long version; // deltas with a higher version apply on top of this snapshot
+    private RoomDetails roomDetails;
+    private MenuStatus menuStatus;
+}
@@ -18,5 +18,5 @@ public class RoomSummary {
 
     private boolean isPrivate;
     private String hostNickname;
-
+    private String state;
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package com.example.BobGourmet.DTO.RoomDTO;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class RoundSettingsRequest {
+
+    private Integer inputDeadlineSeconds; // 0 disables the input countdown
+    private Integer resultViewSeconds;
+    private String deadlineAction; // "draw" or "submit"
+}
@@ -0,0 +1,25 @@
+package com.example.BobGourmet.Exception;
+
+// a RoomException, so callers that already handle room errors keep working; the handlers add the retry hint
+public class RateLimitExceededException extends RoomException {
+
+    private final long retryAfterMs;
+
+    public RateLimitExceededException(String message, long retryAfterMs) {
+        super(message);
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    public long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+
+    // Retry-After takes whole seconds; rounded up so a client that waits that long gets through
+    public long getRetryAfterSeconds() {
+        return toSeconds(retryAfterMs);
+    }
+
+    public static long toSeconds(long retryAfterMs) {
+        return Math.max(1, (retryAfterMs + 999) / 1000);
+    }
+}
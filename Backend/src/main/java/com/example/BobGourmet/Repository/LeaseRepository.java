@@ -0,0 +1,24 @@
+package com.example.BobGourmet.Repository;
+
+import com.example.BobGourmet.DTO.ClusterDTO.LeaseInfo;
+
+import java.util.Optional;
+import java.util.Set;
+
+public interface LeaseRepository {
+
+    // returns the fencing token when the lease is held by ownerId after the call, -1 otherwise
+    long tryAcquire(String leaseName, String ownerId, long ttlMs);
+
+    // extends the lease only if ownerId still holds it; returns the fencing token or -1 if lost
+    long renew(String leaseName, String ownerId, long ttlMs);
+
+    boolean release(String leaseName, String ownerId);
+
+    // true while no other node has acquired the lease since the given token was issued
+    boolean isFenceCurrent(String leaseName, long fencingToken);
+
+    Optional<LeaseInfo> getLeaseInfo(String leaseName);
+
+    Set<String> getKnownLeaseNames();
+}
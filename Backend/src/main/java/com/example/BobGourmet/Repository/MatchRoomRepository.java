@@ -2,6 +2,7 @@ package com.example.BobGourmet.Repository;
 
 import com.example.BobGourmet.DTO.MenuDTO.MenuVoteDetails;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -49,6 +50,12 @@ public interface MatchRoomRepository {
     Long getRoomUserCount(String roomId);
     String getRoomState(String roomId);
 
+    // large rooms: hundreds of members, paged participant lists and aggregated votes
+    void markLargeRoom(String roomId);
+    boolean isLargeRoom(String roomId);
+    // members sorted by username, one page at a time
+    List<String> getRoomUsersPage(String roomId, long offset, int count);
+
     void addUserToRoom(String roomId, String username);
     void setUserLocation(String username, String roomId);
 
@@ -60,11 +67,54 @@ public interface MatchRoomRepository {
 
     void removeRoomFromActiveList(String roomId);
     void deleteRoomData(String roomId);
+
+    // per-room event version, bumped on every broadcast change
+    long incrementRoomVersion(String roomId);
+    long getRoomVersion(String roomId);
+    // one MGET; rooms without a version yet map to 0
+    Map<String, Long> getMultipleRoomVersions(Set<String> roomIds);
+
+    // quick join: atomically adds the user to the public "inputting" room with the fewest free slots (O(log n) lookup)
+    // returns the room id, CLAIM_NO_ROOM or CLAIM_ALREADY_IN_ROOM
+    String claimFreeSlot(String username, String endpoint, long now);
+    long backfillFreeSlots(); // rebuilds the quick-join index entry of every active room, returns how many can be joined
+
+    // lobby (room list) version, bumped on every lobby diff
+    long incrementLobbyVersion();
+    long getLobbyVersion();
+    Map<String, Long> getMultipleRoomUserCounts(Set<String> roomIds);
+
+    // presence heartbeats (username -> last heartbeat), refreshed by the node holding the user's socket
+    void refreshHeartbeats(Collection<String> usernames, long timestamp);
+    Map<String, Long> getHeartbeats(List<String> usernames);
+    // limit < 0 returns every match
+    List<String> findUsersByHeartbeat(long from, long to, int limit);
+    List<String> findUsersByHeartbeat(long from, long to, long offset, int limit);
+    // removes the heartbeat only if it is still older than the cutoff; true when this caller removed it
+    boolean claimExpiredHeartbeat(String username, long expiredBefore);
+    // puts a claimed heartbeat back (still expired, so the next sweep retries) unless the member heartbeated since
+    void restoreExpiredHeartbeat(String username, long timestamp);
+    Map<String, String> findRoomIdsByUsers(List<String> usernames);
+    // members the presence sweep has announced as away; shared so a lease moving between nodes keeps the same view
+    Set<String> getAnnouncedAway();
+    void addAnnouncedAway(Collection<String> usernames);
+    void removeAnnouncedAway(Collection<String> usernames);
+
+    // last-activity index used by the idle room reaper
+    void touchRoom(String roomId);
+    Optional<Long> getRoomLastActivity(String roomId);
+    List<String> findIdleRoomIds(long idleSince, int limit);
+    long backfillRoomLastActivity(long timestamp); // indexes active rooms that have no last activity yet, returns how many
     void removeUserLocation(String username); // one user
     void removeUsersLocation(List<String> usernames); // many users
 
     void updateRoomState(String roomId, String newState);
 
+    void saveRoundSettings(String roomId, int inputDeadlineSeconds, int resultViewSeconds, String deadlineAction);
+
+    // null clears the deadline
+    void saveRoundDeadline(String roomId, Long deadline);
+
     Map<String, Map<String,String>> getMultipleRoomDetails(Set<String> roomIds);
 
     Map<String, Set<String>> getMultipleRoomUsers(Set<String> roomIds);
@@ -0,0 +1,7 @@
+package com.example.BobGourmet.Repository;
+
+public interface RateLimitRepository {
+
+    // counts one request against every (key, limit) pair if all have room; returns 0, or the ms until the fullest window frees a slot
+    long tryAcquire(String[] keys, int[] limits, long windowMs);
+}
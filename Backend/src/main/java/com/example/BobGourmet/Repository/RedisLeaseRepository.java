@@ -0,0 +1,125 @@
+package com.example.BobGourmet.Repository;
+
+import com.example.BobGourmet.DTO.ClusterDTO.LeaseInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Repository
+public class RedisLeaseRepository implements LeaseRepository {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisLeaseRepository(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    // -- Redis Key Constants --
+    private static final String LEASE_KEY_PREFIX = "lease:";
+    private static final String LEASE_REGISTRY_SET_KEY = "leases:registry";
+    private static final String OWNER_TOKEN_SEPARATOR = "|";
+
+    // KEYS[1] = lease key, KEYS[2] = fence counter, ARGV[1] = owner, ARGV[2] = ttl(ms)
+    // the fence counter is only incremented when ownership changes hands, so a stale holder's token falls behind
+    private static final DefaultRedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local cur = redis.call('GET', KEYS[1]) " +
+            "if cur then " +
+            "  local owner, token = string.match(cur, '^(.*)|(%d+)$') " +
+            "  if owner == ARGV[1] then " +
+            "    redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+            "    return tonumber(token) " +
+            "  end " +
+            "  return -1 " +
+            "end " +
+            "local token = redis.call('INCR', KEYS[2]) " +
+            "redis.call('SET', KEYS[1], ARGV[1] .. '|' .. token, 'PX', ARGV[2]) " +
+            "return token", Long.class);
+
+    // KEYS[1] = lease key, ARGV[1] = owner, ARGV[2] = ttl(ms)
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "local cur = redis.call('GET', KEYS[1]) " +
+            "if not cur then return -1 end " +
+            "local owner, token = string.match(cur, '^(.*)|(%d+)$') " +
+            "if owner ~= ARGV[1] then return -1 end " +
+            "redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+            "return tonumber(token)", Long.class);
+
+    // KEYS[1] = lease key, ARGV[1] = owner
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "local cur = redis.call('GET', KEYS[1]) " +
+            "if not cur then return 0 end " +
+            "local owner = string.match(cur, '^(.*)|%d+$') " +
+            "if owner ~= ARGV[1] then return 0 end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return 1", Long.class);
+
+    @Override
+    public long tryAcquire(String leaseName, String ownerId, long ttlMs) {
+        Long token = stringRedisTemplate.execute(ACQUIRE_SCRIPT,
+                Arrays.asList(getLeaseKey(leaseName), getFenceKey(leaseName)), ownerId, String.valueOf(ttlMs));
+        if (token != null && token > 0) {
+            stringRedisTemplate.opsForSet().add(LEASE_REGISTRY_SET_KEY, leaseName);
+            return token;
+        }
+        return -1L;
+    }
+
+    @Override
+    public long renew(String leaseName, String ownerId, long ttlMs) {
+        Long token = stringRedisTemplate.execute(RENEW_SCRIPT,
+                Collections.singletonList(getLeaseKey(leaseName)), ownerId, String.valueOf(ttlMs));
+        return token != null ? token : -1L;
+    }
+
+    @Override
+    public boolean release(String leaseName, String ownerId) {
+        Long released = stringRedisTemplate.execute(RELEASE_SCRIPT,
+                Collections.singletonList(getLeaseKey(leaseName)), ownerId);
+        return released != null && released == 1L;
+    }
+
+    @Override
+    public boolean isFenceCurrent(String leaseName, long fencingToken) {
+        String current = stringRedisTemplate.opsForValue().get(getFenceKey(leaseName));
+        return current != null && Long.parseLong(current) == fencingToken;
+    }
+
+    @Override
+    public Optional<LeaseInfo> getLeaseInfo(String leaseName) {
+        String leaseKey = getLeaseKey(leaseName);
+        String value = stringRedisTemplate.opsForValue().get(leaseKey);
+        if (value == null) {
+            return Optional.empty();
+        }
+        int separatorIndex = value.lastIndexOf(OWNER_TOKEN_SEPARATOR);
+        if (separatorIndex < 0) {
+            log.warn("Malformed lease value '{}' for lease '{}'", value, leaseName);
+            return Optional.empty();
+        }
+        Long ttl = stringRedisTemplate.getExpire(leaseKey, TimeUnit.MILLISECONDS);
+        return Optional.of(new LeaseInfo(leaseName, value.substring(0, separatorIndex),
+                Long.parseLong(value.substring(separatorIndex + 1)), ttl != null ? ttl : -1L));
+    }
+
+    @Override
+    public Set<String> getKnownLeaseNames() {
+        Set<String> names = stringRedisTemplate.opsForSet().members(LEASE_REGISTRY_SET_KEY);
+        return names != null ? names : Collections.emptySet();
+    }
+
+    private String getLeaseKey(String leaseName) {
+        return LEASE_KEY_PREFIX + leaseName;
+    }
+
+    private String getFenceKey(String leaseName) {
+        return LEASE_KEY_PREFIX + leaseName + ":fence";
+    }
+}
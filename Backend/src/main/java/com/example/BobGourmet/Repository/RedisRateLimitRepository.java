@@ -0,0 +1,57 @@
+package com.example.BobGourmet.Repository;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Sliding-window request log per key: a sorted set of request ids scored by their time in ms.
+ */
+@Repository
+public class RedisRateLimitRepository implements RateLimitRepository {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisRateLimitRepository(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    // KEYS = window keys, ARGV[1] = window(ms), ARGV[2] = request id, ARGV[3..] = limit per key (0 = unlimited)
+    // all windows are checked before any is written, so a request refused by the room window doesn't use up the user's;
+    // the time comes from Redis so every node slides the same window
+    private static final DefaultRedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) " +
+            "local window = tonumber(ARGV[1]) " +
+            "local retry = 0 " +
+            "for i, key in ipairs(KEYS) do " +
+            "  redis.call('ZREMRANGEBYSCORE', key, '-inf', now - window) " +
+            "  local limit = tonumber(ARGV[i + 2]) " +
+            "  local count = redis.call('ZCARD', key) " +
+            "  if limit > 0 and count >= limit then " +
+            "    local freeing = redis.call('ZRANGE', key, count - limit, count - limit, 'WITHSCORES') " +
+            "    retry = math.max(retry, tonumber(freeing[2]) + window - now, 1) " +
+            "  end " +
+            "end " +
+            "if retry > 0 then return retry end " +
+            "for i, key in ipairs(KEYS) do " +
+            "  redis.call('ZADD', key, now, ARGV[2]) " +
+            "  redis.call('PEXPIRE', key, window) " +
+            "end " +
+            "return 0", Long.class);
+
+    @Override
+    public long tryAcquire(String[] keys, int[] limits, long windowMs) {
+        Object[] args = new Object[limits.length + 2];
+        args[0] = String.valueOf(windowMs);
+        args[1] = UUID.randomUUID().toString();
+        for (int i = 0; i < limits.length; i++) {
+            args[i + 2] = String.valueOf(limits[i]);
+        }
+        Long retryAfterMs = stringRedisTemplate.execute(ACQUIRE_SCRIPT, Arrays.asList(keys), args);
+        return retryAfterMs != null ? retryAfterMs : 0L;
+    }
+}
@@ -10,12 +10,17 @@ import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.query.SortQueryBuilder;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Repository;
 
 import java.awt.*;
 import java.time.Instant;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -37,11 +42,94 @@ public class RedisRoomRepository implements MatchRoomRepository{
     public static final long JOIN_ERROR_ROOM_NOT_FOUND = -4L;
     public static final long JOIN_ERROR_WATCH_CONFLICT = -3L;
     public static final long JOIN_ERROR_UNKNOWN = -5L;
+    public static final String CLAIM_NO_ROOM = "";
+    public static final String CLAIM_ALREADY_IN_ROOM = "-5";
 
 
     // -- Redis Key Constants --
     private static final String ROOM_NICKNAMES_HASH_KEY_PREFIX = "room:";
     private static final String ROOMS_ACTIVE_SET_KEY = "rooms:active_set";
+    private static final String ROOMS_LAST_ACTIVITY_ZSET_KEY = "rooms:last_activity";
+    private static final String LOBBY_VERSION_KEY = "lobby:version";
+    // quick-join index: public rooms in "inputting" with room left, scored by free slots
+    private static final String ROOMS_FREE_SLOTS_ZSET_KEY = "rooms:free_slots";
+    // room details "mode" of large (spectator) rooms; they are joined by id, never through quick join
+    private static final String LARGE_ROOM_MODE = "large";
+    private static final String PRESENCE_HEARTBEATS_ZSET_KEY = "presence:heartbeats";
+    private static final String PRESENCE_ANNOUNCED_AWAY_SET_KEY = "presence:announced_away";
+
+    // KEYS[1] = heartbeats zset, ARGV[1] = username, ARGV[2] = cutoff
+    private static final DefaultRedisScript<Long> CLAIM_EXPIRED_HEARTBEAT_SCRIPT = new DefaultRedisScript<>(
+            "local score = redis.call('ZSCORE', KEYS[1], ARGV[1]) " +
+            "if score and tonumber(score) <= tonumber(ARGV[2]) then " +
+            "  redis.call('ZREM', KEYS[1], ARGV[1]) " +
+            "  return 1 " +
+            "end " +
+            "return 0", Long.class);
+    // KEYS[1] = free slots zset, KEYS[2] = room details, KEYS[3] = room users, ARGV[1] = roomId
+    private static final DefaultRedisScript<Long> SYNC_FREE_SLOTS_SCRIPT = new DefaultRedisScript<>(
+            "local state = redis.call('HGET', KEYS[2], 'state') " +
+            "local maxUsers = tonumber(redis.call('HGET', KEYS[2], 'maxUsers') or '0') " +
+            "local free = maxUsers - redis.call('SCARD', KEYS[3]) " +
+            "if state == 'inputting' and redis.call('HGET', KEYS[2], 'isPrivate') ~= 'true' " +
+            "    and redis.call('HGET', KEYS[2], 'mode') ~= 'large' and free > 0 then " +
+            "  redis.call('ZADD', KEYS[1], free, ARGV[1]) " +
+            "  return free " +
+            "end " +
+            "redis.call('ZREM', KEYS[1], ARGV[1]) " +
+            "return 0", Long.class);
+    // KEYS[1] = active rooms set, KEYS[2] = last activity zset, ARGV[1] = now
+    // rooms created before the last-activity index existed get an entry, so the reaper sees them; existing entries are kept
+    private static final DefaultRedisScript<Long> BACKFILL_LAST_ACTIVITY_SCRIPT = new DefaultRedisScript<>(
+            "local added = 0 " +
+            "for _, roomId in ipairs(redis.call('SMEMBERS', KEYS[1])) do " +
+            "  added = added + redis.call('ZADD', KEYS[2], 'NX', ARGV[1], roomId) " +
+            "end " +
+            "return added", Long.class);
+    // KEYS[1] = active rooms set, KEYS[2] = free slots zset
+    // same rule as SYNC_FREE_SLOTS_SCRIPT for every active room, so rooms created before the index existed can be quick-joined
+    private static final DefaultRedisScript<Long> BACKFILL_FREE_SLOTS_SCRIPT = new DefaultRedisScript<>(
+            "local indexed = 0 " +
+            "for _, roomId in ipairs(redis.call('SMEMBERS', KEYS[1])) do " +
+            "  local details = 'room:' .. roomId .. ':details' " +
+            "  local maxUsers = tonumber(redis.call('HGET', details, 'maxUsers') or '0') " +
+            "  local free = maxUsers - redis.call('SCARD', 'room:' .. roomId .. ':users') " +
+            "  if redis.call('HGET', details, 'state') == 'inputting' and redis.call('HGET', details, 'isPrivate') ~= 'true' " +
+            "      and redis.call('HGET', details, 'mode') ~= 'large' and free > 0 then " +
+            "    redis.call('ZADD', KEYS[2], free, roomId) " +
+            "    indexed = indexed + 1 " +
+            "  else " +
+            "    redis.call('ZREM', KEYS[2], roomId) " +
+            "  end " +
+            "end " +
+            "return indexed", Long.class);
+    // KEYS[1] = free slots zset, KEYS[2] = user locations, KEYS[3] = user endpoints, KEYS[4] = presence heartbeats
+    // ARGV[1] = username, ARGV[2] = endpoint, ARGV[3] = now, ARGV[4] = candidates to try
+    // takes the room with the fewest free slots (fills rooms up first); stale candidates are fixed or dropped on the way.
+    // returns the room id, '' when no room fits, '-5' when the user is already in a room
+    private static final DefaultRedisScript<String> CLAIM_FREE_SLOT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('HEXISTS', KEYS[2], ARGV[1]) == 1 then return '-5' end " +
+            "local candidates = redis.call('ZRANGEBYSCORE', KEYS[1], 1, '+inf', 'LIMIT', 0, tonumber(ARGV[4])) " +
+            "for _, roomId in ipairs(candidates) do " +
+            "  local details = 'room:' .. roomId .. ':details' " +
+            "  local users = 'room:' .. roomId .. ':users' " +
+            "  local state = redis.call('HGET', details, 'state') " +
+            "  local maxUsers = tonumber(redis.call('HGET', details, 'maxUsers') or '0') " +
+            "  local free = maxUsers - redis.call('SCARD', users) " +
+            "  if state == 'inputting' and redis.call('HGET', details, 'isPrivate') ~= 'true' " +
+            "      and redis.call('HGET', details, 'mode') ~= 'large' and free > 0 " +
+            "      and redis.call('SISMEMBER', users, ARGV[1]) == 0 then " +
+            "    redis.call('SADD', users, ARGV[1]) " +
+            "    redis.call('HSET', KEYS[2], ARGV[1], roomId) " +
+            "    redis.call('HSET', KEYS[3], ARGV[1], ARGV[2]) " +
+            "    redis.call('ZADD', KEYS[4], ARGV[3], ARGV[1]) " +
+            "    if free > 1 then redis.call('ZADD', KEYS[1], free - 1, roomId) else redis.call('ZREM', KEYS[1], roomId) end " +
+            "    return roomId " +
+            "  end " +
+            "  redis.call('ZREM', KEYS[1], roomId) " +
+            "end " +
+            "return ''", String.class);
+    private static final int QUICK_JOIN_CANDIDATES = 5;
     private static final String ROOM_DETAILS_HASH_KEY_PREFIX = "room:";
     private static final String ROOM_USERS_SET_KEY_PREFIX = "room:";
     private static final String USER_LOCATIONS_HASH_KEY = "user:locations";
@@ -51,6 +139,12 @@ public class RedisRoomRepository implements MatchRoomRepository{
     private static final String ROOM_SUBMIT_STATUS_HASH_KEY_PREFIX = "room:";
 
     private static final int MAX_ID_GENERATION_ATTEMPTS = 10;
+    // a burst of votes in one room only needs one ZADD; idle timeouts are minutes, so seconds of skew don't matter
+    private static final long ACTIVITY_TOUCH_THROTTLE_MS = 5000;
+
+    // roomId -> last activity timestamp written to Redis by this node; entries older than the throttle are pruned,
+    // so rooms deleted on another node don't stay here
+    private final Map<String, Long> lastActivityWritten = new ConcurrentHashMap<>();
 
     // --User Location & IP ---
     @Override
@@ -65,6 +159,7 @@ public class RedisRoomRepository implements MatchRoomRepository{
         String detailsKey = getRoomDetailsKey(roomId);
         hashOps.put(detailsKey, "lastDrawResult", menu);
         hashOps.put(detailsKey, "lastDrawTimestamp", String.valueOf(timestamp));
+        touchRoom(roomId);
     }
 
     @Override
@@ -259,6 +354,25 @@ public class RedisRoomRepository implements MatchRoomRepository{
         return stringRedisTemplate.<String,String>opsForHash().get(getRoomDetailsKey(roomId), "state");
     }
 
+    @Override
+    public void markLargeRoom(String roomId){
+        stringRedisTemplate.opsForHash().put(getRoomDetailsKey(roomId), "mode", LARGE_ROOM_MODE);
+        syncFreeSlots(roomId);
+    }
+
+    @Override
+    public boolean isLargeRoom(String roomId){
+        return LARGE_ROOM_MODE.equals(stringRedisTemplate.<String,String>opsForHash().get(getRoomDetailsKey(roomId), "mode"));
+    }
+
+    @Override
+    public List<String> getRoomUsersPage(String roomId, long offset, int count){
+        // SORT ... ALPHA LIMIT keeps pages stable while the set changes, without copying all members to the app
+        List<String> users = stringRedisTemplate.sort(SortQueryBuilder.sort(getRoomUsersKey(roomId))
+                .alphabetical(true).limit(offset, count).build());
+        return users != null ? users : Collections.emptyList();
+    }
+
     @Override
     public void addUserToRoom(String roomId, String username){
         stringRedisTemplate.opsForSet().add(getRoomUsersKey(roomId), username);
@@ -271,13 +385,232 @@ public class RedisRoomRepository implements MatchRoomRepository{
 
     @Override
     public void deleteRoomData(String roomId){
+        stringRedisTemplate.opsForZSet().remove(ROOMS_FREE_SLOTS_ZSET_KEY, roomId);
         stringRedisTemplate.delete(Arrays.asList(getRoomDetailsKey(roomId), getRoomUsersKey(roomId),
-                getRoomNicknamesKey(roomId),getRoomSubmittedMenusKey(roomId),getRoomSubmitStatusKey(roomId)));
+                getRoomNicknamesKey(roomId),getRoomSubmittedMenusKey(roomId),getRoomSubmitStatusKey(roomId),
+                getRoomVersionKey(roomId)));
+        stringRedisTemplate.opsForZSet().remove(ROOMS_LAST_ACTIVITY_ZSET_KEY, roomId);
+        lastActivityWritten.remove(roomId);
+    }
+
+    @Override
+    public long incrementRoomVersion(String roomId){
+        Long version = stringRedisTemplate.opsForValue().increment(getRoomVersionKey(roomId));
+        return version != null ? version : 0L;
+    }
+
+    @Override
+    public long getRoomVersion(String roomId){
+        String version = stringRedisTemplate.opsForValue().get(getRoomVersionKey(roomId));
+        return version != null ? Long.parseLong(version) : 0L;
+    }
+
+    @Override
+    public Map<String, Long> getMultipleRoomVersions(Set<String> roomIds){
+        List<String> roomIdList = new ArrayList<>(roomIds);
+        List<String> versions = stringRedisTemplate.opsForValue().multiGet(
+                roomIdList.stream().map(this::getRoomVersionKey).collect(Collectors.toList()));
+        Map<String, Long> result = new HashMap<>();
+        for(int i = 0; i < roomIdList.size(); i++){
+            String version = versions != null ? versions.get(i) : null;
+            result.put(roomIdList.get(i), version != null ? Long.parseLong(version) : 0L);
+        }
+        return result;
+    }
+
+    @Override
+    public String claimFreeSlot(String username, String endpoint, long now){
+        String result = stringRedisTemplate.execute(CLAIM_FREE_SLOT_SCRIPT,
+                Arrays.asList(ROOMS_FREE_SLOTS_ZSET_KEY, USER_LOCATIONS_HASH_KEY, USER_ENDPOINTS_HASH_KEY, PRESENCE_HEARTBEATS_ZSET_KEY),
+                username, endpoint, String.valueOf(now), String.valueOf(QUICK_JOIN_CANDIDATES));
+        if(result == null){
+            return CLAIM_NO_ROOM;
+        }
+        if(!result.isEmpty() && !CLAIM_ALREADY_IN_ROOM.equals(result)){
+            touchRoom(result);
+        }
+        return result;
+    }
+
+    @Override
+    public long backfillFreeSlots(){
+        Long indexed = stringRedisTemplate.execute(BACKFILL_FREE_SLOTS_SCRIPT,
+                List.of(ROOMS_ACTIVE_SET_KEY, ROOMS_FREE_SLOTS_ZSET_KEY));
+        return indexed != null ? indexed : 0L;
+    }
+
+    // keeps the quick-join index in line with the room's state, visibility and member count
+    private void syncFreeSlots(String roomId){
+        try{
+            stringRedisTemplate.execute(SYNC_FREE_SLOTS_SCRIPT,
+                    Arrays.asList(ROOMS_FREE_SLOTS_ZSET_KEY, getRoomDetailsKey(roomId), getRoomUsersKey(roomId)), roomId);
+        }catch(Exception e){
+            // a stale entry is skipped and removed by the next claim
+            log.warn("Failed to update free slots for room '{}': {}", roomId, e.getMessage());
+        }
+    }
+
+    @Override
+    public long incrementLobbyVersion(){
+        Long version = stringRedisTemplate.opsForValue().increment(LOBBY_VERSION_KEY);
+        return version != null ? version : 0L;
+    }
+
+    @Override
+    public long getLobbyVersion(){
+        String version = stringRedisTemplate.opsForValue().get(LOBBY_VERSION_KEY);
+        return version != null ? Long.parseLong(version) : 0L;
+    }
+
+    @Override
+    public void refreshHeartbeats(Collection<String> usernames, long timestamp){
+        if(usernames == null || usernames.isEmpty()){
+            return;
+        }
+        Set<ZSetOperations.TypedTuple<String>> tuples = usernames.stream()
+                .map(username -> ZSetOperations.TypedTuple.of(username, (double) timestamp))
+                .collect(Collectors.toSet());
+        stringRedisTemplate.opsForZSet().add(PRESENCE_HEARTBEATS_ZSET_KEY, tuples);
+    }
+
+    @Override
+    public Map<String, Long> getHeartbeats(List<String> usernames){
+        if(usernames == null || usernames.isEmpty()){
+            return Collections.emptyMap();
+        }
+        // one ZMSCORE for the whole room
+        List<Double> scores = stringRedisTemplate.opsForZSet().score(PRESENCE_HEARTBEATS_ZSET_KEY, usernames.toArray());
+        Map<String, Long> heartbeats = new HashMap<>();
+        for(int i = 0; i < usernames.size(); i++){
+            if(scores != null && i < scores.size() && scores.get(i) != null){
+                heartbeats.put(usernames.get(i), scores.get(i).longValue());
+            }
+        }
+        return heartbeats;
+    }
+
+    @Override
+    public List<String> findUsersByHeartbeat(long from, long to, int limit){
+        return findUsersByHeartbeat(from, to, 0, limit);
+    }
+
+    @Override
+    public List<String> findUsersByHeartbeat(long from, long to, long offset, int limit){
+        Set<String> usernames = stringRedisTemplate.opsForZSet().rangeByScore(PRESENCE_HEARTBEATS_ZSET_KEY, from, to, offset, limit);
+        return usernames != null ? new ArrayList<>(usernames) : Collections.emptyList();
+    }
+
+    @Override
+    public Set<String> getAnnouncedAway(){
+        Set<String> usernames = stringRedisTemplate.opsForSet().members(PRESENCE_ANNOUNCED_AWAY_SET_KEY);
+        return usernames != null ? usernames : Collections.emptySet();
+    }
+
+    @Override
+    public void addAnnouncedAway(Collection<String> usernames){
+        if(usernames == null || usernames.isEmpty()){
+            return;
+        }
+        stringRedisTemplate.opsForSet().add(PRESENCE_ANNOUNCED_AWAY_SET_KEY, usernames.toArray(new String[0]));
+    }
+
+    @Override
+    public void removeAnnouncedAway(Collection<String> usernames){
+        if(usernames == null || usernames.isEmpty()){
+            return;
+        }
+        stringRedisTemplate.opsForSet().remove(PRESENCE_ANNOUNCED_AWAY_SET_KEY, usernames.toArray());
+    }
+
+    @Override
+    public boolean claimExpiredHeartbeat(String username, long expiredBefore){
+        Long claimed = stringRedisTemplate.execute(CLAIM_EXPIRED_HEARTBEAT_SCRIPT,
+                Collections.singletonList(PRESENCE_HEARTBEATS_ZSET_KEY), username, String.valueOf(expiredBefore));
+        return claimed != null && claimed == 1L;
+    }
+
+    @Override
+    public void restoreExpiredHeartbeat(String username, long timestamp){
+        // ZADD NX: a refresh since the claim wins
+        stringRedisTemplate.opsForZSet().addIfAbsent(PRESENCE_HEARTBEATS_ZSET_KEY, username, timestamp);
+    }
+
+    @Override
+    public Map<String, String> findRoomIdsByUsers(List<String> usernames){
+        if(usernames == null || usernames.isEmpty()){
+            return Collections.emptyMap();
+        }
+        HashOperations<String, String, String> hashOps = stringRedisTemplate.opsForHash();
+        List<String> roomIds = hashOps.multiGet(USER_LOCATIONS_HASH_KEY, usernames);
+        Map<String, String> result = new HashMap<>();
+        for(int i = 0; i < usernames.size(); i++){
+            if(roomIds != null && i < roomIds.size() && roomIds.get(i) != null){
+                result.put(usernames.get(i), roomIds.get(i));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void touchRoom(String roomId){
+        long now = Instant.now().toEpochMilli();
+        Long lastWritten = lastActivityWritten.get(roomId);
+        if(lastWritten != null && now - lastWritten < ACTIVITY_TOUCH_THROTTLE_MS){
+            return;
+        }
+        lastActivityWritten.put(roomId, now);
+        stringRedisTemplate.opsForZSet().add(ROOMS_LAST_ACTIVITY_ZSET_KEY, roomId, now);
+    }
+
+    @Scheduled(fixedDelay = ACTIVITY_TOUCH_THROTTLE_MS)
+    public void pruneActivityThrottle(){
+        long now = Instant.now().toEpochMilli();
+        lastActivityWritten.values().removeIf(written -> now - written >= ACTIVITY_TOUCH_THROTTLE_MS);
+    }
+
+    @Override
+    public long backfillRoomLastActivity(long timestamp){
+        Long added = stringRedisTemplate.execute(BACKFILL_LAST_ACTIVITY_SCRIPT,
+                List.of(ROOMS_ACTIVE_SET_KEY, ROOMS_LAST_ACTIVITY_ZSET_KEY), String.valueOf(timestamp));
+        return added != null ? added : 0L;
+    }
+
+    @Override
+    public Optional<Long> getRoomLastActivity(String roomId){
+        Double score = stringRedisTemplate.opsForZSet().score(ROOMS_LAST_ACTIVITY_ZSET_KEY, roomId);
+        return Optional.ofNullable(score).map(Double::longValue);
+    }
+
+    @Override
+    public List<String> findIdleRoomIds(long idleSince, int limit){
+        Set<String> roomIds = stringRedisTemplate.opsForZSet().rangeByScore(ROOMS_LAST_ACTIVITY_ZSET_KEY, 0, idleSince, 0, limit);
+        return roomIds != null ? new ArrayList<>(roomIds) : Collections.emptyList();
     }
 
     @Override
     public void updateRoomState(String roomId, String newState){
         stringRedisTemplate.opsForHash().put(getRoomDetailsKey(roomId), "state", newState);
+        touchRoom(roomId);
+        syncFreeSlots(roomId);
+    }
+
+    @Override
+    public void saveRoundSettings(String roomId, int inputDeadlineSeconds, int resultViewSeconds, String deadlineAction){
+        Map<String, String> settings = new HashMap<>();
+        settings.put("inputDeadlineSeconds", String.valueOf(inputDeadlineSeconds));
+        settings.put("resultViewSeconds", String.valueOf(resultViewSeconds));
+        settings.put("deadlineAction", deadlineAction);
+        stringRedisTemplate.opsForHash().putAll(getRoomDetailsKey(roomId), settings);
+        touchRoom(roomId);
+    }
+
+    @Override
+    public void saveRoundDeadline(String roomId, Long deadline){
+        if(deadline == null){
+            stringRedisTemplate.opsForHash().delete(getRoomDetailsKey(roomId), "roundDeadline");
+        }else{
+            stringRedisTemplate.opsForHash().put(getRoomDetailsKey(roomId), "roundDeadline", String.valueOf(deadline));
+        }
     }
 
 
@@ -298,7 +631,12 @@ public class RedisRoomRepository implements MatchRoomRepository{
             }
         });
 
-        return analyzeExecResultForJoin(execResult, roomId, username);
+        long joinResult = analyzeExecResultForJoin(execResult, roomId, username);
+        if(joinResult == JOIN_SUCCESS){
+            touchRoom(roomId);
+            syncFreeSlots(roomId);
+        }
+        return joinResult;
     }
 
     @Override
@@ -331,6 +669,7 @@ public class RedisRoomRepository implements MatchRoomRepository{
                 operations.opsForHash().delete(USER_LOCATIONS_HASH_KEY, username);
                 operations.opsForHash().delete(USER_ENDPOINTS_HASH_KEY, username);
                 operations.opsForHash().delete(getRoomNicknamesKey(roomId), username);
+                operations.opsForZSet().remove(PRESENCE_HEARTBEATS_ZSET_KEY, username);
 
                 // delete from room user list
                 operations.opsForSet().remove(roomUsersKey, username);
@@ -360,7 +699,12 @@ public class RedisRoomRepository implements MatchRoomRepository{
         if(execResult == null){
             return -3L; // -3: WATCH crash
         }else{
-            return (long) execResult.get(0);
+            long leaveResult = (long) execResult.get(0);
+            if(leaveResult == 0L){
+                touchRoom(roomId);
+                syncFreeSlots(roomId);
+            }
+            return leaveResult;
         }
     }
 
@@ -404,6 +748,9 @@ public class RedisRoomRepository implements MatchRoomRepository{
                 operations.opsForHash().put(USER_LOCATIONS_HASH_KEY, hostUsername, roomId);
                 operations.opsForHash().put(USER_ENDPOINTS_HASH_KEY, hostUsername, hostIp + ":" + hostPort);
                 operations.opsForHash().put(getRoomNicknamesKey(roomId), hostUsername, hostNickname);
+                operations.opsForZSet().add(ROOMS_LAST_ACTIVITY_ZSET_KEY, roomId, Instant.now().toEpochMilli());
+                // seeded so a user who never opens a socket is still swept once the heartbeat expires
+                operations.opsForZSet().add(PRESENCE_HEARTBEATS_ZSET_KEY, hostUsername, Instant.now().toEpochMilli());
                 return operations.exec();
             }
         });
@@ -415,6 +762,7 @@ public class RedisRoomRepository implements MatchRoomRepository{
             //if failed due to "already in other room" problem
             return -5L;
         }else{
+            syncFreeSlots(roomId);
             return JOIN_SUCCESS;
         }
     }
@@ -470,6 +818,30 @@ public class RedisRoomRepository implements MatchRoomRepository{
         return allRoomUsers;
     }
 
+    @Override
+    public Map<String, Long> getMultipleRoomUserCounts(Set<String> roomIds){
+        List<Object> results = stringRedisTemplate.execute(new SessionCallback<List<Object>>(){
+            @Override
+            public List<Object> execute(RedisOperations operations) throws DataAccessException{
+                operations.multi();
+                for(String roomId : roomIds){
+                    operations.opsForSet().size(getRoomUsersKey(roomId));
+                }
+                return operations.exec();
+            }
+        });
+
+        Map<String,Long> counts = new HashMap<>();
+        int i=0;
+        for(String roomId : roomIds){
+            if(results != null && results.get(i) instanceof Long count){
+                counts.put(roomId, count);
+            }
+            i++;
+        }
+        return counts;
+    }
+
     // method to call before transaction begins and after WATCH
     @SuppressWarnings("unchecked") // ignore RedisOperations cast warning
     private List<Object> performJoinRoomChecksAndQueueCommands(RedisOperations operations, String roomId, String username, String joinerIp,
@@ -516,6 +888,7 @@ public class RedisRoomRepository implements MatchRoomRepository{
         operations.opsForSet().add(roomUsersKey,username);
         operations.opsForHash().put(USER_LOCATIONS_HASH_KEY,username, roomId);
         operations.opsForHash().put(USER_ENDPOINTS_HASH_KEY,username, joinerIp + ":" + joinerPort);
+        operations.opsForZSet().add(PRESENCE_HEARTBEATS_ZSET_KEY, username, Instant.now().toEpochMilli());
 
         // transaction executes(returning SessionCallback)
         return operations.exec();
@@ -632,6 +1005,7 @@ public class RedisRoomRepository implements MatchRoomRepository{
     @Override
     public void clearSubmittedMenus(String roomId) {
         stringRedisTemplate.delete(getRoomSubmittedMenusKey(roomId));
+        touchRoom(roomId);
     }
 
     @Override
@@ -654,7 +1028,8 @@ public class RedisRoomRepository implements MatchRoomRepository{
         if(menuDetailsJson != null){
             try{
                 Map<String,Object> menuDetails = objectMapper.readValue(menuDetailsJson, new TypeReference<Map<String, Object>>() {});
-                Set<String> recommenders = (Set<String>) menuDetails.getOrDefault("recommenders", Collections.emptySet());
+                // Jackson reads JSON arrays into lists here, not sets
+                Collection<?> recommenders = (Collection<?>) menuDetails.getOrDefault("recommenders", Collections.emptyList());
                 return (long) recommenders.size();
             }catch(Exception e){
                 log.error("Error getting vote count for menu {} in room {}: {}", menuKey, roomId, e.getMessage());
@@ -700,6 +1075,7 @@ public class RedisRoomRepository implements MatchRoomRepository{
     @Override
     public void updateUserSubmitStatus(String roomId, String username, boolean submitted) {
         stringRedisTemplate.opsForHash().put(getRoomSubmitStatusKey(roomId), username, String.valueOf(submitted));
+        touchRoom(roomId);
     }
 
     @Override
@@ -751,6 +1127,7 @@ public class RedisRoomRepository implements MatchRoomRepository{
             }
 
             hashOps.put(roomSubmittedMenusKey, menuKey, objectMapper.writeValueAsString(menuDetails));
+            touchRoom(roomId);
             log.debug("Updated '{}' for menu '{}' in room '{}'. User: {}, Add:{}", voteType, menuKey, roomId, username, add);
         }catch(Exception e){
             log.error("Error updating '{}' for menu '{}' in room '{}': {}", voteType, menuKey, roomId, e.getMessage());
@@ -786,6 +1163,7 @@ public class RedisRoomRepository implements MatchRoomRepository{
         }
 
         hashOps.put(roomSubmittedMenusKey, menuKey, objectMapper.writeValueAsString(menuDetails));
+        touchRoom(roomId);
     }catch(Exception e){
             log.error("Error updating field '{}' for menu '{}' in room '{}':{}", fieldName, menuKey,roomId, e.getMessage(),e);
         }
@@ -837,6 +1215,10 @@ public class RedisRoomRepository implements MatchRoomRepository{
         return "room:" + roomId + ":disliked_menus";
     }
 
+    private String getRoomVersionKey(String roomId){
+        return "room:" + roomId + ":version";
+    }
+
     private String getRoomSubmitStatusKey(String roomId){
         return ROOM_SUBMIT_STATUS_HASH_KEY_PREFIX + roomId + ":submit_status";
     }
@@ -0,0 +1,75 @@
+package com.example.BobGourmet.Repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Slf4j
+@Repository
+public class RedisRoomTimerRepository implements RoomTimerRepository {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisRoomTimerRepository(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    // -- Redis Key Constants --
+    private static final String TIMERS_DUE_ZSET_KEY = "timers:due";
+
+    // KEYS[1] = timers zset, ARGV[1] = timer id, ARGV[2] = expected due time
+    // comparing the score keeps a stale wheel entry from firing a timer that was rescheduled elsewhere
+    private static final DefaultRedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local score = redis.call('ZSCORE', KEYS[1], ARGV[1]) " +
+            "if score and tonumber(score) == tonumber(ARGV[2]) then " +
+            "  redis.call('ZREM', KEYS[1], ARGV[1]) " +
+            "  return 1 " +
+            "end " +
+            "return 0", Long.class);
+
+    @Override
+    public void schedule(String timerId, long dueAt) {
+        stringRedisTemplate.opsForZSet().add(TIMERS_DUE_ZSET_KEY, timerId, dueAt);
+    }
+
+    @Override
+    public void cancel(String timerId) {
+        stringRedisTemplate.opsForZSet().remove(TIMERS_DUE_ZSET_KEY, timerId);
+    }
+
+    @Override
+    public boolean claim(String timerId, long dueAt) {
+        Long claimed = stringRedisTemplate.execute(CLAIM_SCRIPT,
+                Collections.singletonList(TIMERS_DUE_ZSET_KEY), timerId, String.valueOf(dueAt));
+        return claimed != null && claimed == 1L;
+    }
+
+    @Override
+    public Map<String, Long> findDue(long dueBefore, int limit) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = stringRedisTemplate.opsForZSet()
+                .rangeByScoreWithScores(TIMERS_DUE_ZSET_KEY, 0, dueBefore, 0, limit);
+        if (tuples == null || tuples.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Long> due = new LinkedHashMap<>();
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            if (tuple.getValue() != null && tuple.getScore() != null) {
+                due.put(tuple.getValue(), tuple.getScore().longValue());
+            }
+        }
+        return due;
+    }
+
+    @Override
+    public long countPending() {
+        Long count = stringRedisTemplate.opsForZSet().zCard(TIMERS_DUE_ZSET_KEY);
+        return count != null ? count : 0L;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.BobGourmet.Repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Repository
+public class RedisSessionDirectoryRepository implements SessionDirectoryRepository {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisSessionDirectoryRepository(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    // -- Redis Key Constants --
+    private static final String USER_SESSIONS_KEY_PREFIX = "ws:user-sessions:";   // HASH sessionId -> nodeId
+    private static final String ROOM_SESSIONS_KEY_PREFIX = "ws:room-sessions:";   // HASH per node: roomId -> count
+    private static final String NODES_ZSET_KEY = "ws:nodes";                      // ZSET nodeId -> last heartbeat
+    // a user's entry outlives any single session; entries of dead nodes are pruned by the registry on lookup
+    private static final long USER_SESSIONS_TTL_HOURS = 24;
+
+    // KEYS[1] = node's room-sessions hash, ARGV[1] = roomId, ARGV[2] = delta
+    // increment and drop-at-zero in one step, so a concurrent increment can't land between them and be deleted
+    private static final DefaultRedisScript<Long> INCREMENT_ROOM_SESSIONS_SCRIPT = new DefaultRedisScript<>(
+            "local count = redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2]) " +
+            "if count <= 0 then redis.call('HDEL', KEYS[1], ARGV[1]) end " +
+            "return count", Long.class);
+
+    @Override
+    public void addUserSession(String username, String sessionId, String nodeId) {
+        String key = USER_SESSIONS_KEY_PREFIX + username;
+        stringRedisTemplate.opsForHash().put(key, sessionId, nodeId);
+        stringRedisTemplate.expire(key, USER_SESSIONS_TTL_HOURS, TimeUnit.HOURS);
+    }
+
+    @Override
+    public void removeUserSession(String username, String sessionId) {
+        stringRedisTemplate.opsForHash().delete(USER_SESSIONS_KEY_PREFIX + username, sessionId);
+    }
+
+    @Override
+    public void removeUserSessions(String username, Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) return;
+        stringRedisTemplate.opsForHash().delete(USER_SESSIONS_KEY_PREFIX + username, sessionIds.toArray());
+    }
+
+    @Override
+    public Map<String, String> getUserSessions(String username) {
+        Map<Object, Object> entries = stringRedisTemplate.opsForHash().entries(USER_SESSIONS_KEY_PREFIX + username);
+        Map<String, String> sessions = new HashMap<>();
+        entries.forEach((sessionId, nodeId) -> sessions.put((String) sessionId, (String) nodeId));
+        return sessions;
+    }
+
+    @Override
+    public void incrementRoomSessions(String nodeId, String roomId, long delta) {
+        stringRedisTemplate.execute(INCREMENT_ROOM_SESSIONS_SCRIPT,
+                List.of(ROOM_SESSIONS_KEY_PREFIX + nodeId), roomId, String.valueOf(delta));
+    }
+
+    // one pipelined HGET per live node; no scan over sessions
+    @Override
+    public long countRoomSessions(String roomId, Collection<String> nodeIds) {
+        if (nodeIds.isEmpty()) return 0;
+        List<Object> counts = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection stringConnection = (StringRedisConnection) connection;
+            for (String nodeId : nodeIds) {
+                stringConnection.hGet(ROOM_SESSIONS_KEY_PREFIX + nodeId, roomId);
+            }
+            return null;
+        });
+        long total = 0;
+        for (Object count : counts) {
+            if (count != null) total += Math.max(0, Long.parseLong(count.toString()));
+        }
+        return total;
+    }
+
+    @Override
+    public void refreshNode(String nodeId, long nowMs, long ttlMs) {
+        stringRedisTemplate.opsForZSet().add(NODES_ZSET_KEY, nodeId, nowMs);
+        stringRedisTemplate.expire(ROOM_SESSIONS_KEY_PREFIX + nodeId, ttlMs, TimeUnit.MILLISECONDS);
+        // prune nodes that stopped heartbeating long ago
+        stringRedisTemplate.opsForZSet().removeRangeByScore(NODES_ZSET_KEY, 0, nowMs - ttlMs * 10);
+    }
+
+    @Override
+    public Set<String> getLiveNodes(long sinceMs) {
+        Set<String> nodes = stringRedisTemplate.opsForZSet().rangeByScore(NODES_ZSET_KEY, sinceMs, Double.MAX_VALUE);
+        return nodes != null ? nodes : new HashSet<>();
+    }
+
+    @Override
+    public void removeNode(String nodeId) {
+        stringRedisTemplate.opsForZSet().remove(NODES_ZSET_KEY, nodeId);
+        stringRedisTemplate.delete(ROOM_SESSIONS_KEY_PREFIX + nodeId);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.BobGourmet.Repository;
+
+import java.util.Map;
+
+public interface RoomTimerRepository {
+
+    // registers (or moves) a timer; the due time doubles as the timer's version
+    void schedule(String timerId, long dueAt);
+
+    void cancel(String timerId);
+
+    // atomically removes the timer if it is still due at the given time; only one node wins the claim
+    boolean claim(String timerId, long dueAt);
+
+    // timers due at or before the given time, oldest first (timerId -> dueAt)
+    Map<String, Long> findDue(long dueBefore, int limit);
+
+    long countPending();
+}
@@ -0,0 +1,30 @@
+package com.example.BobGourmet.Repository;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+// cluster-wide view of WebSocket sessions: which node holds each user's sessions, and connected sessions per room
+public interface SessionDirectoryRepository {
+
+    void addUserSession(String username, String sessionId, String nodeId);
+
+    void removeUserSession(String username, String sessionId);
+
+    void removeUserSessions(String username, Collection<String> sessionIds);
+
+    // sessionId -> nodeId, including sessions of nodes that may have died (callers filter by live nodes)
+    Map<String, String> getUserSessions(String username);
+
+    // per-node counter, so a dead node's counts drop out with its liveness
+    void incrementRoomSessions(String nodeId, String roomId, long delta);
+
+    long countRoomSessions(String roomId, Collection<String> nodeIds);
+
+    // marks the node alive and keeps its room counters from expiring
+    void refreshNode(String nodeId, long nowMs, long ttlMs);
+
+    Set<String> getLiveNodes(long sinceMs);
+
+    void removeNode(String nodeId);
+}
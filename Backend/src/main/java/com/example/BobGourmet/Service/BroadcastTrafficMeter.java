@@ -0,0 +1,188 @@
+package com.example.BobGourmet.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Outbound bandwidth accounting per destination type and per room.
+ * <p>
+ * Every SimpMessagingTemplate send (room services, StompEventListener, lobby) passes the broker channel once;
+ * {@link #publishedInterceptor()} counts it there with its serialized size. The broker then copies it to each
+ * subscribed session on the client outbound channel, where {@link #deliveredInterceptor()} counts the copies and
+ * their wire size (after CBOR/gzip encoding), so deliveries per published message is the recipient count.
+ * Messages relayed from other nodes by {@link RedisBrokerBridge} are only counted as deliveries here.
+ * <p>
+ * Metrics tagged with the destination type (events, menuStatus, closed, deltas, lobby, user/{queue}, ...):
+ * websocket.broadcast.messages, websocket.broadcast.bytes, websocket.broadcast.deliveries and
+ * websocket.broadcast.delivered.bytes. Per-room totals back the /actuator/roomtraffic top-N list.
+ */
+@Component
+public class BroadcastTrafficMeter {
+
+    private static final Pattern ROOM_DESTINATION = Pattern.compile("^/topic/room/([^/]+)/([^/]+)");
+    private static final Pattern USER_DESTINATION = Pattern.compile("^(?:/user(?:/[^/]+)?)?/queue/([^/]+?)(?:-user[^/]*)?$");
+
+    private final MeterRegistry meterRegistry;
+    private final long idleRoomMs;
+    private final Map<String, RoomTraffic> rooms = new ConcurrentHashMap<>();
+    private final ChannelInterceptor publishedInterceptor = new PublishedInterceptor();
+    private final ChannelInterceptor deliveredInterceptor = new DeliveredInterceptor();
+
+    public BroadcastTrafficMeter(MeterRegistry meterRegistry,
+                                 @Value("${app.websocket.traffic.idle-room-ms:600000}") long idleRoomMs) {
+        this.meterRegistry = meterRegistry;
+        this.idleRoomMs = idleRoomMs;
+    }
+
+    public ChannelInterceptor publishedInterceptor() {
+        return publishedInterceptor;
+    }
+
+    public ChannelInterceptor deliveredInterceptor() {
+        return deliveredInterceptor;
+    }
+
+    /**
+     * Rooms by delivered bytes, heaviest first.
+     */
+    public List<Map<String, Object>> topRooms(int limit) {
+        List<Map.Entry<String, RoomTraffic>> entries = new ArrayList<>(rooms.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<String, RoomTraffic> entry) -> entry.getValue().deliveredBytes.sum()).reversed());
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<String, RoomTraffic> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            RoomTraffic traffic = entry.getValue();
+            long messages = traffic.messages.sum();
+            long deliveries = traffic.deliveries.sum();
+            Map<String, Object> room = new LinkedHashMap<>();
+            room.put("roomId", entry.getKey());
+            room.put("messages", messages);
+            room.put("bytes", traffic.bytes.sum());
+            room.put("deliveries", deliveries);
+            room.put("deliveredBytes", traffic.deliveredBytes.sum());
+            room.put("avgRecipients", messages > 0 ? (double) deliveries / messages : 0.0);
+            room.put("byType", traffic.deliveredBytesByType());
+            result.add(room);
+        }
+        return result;
+    }
+
+    public int trackedRoomCount() {
+        return rooms.size();
+    }
+
+    // closed rooms stop sending; their totals are kept for a while so a burst before closing still shows up
+    @Scheduled(fixedDelayString = "${app.websocket.traffic.prune-interval-ms:60000}")
+    public void pruneIdleRooms() {
+        long cutoff = System.currentTimeMillis() - idleRoomMs;
+        rooms.values().removeIf(traffic -> traffic.lastSeen < cutoff);
+    }
+
+    static String destinationType(String destination) {
+        if (destination == null) {
+            return "none";
+        }
+        Matcher room = ROOM_DESTINATION.matcher(destination);
+        if (room.find()) {
+            return room.group(2);
+        }
+        Matcher user = USER_DESTINATION.matcher(destination);
+        if (user.matches()) {
+            return "user/" + user.group(1);
+        }
+        if (destination.equals(LobbyService.LOBBY_TOPIC)) {
+            return "lobby";
+        }
+        return "other";
+    }
+
+    private void record(boolean published, Message<?> message) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE) {
+            return;
+        }
+        String destination = accessor.getDestination();
+        String type = destinationType(destination);
+        long size = message.getPayload() instanceof byte[] bytes ? bytes.length : 0;
+
+        Counter.builder(published ? "websocket.broadcast.messages" : "websocket.broadcast.deliveries")
+                .description(published ? "Messages sent to the broker" : "Message copies sent to subscribed sessions")
+                .tag("type", type)
+                .register(meterRegistry)
+                .increment();
+        Counter.builder(published ? "websocket.broadcast.bytes" : "websocket.broadcast.delivered.bytes")
+                .description(published ? "Serialized payload bytes sent to the broker" : "Payload bytes written to subscribed sessions")
+                .baseUnit("bytes")
+                .tag("type", type)
+                .register(meterRegistry)
+                .increment(size);
+
+        Matcher room = destination != null ? ROOM_DESTINATION.matcher(destination) : null;
+        if (room == null || !room.find()) {
+            return;
+        }
+        RoomTraffic traffic = rooms.computeIfAbsent(room.group(1), id -> new RoomTraffic());
+        traffic.lastSeen = System.currentTimeMillis();
+        if (published) {
+            traffic.messages.increment();
+            traffic.bytes.add(size);
+        } else {
+            traffic.deliveries.increment();
+            traffic.deliveredBytes.add(size);
+            traffic.deliveredBytesByType.computeIfAbsent(type, t -> new LongAdder()).add(size);
+        }
+    }
+
+    private class PublishedInterceptor implements ChannelInterceptor {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            // relayed copies were already counted on the node that sent them, and a /user/... send comes back
+            // resolved to each of the user's sessions (marked with the original destination)
+            if (message.getHeaders().get(RedisBrokerBridge.BRIDGE_ORIGIN_HEADER) == null
+                    && message.getHeaders().get(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION) == null) {
+                record(true, message);
+            }
+            return message;
+        }
+    }
+
+    private class DeliveredInterceptor implements ChannelInterceptor {
+        @Override
+        public Message<?> preSend(Message<?> message, MessageChannel channel) {
+            record(false, message);
+            return message;
+        }
+    }
+
+    private static final class RoomTraffic {
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder deliveries = new LongAdder();
+        private final LongAdder deliveredBytes = new LongAdder();
+        private final Map<String, LongAdder> deliveredBytesByType = new ConcurrentHashMap<>();
+        private volatile long lastSeen = System.currentTimeMillis();
+
+        private Map<String, Long> deliveredBytesByType() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            deliveredBytesByType.forEach((type, adder) -> result.put(type, adder.sum()));
+            return result;
+        }
+    }
+}
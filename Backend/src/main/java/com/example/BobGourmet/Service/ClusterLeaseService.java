@@ -0,0 +1,188 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.DTO.ClusterDTO.LeaseInfo;
+import com.example.BobGourmet.Repository.LeaseRepository;
+import com.example.BobGourmet.utils.ClusterNodeId;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Redis lease based coordination for cluster-wide scheduled jobs.
+ * A job either runs on the single node holding its lease, or - when shards > 1 - each node
+ * runs it only for the shards it holds, so no room is processed by two nodes at once.
+ */
+@Slf4j
+@Service
+public class ClusterLeaseService {
+
+    private final LeaseRepository leaseRepository;
+    private final String nodeId;
+    private final long leaseTtlMs;
+    private final int shardCount;
+    private final int maxShardsPerNode;
+
+    // lease name -> lease currently held by this node
+    private final Map<String, Lease> heldLeases = new ConcurrentHashMap<>();
+
+    public ClusterLeaseService(LeaseRepository leaseRepository,
+                               ClusterNodeId clusterNodeId,
+                               @Value("${app.cluster.lease.ttl-ms:15000}") long leaseTtlMs,
+                               @Value("${app.cluster.lease.shards:1}") int shardCount,
+                               @Value("${app.cluster.lease.max-shards-per-node:0}") int maxShardsPerNode) {
+        this.leaseRepository = leaseRepository;
+        this.nodeId = clusterNodeId.getNodeId();
+        this.leaseTtlMs = leaseTtlMs;
+        this.shardCount = Math.max(1, shardCount);
+        this.maxShardsPerNode = maxShardsPerNode > 0 ? maxShardsPerNode : this.shardCount;
+    }
+
+    /**
+     * Runs the task once for every shard of the job this node holds (or can acquire).
+     * Returns the number of shards processed; 0 means another node owns the job right now.
+     */
+    public int runWithLease(String jobName, Consumer<Lease> task) {
+        int processed = 0;
+        // start from a node specific offset so that nodes racing for free shards spread out
+        int offset = Math.floorMod(nodeId.hashCode(), shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            int shard = (offset + i) % shardCount;
+            String leaseName = leaseName(jobName, shard);
+
+            if (!heldLeases.containsKey(leaseName) && countHeldShards(jobName) >= maxShardsPerNode) {
+                continue;
+            }
+            Optional<Lease> lease = acquire(leaseName, shard);
+            if (lease.isEmpty()) {
+                continue;
+            }
+            try {
+                task.accept(lease.get());
+                processed++;
+            } catch (Exception e) {
+                log.error("Lease job '{}' failed on node '{}': {}", leaseName, nodeId, e.getMessage(), e);
+            }
+        }
+        return processed;
+    }
+
+    @Scheduled(fixedDelayString = "${app.cluster.lease.renew-interval-ms:5000}")
+    public void renewHeldLeases() {
+        for (Lease lease : heldLeases.values()) {
+            try {
+                long token = leaseRepository.renew(lease.getName(), nodeId, leaseTtlMs);
+                if (token != lease.getFencingToken()) {
+                    log.warn("Lease '{}' lost by node '{}' (held token {}, current {}).",
+                            lease.getName(), nodeId, lease.getFencingToken(), token);
+                    heldLeases.remove(lease.getName());
+                } else {
+                    lease.extendUntil(System.currentTimeMillis() + leaseTtlMs);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to renew lease '{}': {}", lease.getName(), e.getMessage());
+            }
+        }
+    }
+
+    public List<LeaseInfo> describeLeases() {
+        List<LeaseInfo> leases = new ArrayList<>();
+        for (String leaseName : new TreeSet<>(leaseRepository.getKnownLeaseNames())) {
+            leaseRepository.getLeaseInfo(leaseName).ifPresent(leases::add);
+        }
+        return leases;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public Set<String> getHeldLeaseNames() {
+        return Collections.unmodifiableSet(heldLeases.keySet());
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        heldLeases.keySet().forEach(leaseName -> {
+            try {
+                leaseRepository.release(leaseName, nodeId);
+            } catch (Exception e) {
+                log.warn("Failed to release lease '{}' on shutdown: {}", leaseName, e.getMessage());
+            }
+        });
+        heldLeases.clear();
+    }
+
+    private Optional<Lease> acquire(String leaseName, int shard) {
+        long token;
+        try {
+            token = leaseRepository.tryAcquire(leaseName, nodeId, leaseTtlMs);
+        } catch (Exception e) {
+            log.warn("Failed to acquire lease '{}': {}", leaseName, e.getMessage());
+            return Optional.empty();
+        }
+
+        if (token < 0) {
+            if (heldLeases.remove(leaseName) != null) {
+                log.warn("Lease '{}' is now held by another node.", leaseName);
+            }
+            return Optional.empty();
+        }
+
+        Lease lease = heldLeases.compute(leaseName, (name, existing) -> {
+            if (existing != null && existing.getFencingToken() == token) {
+                existing.extendUntil(System.currentTimeMillis() + leaseTtlMs);
+                return existing;
+            }
+            log.info("Node '{}' acquired lease '{}' with fencing token {}.", nodeId, name, token);
+            return new Lease(name, shard, shardCount, token, System.currentTimeMillis() + leaseTtlMs);
+        });
+        return Optional.of(lease);
+    }
+
+    private long countHeldShards(String jobName) {
+        return heldLeases.keySet().stream().filter(name -> name.startsWith(jobName + ":")).count();
+    }
+
+    private String leaseName(String jobName, int shard) {
+        return jobName + ":shard-" + shard;
+    }
+
+    public class Lease {
+        @Getter private final String name;
+        @Getter private final int shard;
+        @Getter private final int shardCount;
+        @Getter private final long fencingToken;
+        private volatile long validUntil;
+
+        private Lease(String name, int shard, int shardCount, long fencingToken, long validUntil) {
+            this.name = name;
+            this.shard = shard;
+            this.shardCount = shardCount;
+            this.fencingToken = fencingToken;
+            this.validUntil = validUntil;
+        }
+
+        private void extendUntil(long validUntil) {
+            this.validUntil = validUntil;
+        }
+
+        // whether the given key (e.g. a room id) belongs to this lease's shard
+        public boolean owns(String key) {
+            return shardCount == 1 || Math.floorMod(key.hashCode(), shardCount) == shard;
+        }
+
+        // checked before each side effect: the local deadline guards against GC pauses,
+        // the fence check guards against another node having taken over in the meantime
+        public boolean isStillValid() {
+            return System.currentTimeMillis() < validUntil
+                    && leaseRepository.isFenceCurrent(name, fencingToken);
+        }
+    }
+}
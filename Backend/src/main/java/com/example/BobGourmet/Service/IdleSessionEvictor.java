@@ -0,0 +1,104 @@
+package com.example.BobGourmet.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.sockjs.transport.SockJsSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closes WebSocket sessions that stopped sending anything. Every inbound frame counts as activity: STOMP
+ * frames and heartbeats, and pongs to the pings sent here to quiet native sessions (browsers answer them on
+ * their own; SockJS can't carry pings and relies on STOMP heartbeats). A half-open connection never answers,
+ * so after the idle timeout it is closed like any other disconnect, which lets {@link StompEventListener}
+ * run the usual grace-then-leave handling.
+ */
+@Slf4j
+@Component
+public class IdleSessionEvictor {
+
+    private final long idleTimeoutMs;
+    private final long pingAfterMs;
+    private final Map<String, TrackedSession> sessions = new ConcurrentHashMap<>();
+    private final Counter evictedCounter;
+
+    public IdleSessionEvictor(MeterRegistry meterRegistry,
+                              @Value("${app.websocket.idle.timeout-ms:60000}") long idleTimeoutMs,
+                              @Value("${app.websocket.idle.ping-after-ms:20000}") long pingAfterMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.pingAfterMs = pingAfterMs;
+        Gauge.builder("websocket.sessions.live", sessions, Map::size)
+                .description("Open WebSocket sessions tracked for idle eviction")
+                .register(meterRegistry);
+        this.evictedCounter = Counter.builder("websocket.sessions.evicted")
+                .description("WebSocket sessions closed because nothing arrived within the idle timeout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param session   the container's session, closed on eviction
+     * @param sendQueue the same session behind the outbound queue; pings go through it so they never race a send
+     */
+    public void register(WebSocketSession session, WebSocketSession sendQueue) {
+        sessions.put(session.getId(), new TrackedSession(session, sendQueue, !(session instanceof SockJsSession),
+                new AtomicLong(System.currentTimeMillis())));
+    }
+
+    public void unregister(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public void touch(String sessionId) {
+        TrackedSession tracked = sessions.get(sessionId);
+        if (tracked != null) {
+            tracked.lastSeen().set(System.currentTimeMillis());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.websocket.idle.check-interval-ms:10000}")
+    public void evictIdleSessions() {
+        if (idleTimeoutMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        sessions.forEach((sessionId, tracked) -> {
+            long idle = now - tracked.lastSeen().get();
+            if (idle > idleTimeoutMs) {
+                evict(sessionId, tracked, idle);
+            } else if (idle > pingAfterMs && tracked.pingable()) {
+                try {
+                    tracked.sendQueue().sendMessage(new PingMessage());
+                } catch (Exception e) {
+                    log.debug("Ping to session {} failed: {}", sessionId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void evict(String sessionId, TrackedSession tracked, long idleMs) {
+        if (sessions.remove(sessionId) == null) {
+            return;
+        }
+        evictedCounter.increment();
+        log.info("Evicting WebSocket session {} after {} ms without inbound frames", sessionId, idleMs);
+        try {
+            tracked.session().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (Exception e) {
+            log.debug("Failed to close idle session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    // lastSeen is updated in place, so touch() doesn't replace the map entry on every frame
+    private record TrackedSession(WebSocketSession session, WebSocketSession sendQueue, boolean pingable, AtomicLong lastSeen) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.DTO.RoomDTO.LobbyDiff;
+import com.example.BobGourmet.DTO.RoomDTO.LobbySnapshot;
+import com.example.BobGourmet.DTO.RoomDTO.RoomSummary;
+import com.example.BobGourmet.DTO.WebSocketMessage;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+/**
+ * Live room list on /topic/lobby. Create, join, leave, close and state changes push small versioned diffs;
+ * a subscriber gets a {@link LobbySnapshot} on /user/queue/lobby and applies diffs with a higher version.
+ * Diff data is absolute (summary, count, state), so replaying one over a newer snapshot is harmless.
+ * The version is a global Redis INCR taken when the change is published, and this node's diffs share one pipeline
+ * queue ordered by version. With app.websocket.broker=redis the lobby topic is bridged, so viewers on every node
+ * also receive the diffs (and versions) published by the other nodes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LobbyService {
+
+    public static final String LOBBY_TOPIC = "/topic/lobby";
+    public static final String LOBBY_DIFF_EVENT_TYPE = "LOBBY_DIFF";
+    public static final String LOBBY_SNAPSHOT_EVENT_TYPE = "LOBBY_SNAPSHOT";
+
+    public static final String OP_ROOM_CREATED = "ROOM_CREATED";
+    public static final String OP_ROOM_CLOSED = "ROOM_CLOSED";
+    public static final String OP_MEMBER_COUNT_CHANGED = "MEMBER_COUNT_CHANGED";
+    public static final String OP_STATE_CHANGED = "STATE_CHANGED";
+
+    private static final String LOBBY_LANE = "lobby";
+
+    private final MatchRoomRepository matchRoomRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomEventPipeline eventPipeline;
+    private final WebSocketSessionRegistry sessionRegistry;
+
+    // latest built snapshot; rebuilt once per lobby version
+    private volatile LobbySnapshot cachedSnapshot;
+
+    public void publishRoomCreated(String roomId) {
+        publishDiff(roomId, version -> {
+            Map<String, String> details = matchRoomRepository.getRoomDetailsMap(roomId);
+            if (details.isEmpty()) {
+                // closed before the diff went out; the version is spent, so it still has to reach clients
+                sendDiff(version, OP_ROOM_CLOSED, roomId, Map.of());
+                return;
+            }
+            RoomSummary summary = toSummary(roomId, details, matchRoomRepository.getRoomUserCount(roomId));
+            sendDiff(version, OP_ROOM_CREATED, roomId, Map.of("room", summary));
+        });
+    }
+
+    public void publishRoomClosed(String roomId) {
+        publishDiff(roomId, version -> sendDiff(version, OP_ROOM_CLOSED, roomId, Map.of()));
+    }
+
+    // the count is read when the diff goes out, so a burst of joins ends on the current value
+    public void publishMemberCountChanged(String roomId) {
+        publishDiff(roomId, version ->
+                sendDiff(version, OP_MEMBER_COUNT_CHANGED, roomId, Map.of("currentUserCount", matchRoomRepository.getRoomUserCount(roomId))));
+    }
+
+    public void publishStateChanged(String roomId, String state) {
+        publishDiff(roomId, version -> sendDiff(version, OP_STATE_CHANGED, roomId, Map.of("state", state)));
+    }
+
+    // one GET; lets the REST lobby endpoint answer a conditional request without touching the snapshot
+    public long getLobbyVersion() {
+        return matchRoomRepository.getLobbyVersion();
+    }
+
+    /**
+     * Room list with the lobby version it is at least as new as. Built once per version, not per viewer.
+     */
+    public LobbySnapshot getSnapshot() {
+        long version = matchRoomRepository.getLobbyVersion();
+        LobbySnapshot snapshot = cachedSnapshot;
+        if (snapshot != null && snapshot.getVersion() == version) {
+            return snapshot;
+        }
+        synchronized (this) {
+            snapshot = cachedSnapshot;
+            if (snapshot == null || snapshot.getVersion() != version) {
+                snapshot = new LobbySnapshot(version, buildRoomSummaries());
+                cachedSnapshot = snapshot;
+            }
+            return snapshot;
+        }
+    }
+
+    @EventListener
+    public void handleLobbySubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
+        Principal userPrincipal = headerAccessor.getUser();
+        if (userPrincipal == null || !LOBBY_TOPIC.equals(headerAccessor.getDestination())) {
+            return;
+        }
+        try {
+            // only the subscribing session; other tabs of the user already follow the lobby
+            sessionRegistry.sendToSession(userPrincipal.getName(), headerAccessor.getSessionId(), "/queue/lobby",
+                    new WebSocketMessage<>(LOBBY_SNAPSHOT_EVENT_TYPE, getSnapshot()));
+        } catch (Exception e) {
+            log.warn("Failed to send lobby snapshot to '{}': {}", userPrincipal.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Bumps the lobby version on the calling thread, so a lobby read right after the change already sees the new
+     * version (and ETag), then queues the send in version order. Lobby diffs are not dropped for backpressure.
+     */
+    private void publishDiff(String roomId, LongConsumer send) {
+        long version = matchRoomRepository.incrementLobbyVersion();
+        eventPipeline.publishSequenced(LOBBY_LANE, version, () -> send.accept(version));
+    }
+
+    private void sendDiff(long version, String op, String roomId, Map<String, Object> data) {
+        messagingTemplate.convertAndSend(LOBBY_TOPIC, new WebSocketMessage<>(LOBBY_DIFF_EVENT_TYPE, new LobbyDiff(version, op, roomId, data)));
+        log.debug("Lobby diff {} v{} for room {}", op, version, roomId);
+    }
+
+    // two batched reads for the whole list instead of a full RoomDetails build per room
+    private List<RoomSummary> buildRoomSummaries() {
+        Set<String> roomIds = matchRoomRepository.getActiveRoomIds();
+        if (roomIds.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Map<String, String>> detailsByRoom = matchRoomRepository.getMultipleRoomDetails(roomIds);
+        Map<String, Long> countsByRoom = matchRoomRepository.getMultipleRoomUserCounts(roomIds);
+
+        List<RoomSummary> summaries = new ArrayList<>();
+        for (String roomId : roomIds) {
+            Map<String, String> details = detailsByRoom.get(roomId);
+            if (details == null || details.isEmpty()) {
+                continue;
+            }
+            summaries.add(toSummary(roomId, details, countsByRoom.getOrDefault(roomId, 0L)));
+        }
+        return summaries;
+    }
+
+    private RoomSummary toSummary(String roomId, Map<String, String> details, long userCount) {
+        String state = details.getOrDefault("state", "waiting");
+        String hostUsername = details.getOrDefault("hostUsername", "Unknown Host");
+        return new RoomSummary(
+                roomId,
+                details.getOrDefault("name", "Unknown Room"),
+                hostUsername,
+                (int) userCount,
+                Integer.parseInt(details.getOrDefault("maxUsers", "0")),
+                "submitted".equals(state) || "result_viewing".equals(state),
+                Boolean.parseBoolean(details.getOrDefault("isPrivate", "false")),
+                details.getOrDefault("hostNickname", hostUsername),
+                state);
+    }
+}
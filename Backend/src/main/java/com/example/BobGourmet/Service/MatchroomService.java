@@ -3,9 +3,10 @@ package com.example.BobGourmet.Service;
 import com.example.BobGourmet.DTO.RoomDTO.CreateRoomRequest;
 import com.example.BobGourmet.DTO.RoomDTO.JoinRoomRequest;
 import com.example.BobGourmet.DTO.Participant;
+import com.example.BobGourmet.DTO.RoomDTO.ParticipantPage;
 import com.example.BobGourmet.DTO.RoomDTO.RoomDetails;
+import com.example.BobGourmet.DTO.RoomDTO.RoomSnapshot;
 import com.example.BobGourmet.DTO.WebSocketMessage;
-import com.example.BobGourmet.DTO.MenuDTO.MenuStatus;
 import com.example.BobGourmet.Entity.User;
 import com.example.BobGourmet.Exception.RoomException;
 import com.example.BobGourmet.Repository.MatchRoomRepository;
@@ -13,15 +14,20 @@ import com.example.BobGourmet.Repository.UserRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import static com.example.BobGourmet.Repository.RedisRoomRepository.CLAIM_ALREADY_IN_ROOM;
+import static com.example.BobGourmet.Repository.RedisRoomRepository.CLAIM_NO_ROOM;
 import static com.example.BobGourmet.Repository.RedisRoomRepository.JOIN_ERROR_WATCH_CONFLICT;
 import static com.example.BobGourmet.Repository.RedisRoomRepository.JOIN_SUCCESS;
 
@@ -36,9 +42,31 @@ public class MatchroomService {
     private final SimpMessagingTemplate messagingTemplate;
     private final RoomStateService roomStateService;
     private final MenuService menuService;
+    private final ClusterLeaseService clusterLeaseService;
+    private final RoomEventPublisher roomEventPublisher;
+    private final RoomBroadcastCoalescer broadcastCoalescer;
+    private final RoomEventPipeline eventPipeline;
+    private final LobbyService lobbyService;
 
     private static final int MAX_JOIN_ATTEMPTS = 3;
-    private static final int DRAW_RESULT_VIEW_DURATION_MS = 10000;
+    private static final String DRAW_RESET_JOB = "job:draw-result-reset";
+    // result viewing normally ends through the room's timer; this only catches rooms whose timer was lost
+    private static final long DRAW_RESET_FALLBACK_GRACE_MS = 5000;
+
+    // a member whose heartbeat is older than this is shown as away
+    @Value("${app.presence.online-window-ms:15000}")
+    private long presenceOnlineWindowMs;
+
+    // size of the room quick join creates when no public room has a free slot
+    @Value("${app.room.quick-join-max-users:6}")
+    private int quickJoinMaxUsers;
+
+    // large rooms (team-wide votes): capacity, and how many participants a room snapshot carries
+    @Value("${app.room.large.max-users:500}")
+    private int largeRoomMaxUsers;
+
+    @Value("${app.room.large.participant-page-size:50}")
+    private int participantPageSize;
 
 
     // updating room state on Redis
@@ -60,27 +88,43 @@ public class MatchroomService {
         return userRoom.isPresent() && userRoom.get().equals(roomId);
     }
 
-    @Scheduled(fixedDelay = DRAW_RESULT_VIEW_DURATION_MS)
+    @Scheduled(fixedDelayString = "${app.room.draw-reset-fallback-interval-ms:30000}")
     public void autoResetExpiredDrawResults() {
+        // only the lease holder (or the holder of each shard) resets rooms, so N instances don't race on the same room
+        int shardsProcessed = clusterLeaseService.runWithLease(DRAW_RESET_JOB, this::resetExpiredDrawResults);
+        if(shardsProcessed == 0){
+            log.trace("Scheduler: draw reset lease held by another node, skipping.");
+        }
+    }
+
+    private void resetExpiredDrawResults(ClusterLeaseService.Lease lease) {
         Set<String> activeRoomIds = matchRoomRepository.getActiveRoomIds();
-        if(activeRoomIds.isEmpty() || activeRoomIds == null) return;
+        if(activeRoomIds == null || activeRoomIds.isEmpty()) return;
 
-        log.trace("Scheduler: Checking for expired draw results in {} rooms.", activeRoomIds.size());
+        log.trace("Scheduler: Checking for expired draw results in {} rooms (lease {}).", activeRoomIds.size(), lease.getName());
         for(String roomId : activeRoomIds){
+            if(!lease.owns(roomId)) continue;
             try{
-                String state = matchRoomRepository.getRoomState(roomId);
-                if("result_viewing".equals(state)) {
-                    Optional<Long> lastDrawTimestampOpt = matchRoomRepository.getLastDrawTimestamp(roomId);
+                Map<String,String> details = matchRoomRepository.getRoomDetailsMap(roomId);
+                if("result_viewing".equals(details.get("state"))) {
+                    Optional<Long> lastDrawTimestampOpt = Optional.ofNullable(details.get("lastDrawTimestamp")).map(Long::parseLong);
+                    long expiresAfterMs = roomStateService.getResultViewMs(details) + DRAW_RESET_FALLBACK_GRACE_MS;
+                    boolean expired = lastDrawTimestampOpt
+                            .map(timestamp -> Instant.now().toEpochMilli() - timestamp >= expiresAfterMs)
+                            .orElse(true);
+                    if(!expired) continue;
+
+                    if(!lease.isStillValid()){
+                        log.warn("Scheduler: Lease '{}' (token {}) is no longer valid. Stopping draw reset.", lease.getName(), lease.getFencingToken());
+                        return;
+                    }
                     if(lastDrawTimestampOpt.isPresent()) {
-                        long timeSinceDraw = Instant.now().toEpochMilli() - lastDrawTimestampOpt.get();
-                        if(timeSinceDraw >= DRAW_RESULT_VIEW_DURATION_MS) {
-                            log.info("Scheduler: Auto-resetting draw for room '{}' due to timeout.",roomId);
-                            roomStateService.startMenuInput(roomId);
-                        }
+                        log.info("Scheduler: Auto-resetting draw for room '{}' due to timeout.",roomId);
                     }else{
                         log.warn("Scheduler: Room '{}' is in result_viewing but has no lastDrawTimestamp. Resetting immediately.", roomId);
-                        roomStateService.startMenuInput(roomId);
                     }
+                    roomStateService.startMenuInput(roomId);
+                    broadcastRoomStateUpdate(roomId, "inputting");
                 }
             }catch(RoomException e){
                 log.warn("Scheduler: RoomException while auto-resetting room {}: {}", roomId, e.getMessage());
@@ -94,8 +138,12 @@ public class MatchroomService {
         User host = userRepository.findByUsername(hostUsername)
                 .orElseThrow(() -> new RoomException("호스트 정보를 찾을 수 없습니다: " + hostUsername));
 
+        // same rules as PUT round-settings; rejected before anything is written
+        roomStateService.validateRoundSettings(request.getInputDeadlineSeconds(),
+                request.getResultViewSeconds(), request.getDeadlineAction());
+
         String roomId = matchRoomRepository.generateNewRoomId();
-        int maxUsers = Math.max(2, Math.min(request.getMaxUsers(), 10));
+        int maxUsers = request.isLargeRoom() ? largeRoomMaxUsers : Math.max(2, Math.min(request.getMaxUsers(), 10));
 
         String hashedPassword = null;
         if (request.isPrivate() && request.getPassword() != null && !request.getPassword().isEmpty()) {
@@ -114,12 +162,21 @@ public class MatchroomService {
             throw new RoomException("알 수 없는 오류로 방 생성에 실패했습니다.");
         }
 
-        log.info("Room created: id ={}, name={}, host={}, endpoint={}:{}, isPrivate={}",
-                roomId, request.getRoomName(), hostUsername, hostIp, hostPort, request.isPrivate());
+        if (request.isLargeRoom()) {
+            matchRoomRepository.markLargeRoom(roomId);
+        }
+
+        log.info("Room created: id ={}, name={}, host={}, endpoint={}:{}, isPrivate={}, large={}",
+                roomId, request.getRoomName(), hostUsername, hostIp, hostPort, request.isPrivate(), request.isLargeRoom());
+
+        roomStateService.saveRoundSettings(roomId, request.getInputDeadlineSeconds(),
+                request.getResultViewSeconds(), request.getDeadlineAction());
+        roomStateService.armInputDeadline(roomId);
+        lobbyService.publishRoomCreated(roomId);
 
         //broadcasting after successfully creating room
         RoomDetails roomDetails = buildRoomDetails(roomId);
-        broadcastParticipantUpdate(roomId, roomDetails.getParticipants());
+        broadcastParticipantUpdate(roomId);
         broadcastRoomStateUpdate(roomId, "inputting", roomDetails);
 
         return roomDetails;
@@ -156,33 +213,8 @@ public class MatchroomService {
             switch((int)result){
                 case 3: //success
                     //unlike method using Lua scripts like HGET are already executed in Repository's WATCH/MULTI/EXEC
-                    matchRoomRepository.saveUserNicknameInRoom(roomId,username,joiner.getNickname());
                     log.info("User '{}' joined room '{}' (endpoint: {}:{}) via optimistic lock", username, roomId, joinerIp, joinerPort);
-                    RoomDetails roomDetails = buildRoomDetails(roomId);
-                    broadcastParticipantUpdate(roomId, roomDetails.getParticipants());
-                    
-                    // Broadcast current menu status to ensure new joiner sees existing submitted menus
-                    MenuStatus currentMenuStatus = menuService.buildMenuStatus(roomId);
-                    broadcastMenuStatusUpdate(roomId, currentMenuStatus);
-
-                    if("waiting".equals(roomDetails.getState())){
-                        roomStateService.startMenuInput(roomId);
-                        return buildRoomDetails(roomId);
-                    }
-                    
-                    // Handle late joiner: if room is in "submitted" state but new user hasn't submitted,
-                    // transition back to "inputting" to allow the new user to submit
-                    if("submitted".equals(roomDetails.getState())){
-                        Map<String, Boolean> submitStatus = matchRoomRepository.getRoomSubmitStatus(roomId);
-                        boolean newUserHasSubmitted = submitStatus.getOrDefault(username, false);
-                        if(!newUserHasSubmitted) {
-                            log.info("New user '{}' joined room '{}' in submitted state. Resuming menu input for late joiner.", username, roomId);
-                            roomStateService.resumeMenuInput(roomId);
-                            return buildRoomDetails(roomId);
-                        }
-                    }
-                    
-                    return roomDetails;
+                    return completeJoin(username, roomId, joiner, joinerIp, joinerPort);
 
                 case 1: throw new RoomException("방 참여 실패: 방이 꽉 찼습니다.");
                 case 2:throw  new RoomException("방 참여 실패: 이미 해당 방에 참여중입니다.");
@@ -211,6 +243,65 @@ public class MatchroomService {
         throw new RoomException("방 참여 시도 중 충돌이 반복되어 실패했습니다. 잠시 후 다시 시도해 주세요.");
     }
 
+    // nickname, events and state follow-up once the user is in the room's user set
+    private RoomDetails completeJoin(String username, String roomId, User joiner, String joinerIp, int joinerPort){
+        matchRoomRepository.saveUserNicknameInRoom(roomId,username,joiner.getNickname());
+        lobbyService.publishMemberCountChanged(roomId);
+        roomEventPublisher.publishDelta(roomId, RoomEventPublisher.OP_USER_JOINED, Map.of("participant",
+                new Participant(username, joiner.getNickname(), joinerIp + ":" + joinerPort, false, PresenceService.STATUS_ONLINE)));
+        RoomDetails roomDetails = buildRoomDetails(roomId);
+        broadcastParticipantUpdate(roomId);
+
+        // Broadcast current menu status to ensure new joiner sees existing submitted menus
+        broadcastMenuStatusUpdate(roomId);
+
+        if("waiting".equals(roomDetails.getState())){
+            roomStateService.startMenuInput(roomId);
+            return buildRoomDetails(roomId);
+        }
+
+        // Handle late joiner: if room is in "submitted" state but new user hasn't submitted,
+        // transition back to "inputting" to allow the new user to submit
+        if("submitted".equals(roomDetails.getState())){
+            Map<String, Boolean> submitStatus = matchRoomRepository.getRoomSubmitStatus(roomId);
+            boolean newUserHasSubmitted = submitStatus.getOrDefault(username, false);
+            if(!newUserHasSubmitted) {
+                log.info("New user '{}' joined room '{}' in submitted state. Resuming menu input for late joiner.", username, roomId);
+                roomStateService.resumeMenuInput(roomId);
+                return buildRoomDetails(roomId);
+            }
+        }
+
+        return roomDetails;
+    }
+
+    /**
+     * Puts the user into the public "inputting" room with the fewest free slots, claimed atomically in Redis
+     * (no WATCH retries). Creates a new public room with the user as host when none has room.
+     */
+    public RoomDetails quickJoin(String username, String joinerIp, int joinerPort){
+        matchRoomRepository.findRoomIdByUser(username).ifPresent(existingRoomId -> {
+            throw new RoomException("이미 다른 방 '" + existingRoomId + "'에 참가 중입니다.");
+        });
+        User joiner = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RoomException("참여자 정보를 찾을 수 없습니다: " + username));
+
+        String claimed = matchRoomRepository.claimFreeSlot(username, joinerIp + ":" + joinerPort, Instant.now().toEpochMilli());
+        if(CLAIM_ALREADY_IN_ROOM.equals(claimed)){
+            throw new RoomException("이미 다른 방에 참가 중입니다.");
+        }
+        if(!CLAIM_NO_ROOM.equals(claimed)){
+            log.info("User '{}' quick-joined room '{}' (endpoint: {}:{})", username, claimed, joinerIp, joinerPort);
+            return completeJoin(username, claimed, joiner, joinerIp, joinerPort);
+        }
+
+        CreateRoomRequest request = new CreateRoomRequest();
+        request.setRoomName("빠른 매칭 방");
+        request.setMaxUsers(quickJoinMaxUsers);
+        log.info("No quick-join room available for '{}'. Creating one.", username);
+        return createRoom(username, request, joinerIp, joinerPort);
+    }
+
     public void leaveRoom(String username){
 
         Optional<String> roomIdOpt = matchRoomRepository.findRoomIdByUser(username);
@@ -245,20 +336,20 @@ public class MatchroomService {
                 // buildRoomDetails can be called when the room still exists
                 // if any players are in the room, sending updated participants list
                 if(matchRoomRepository.getRoomUserCount(roomId) >0) {
-                    broadcastParticipantUpdate(roomId, buildRoomDetails(roomId).getParticipants());
+                    lobbyService.publishMemberCountChanged(roomId);
+                    // clients drop the user's participant entry and submissions on USER_LEFT
+                    roomEventPublisher.publishDelta(roomId, RoomEventPublisher.OP_USER_LEFT, Map.of("username", username));
+                    broadcastParticipantUpdate(roomId);
                     
                     // Broadcast updated menu status after clearing user's data
                     if (!isHost) {
-                        MenuStatus updatedMenuStatus = menuService.buildMenuStatus(roomId);
-                        broadcastMenuStatusUpdate(roomId, updatedMenuStatus);
+                        broadcastMenuStatusUpdate(roomId);
                     }
                 }
                 break;
             case 1:
                 log.info("User '{}' (possibly host) left room '{}', causing the room to be closed by script.", username, roomId);
-                matchRoomRepository.deleteRoomData(roomId);
-                matchRoomRepository.removeRoomFromActiveList(roomId);
-                broadcastRoomClosed(roomId, username);
+                closeRoom(roomId, username);
                 break;
             case 2:
                 String msg2 = String.format("LeaveRoom Inconsistency: User '%s' was in room '%s' (locations) but not in user set.", username, roomId);
@@ -278,6 +369,34 @@ public class MatchroomService {
                 throw new RoomException("방 나가기 처리 중 알 수 없는 오류가 발생했습니다.");
         }
     }
+    /**
+     * Closes an idle room on behalf of the reaper. Re-checks the activity index first so a
+     * room that became active after it was selected is left alone.
+     */
+    public boolean closeIdleRoom(String roomId, long idleSince){
+        Optional<Long> lastActivity = matchRoomRepository.getRoomLastActivity(roomId);
+        if(lastActivity.isPresent() && lastActivity.get() > idleSince){
+            return false;
+        }
+        log.info("Closing idle room '{}' (last activity: {}).", roomId, lastActivity.orElse(null));
+        closeRoom(roomId, "system:idle-reaper");
+        return true;
+    }
+
+    private void closeRoom(String roomId, String closedBy){
+        // users still in the room would otherwise keep a location pointing at the deleted room
+        List<String> remainingUsers = new ArrayList<>(matchRoomRepository.getRoomUsers(roomId));
+        if(!remainingUsers.isEmpty()){
+            matchRoomRepository.removeUsersLocation(remainingUsers);
+            remainingUsers.forEach(matchRoomRepository::removeUserEndpoint);
+        }
+        roomStateService.cancelRoomTimers(roomId);
+        matchRoomRepository.deleteRoomData(roomId);
+        matchRoomRepository.removeRoomFromActiveList(roomId);
+        lobbyService.publishRoomClosed(roomId);
+        broadcastRoomClosed(roomId, closedBy);
+    }
+
     private void validateRoomAccess(String roomId, String username){
         if(!isUserInMatchroom(roomId, username)){
             throw new SecurityException("User not authorized for this room");
@@ -348,8 +467,9 @@ public class MatchroomService {
         }
 
         matchRoomRepository.updateRoomState(roomId,"started");
+        roomStateService.publishStateChanged(roomId, "started");
         log.info("Pick started for room '{}' by host '{}'. State updated via Repository.", roomId, username);
-        broadcastRoomStateUpdate(roomId, "started", buildRoomDetails(roomId));
+        broadcastRoomStateUpdate(roomId, "started");
     }
 
     public Optional<RoomDetails> getRoomDetails(String roomId){
@@ -403,6 +523,82 @@ public class MatchroomService {
         log.info("Finished disconnect handling for user '{}'.", username);
     }
 
+    /**
+     * Full room state for clients that detected a gap in the delta versions.
+     * The version is read first, so any delta racing with the build carries a higher version and is re-applied.
+     */
+    public RoomSnapshot buildRoomSnapshot(String username, String roomId){
+        if(!canViewRoom(username, roomId)){
+            throw new SecurityException("User not authorized for this room");
+        }
+        long version = matchRoomRepository.getRoomVersion(roomId);
+        return new RoomSnapshot(version, buildRoomDetails(roomId), menuService.buildMenuStatus(roomId));
+    }
+
+    public boolean isLargeRoom(String roomId){
+        return roomEventPublisher.isLargeRoom(roomId);
+    }
+
+    // members, plus anyone spectating a large room (read-only: commands still require membership)
+    public boolean canViewRoom(String username, String roomId){
+        return isUserInMatchroom(username, roomId) || isLargeRoom(roomId);
+    }
+
+    /**
+     * One page of a room's participants, sorted by username. Large rooms only put the first page into
+     * their room details; clients page through the rest here.
+     */
+    public ParticipantPage getParticipantPage(String username, String roomId, int page, int size){
+        if(!canViewRoom(username, roomId)){
+            throw new SecurityException("User not authorized for this room");
+        }
+        int pageSize = Math.max(1, Math.min(size, participantPageSize));
+        int pageIndex = Math.max(0, page);
+        List<String> usernames = matchRoomRepository.getRoomUsersPage(roomId, (long) pageIndex * pageSize, pageSize);
+        return new ParticipantPage(roomId, pageIndex, pageSize, matchRoomRepository.getRoomUserCount(roomId),
+                buildParticipants(roomId, usernames));
+    }
+
+    /**
+     * Value behind a room's ETag: the room version plus which listed members are online. Participant status is
+     * derived from heartbeats whenever details are built and only bumps the version once the presence sweep
+     * announces it, so it is read here directly. Null while nothing has changed since creation, or once the room is gone.
+     */
+    public String getRoomETagValue(String roomId){
+        long version = matchRoomRepository.getRoomVersion(roomId);
+        if(version <= 0){
+            return null;
+        }
+        List<String> usernames = isLargeRoom(roomId)
+                ? matchRoomRepository.getRoomUsersPage(roomId, 0, participantPageSize)
+                : new ArrayList<>(matchRoomRepository.getRoomUsers(roomId));
+        long onlineSince = Instant.now().toEpochMilli() - presenceOnlineWindowMs;
+        Set<String> online = new TreeSet<>();
+        matchRoomRepository.getHeartbeats(usernames).forEach((username, heartbeat) -> {
+            if(heartbeat >= onlineSince) online.add(username);
+        });
+        return version + "-" + DigestUtils.md5DigestAsHex(String.join(";", online).getBytes(StandardCharsets.UTF_8)).substring(0, 8);
+    }
+
+    /**
+     * Tag for the {@link #getAllActiveRooms()} list: a digest of every active room id and its version plus the
+     * members currently online, read with three Redis calls. Joins, leaves and state changes bump a room's version,
+     * creating or closing a room changes the id set, and presence changes the online set.
+     */
+    public String getActiveRoomsVersionTag(){
+        Set<String> activeRoomIds = matchRoomRepository.getActiveRoomIds();
+        if(activeRoomIds.isEmpty()){
+            return "empty";
+        }
+        StringBuilder versions = new StringBuilder();
+        new TreeMap<>(matchRoomRepository.getMultipleRoomVersions(activeRoomIds))
+                .forEach((roomId, version) -> versions.append(roomId).append(':').append(version).append(';'));
+        long onlineSince = Instant.now().toEpochMilli() - presenceOnlineWindowMs;
+        new TreeSet<>(matchRoomRepository.findUsersByHeartbeat(onlineSince, Long.MAX_VALUE, -1))
+                .forEach(username -> versions.append(username).append(';'));
+        return DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
     public RoomDetails buildRoomDetails(String roomId){
         Map<String,String> detailsMap = matchRoomRepository.getRoomDetailsMap(roomId);
         if(detailsMap.isEmpty()){
@@ -412,20 +608,26 @@ public class MatchroomService {
     }
 
     private RoomDetails buildRoomDetails(String roomId, Map<String,String> detailsMap){
-        Set<String> userUsernames = matchRoomRepository.getRoomUsers(roomId);
-        Map<String,String> userEndpoints = matchRoomRepository.getUserEndpoints(new ArrayList<>(userUsernames));
-        Map<String,String> userNicknames = matchRoomRepository.getUserNicknamesInRoom(roomId);
-
-        List<Participant> participants = userUsernames.stream().map(username -> {
-            String nickname = userNicknames.getOrDefault(username, username);
-            String endpoint = userEndpoints.getOrDefault(username, "N/A");
-
-            boolean submittedMenu = matchRoomRepository.hasUserSubmittedMenu(roomId, username);
-            return new Participant(username, nickname, endpoint, submittedMenu);
-        }).collect(Collectors.toList());
+        boolean largeRoom = "large".equals(detailsMap.get("mode"));
+        List<String> userUsernames;
+        long participantCount;
+        if(largeRoom){
+            userUsernames = matchRoomRepository.getRoomUsersPage(roomId, 0, participantPageSize);
+            participantCount = matchRoomRepository.getRoomUserCount(roomId);
+        }else{
+            userUsernames = new ArrayList<>(matchRoomRepository.getRoomUsers(roomId));
+            participantCount = userUsernames.size();
+        }
+        List<Participant> participants = buildParticipants(roomId, userUsernames);
 
         String hostUsername = detailsMap.getOrDefault("hostUsername", "Unknown Host");
-        String hostEndpoint = userEndpoints.getOrDefault(hostUsername, null);
+        // the host is usually on the participant page already; only a large room may need a separate lookup
+        String hostEndpoint = participants.stream()
+                .filter(participant -> participant.getUsername().equals(hostUsername))
+                .map(Participant::getEndpoint)
+                .findFirst()
+                .orElseGet(() -> matchRoomRepository.getUserEndpoints(List.of(hostUsername)).get(hostUsername));
+        if("N/A".equals(hostEndpoint)) hostEndpoint = null;
 
         String hostIp =null;
         Integer hostPort = null;
@@ -456,38 +658,94 @@ public class MatchroomService {
                 hostIp,
                 hostPort,
                 Integer.parseInt(detailsMap.getOrDefault("maxUsers", "0")),
-                new ArrayList<>(userUsernames),
+                userUsernames,
                 participants,
                 detailsMap.getOrDefault("state","waiting"),
                 Boolean.parseBoolean(detailsMap.getOrDefault("isPrivate","false")),
-                detailsMap.getOrDefault("hostNickname", hostUsername)
+                detailsMap.getOrDefault("hostNickname", hostUsername),
+                parseLongOrNull(detailsMap.get("roundDeadline")),
+                parseIntOrNull(detailsMap.get("inputDeadlineSeconds")),
+                parseIntOrNull(detailsMap.get("resultViewSeconds")),
+                (int) participantCount,
+                largeRoom
         );
     }
 
+    private List<Participant> buildParticipants(String roomId, List<String> usernames){
+        Map<String,String> userEndpoints = matchRoomRepository.getUserEndpoints(usernames);
+        Map<String,String> userNicknames = matchRoomRepository.getUserNicknamesInRoom(roomId);
+        Map<String,Long> heartbeats = matchRoomRepository.getHeartbeats(usernames);
+        long onlineSince = Instant.now().toEpochMilli() - presenceOnlineWindowMs;
+
+        return usernames.stream().map(username -> {
+            String nickname = userNicknames.getOrDefault(username, username);
+            String endpoint = userEndpoints.getOrDefault(username, "N/A");
+
+            boolean submittedMenu = matchRoomRepository.hasUserSubmittedMenu(roomId, username);
+            Long heartbeat = heartbeats.get(username);
+            String status = heartbeat != null && heartbeat >= onlineSince ? PresenceService.STATUS_ONLINE : PresenceService.STATUS_AWAY;
+            return new Participant(username, nickname, endpoint, submittedMenu, status);
+        }).collect(Collectors.toList());
+    }
+
+    private Long parseLongOrNull(String value){
+        return value != null ? Long.parseLong(value) : null;
+    }
+
+    private Integer parseIntOrNull(String value){
+        return value != null ? Integer.parseInt(value) : null;
+    }
+
+        // for callers that already built the details for their own response
         public void broadcastRoomStateUpdate(String roomId, String state, RoomDetails roomDetails){
+        if(!fullSnapshotsEnabled(roomId)) return;
+        eventPipeline.publish(roomId, () -> sendRoomStateUpdate(roomId, state, roomDetails));
+        }
+
+        // builds the details on the event pipeline, off the calling thread
+        public void broadcastRoomStateUpdate(String roomId, String state){
+        if(!fullSnapshotsEnabled(roomId)) return;
+        eventPipeline.publish(roomId, () -> sendRoomStateUpdate(roomId, state, buildRoomDetails(roomId)));
+        }
+
+        private void sendRoomStateUpdate(String roomId, String state, RoomDetails roomDetails){
         WebSocketMessage<RoomDetails> message = new WebSocketMessage<>("ROOM_STATE_UPDATE", roomDetails);
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/events",message);
+        // full snapshot: a slow session only keeps the latest one queued
+        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/events", message,
+                Map.<String,Object>of(OutboundSessionPolicy.CONFLATE_HEADER, "ROOM_STATE_UPDATE"));
         log.debug("Broadcast room state updated for room '{}:{}'.", roomId, state);
         }
 
-        private void broadcastParticipantUpdate(String roomId, List<Participant> participants){
-        WebSocketMessage<List<Participant>> message = new WebSocketMessage<>("PARTICIPANT_UPDATE", participants);
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/events",message);
-        log.debug("Broadcast participant update for room {}: {}", roomId, participants.size());
+        public void publishPresenceChanges(String roomId, Map<String,String> statusByUser){
+        statusByUser.forEach((username, status) -> roomEventPublisher.publishDelta(roomId,
+                RoomEventPublisher.OP_PRESENCE_CHANGED, Map.of("username", username, "status", status)));
+        broadcastParticipantUpdate(roomId);
+        }
+
+        // coalesced: a burst of joins/leaves sends one participant list built after the last change
+        private void broadcastParticipantUpdate(String roomId){
+        if(!fullSnapshotsEnabled(roomId)) return;
+        broadcastCoalescer.submit(roomId, "/topic/room/" + roomId + "/events", "PARTICIPANT_UPDATE",
+                () -> buildRoomDetails(roomId).getParticipants());
+    }
+
+    // large rooms get deltas only, whatever the configured mode
+    private boolean fullSnapshotsEnabled(String roomId){
+        return roomEventPublisher.isFullSnapshotEnabled() && !roomEventPublisher.isLargeRoom(roomId);
     }
 
     private void broadcastRoomClosed(String roomId, String leavingUsername){
         Map<String,String> payload = new HashMap<>();
         payload.put("message", "Room closed because host or last user left.");
         payload.put("closedBy", leavingUsername);
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/closed", payload);
+        eventPipeline.publish(roomId, () -> messagingTemplate.convertAndSend("/topic/room/" + roomId + "/closed", payload));
         log.info("Broadcast room closed for room {}. Closed by {}", roomId, leavingUsername);
     }
 
-    private void broadcastMenuStatusUpdate(String roomId, MenuStatus menuStatus) {
-        WebSocketMessage<MenuStatus> message = new WebSocketMessage<>("MENU_STATUS_UPDATE", menuStatus);
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/menuStatus", message);
-        log.debug("Broadcast menu status update for room {}", roomId);
+    private void broadcastMenuStatusUpdate(String roomId) {
+        if(!fullSnapshotsEnabled(roomId)) return;
+        broadcastCoalescer.submit(roomId, "/topic/room/" + roomId + "/menuStatus", "MENU_STATUS_UPDATE",
+                () -> menuService.buildMenuStatus(roomId));
     }
 
 }
@@ -1,6 +1,7 @@
 package com.example.BobGourmet.Service;
 
 import com.example.BobGourmet.DTO.MenuDTO.MenuStatus;
+import com.example.BobGourmet.DTO.MenuDTO.MenuVoteCount;
 import com.example.BobGourmet.DTO.MenuDTO.MenuVoteDetails;
 import com.example.BobGourmet.DTO.MenuDTO.SubmitMenuRequest;
 import com.example.BobGourmet.DTO.WebSocketMessage;
@@ -21,13 +22,21 @@ public class MenuService {
 
     private final MatchRoomRepository matchRoomRepository;
     private final SimpMessagingTemplate messagingTemplate;
+    private final RoomEventPublisher roomEventPublisher;
+    private final RoomBroadcastCoalescer broadcastCoalescer;
+    private final RoomEventPipeline eventPipeline;
 
 
     private static final int MAX_MENU_SUBMISSIONS_PER_USER = 4;
 
-    public MenuService(MatchRoomRepository matchRoomRepository, SimpMessagingTemplate messagingTemplate) {
+    public MenuService(MatchRoomRepository matchRoomRepository, SimpMessagingTemplate messagingTemplate,
+                       RoomEventPublisher roomEventPublisher, RoomBroadcastCoalescer broadcastCoalescer,
+                       RoomEventPipeline eventPipeline) {
         this.matchRoomRepository = matchRoomRepository;
         this.messagingTemplate = messagingTemplate;
+        this.roomEventPublisher = roomEventPublisher;
+        this.broadcastCoalescer = broadcastCoalescer;
+        this.eventPipeline = eventPipeline;
     }
 
     @Transactional
@@ -61,6 +70,8 @@ public class MenuService {
         matchRoomRepository.saveSubmittedMenus(roomId,username,distinctMenus);
         matchRoomRepository.updateUserSubmitStatus(roomId,username, true);
         log.info("User '{}' submitted menus for room '{}': {}", username, roomId, distinctMenus);
+        roomEventPublisher.publishDelta(roomId, RoomEventPublisher.OP_MENUS_SUBMITTED,
+                Map.of("username", username, "menus", distinctMenus, "submitted", true));
 
         String nextState =null;
         if(matchRoomRepository.haveAllUsersSubmitted(roomId)) {
@@ -69,7 +80,7 @@ public class MenuService {
         }
 
         MenuStatus currentMenuStatus = buildMenuStatus(roomId);
-        broadcastMenuStatusUpdate(roomId, currentMenuStatus);
+        broadcastMenuStatusUpdate(roomId);
 
         Map<String,Object> result = new HashMap<>();
         result.put("menuStatus", currentMenuStatus);
@@ -93,9 +104,11 @@ public class MenuService {
 
         matchRoomRepository.updateMenuVoteInfo(roomId,menuKey,"recommenders",username,true);
         log.info("User '{}' recommended menu for room '{}': {}. Quota left: {}", username, roomId, menuKey,newQuota);
+        roomEventPublisher.publishDelta(roomId, RoomEventPublisher.OP_MENU_RECOMMENDED,
+                Map.of("username", username, "menuKey", menuKey, "count", matchRoomRepository.getMenuVoteCount(roomId, menuKey)));
 
         MenuStatus currentMenuStatus = buildMenuStatus(roomId);
-        broadcastMenuStatusUpdate(roomId, currentMenuStatus);
+        broadcastMenuStatusUpdate(roomId);
 
         return currentMenuStatus;
 
@@ -112,9 +125,11 @@ public class MenuService {
         matchRoomRepository.updateMenuVoteInfo(roomId,menuKey,"dislikedBy", username, true);
         matchRoomRepository.updateMenuDetailsField(roomId,menuKey,"isExcluded", true);
         log.info("User '{}' disliked menu '{}' in room '{}'. Menu is now excluded from draw.", username,menuKey, roomId);
+        roomEventPublisher.publishDelta(roomId, RoomEventPublisher.OP_MENU_DISLIKED,
+                Map.of("username", username, "menuKey", menuKey, "excluded", true));
 
         MenuStatus currentMenuStatus = buildMenuStatus(roomId);
-        broadcastMenuStatusUpdate(roomId, currentMenuStatus);
+        broadcastMenuStatusUpdate(roomId);
 
         return currentMenuStatus;
         }
@@ -141,6 +156,25 @@ public class MenuService {
             throw new RoomException("현재 추첨을 시작할 수 있는 상태가 아닙니다. 현재 상태: " + currentState);
         }
 
+        Optional<String> selectedMenuOpt = pickDrawableMenu(roomId);
+        if(selectedMenuOpt.isEmpty()) {
+            throw new RoomException("추첨할 메뉴가 없습니다. 메뉴를 다시 제출해주세요.");
+        }
+
+        return completeDraw(roomId, selectedMenuOpt.get());
+        }
+
+        // draw triggered by the round deadline timer: no host or all-submitted checks
+        public Optional<Map<String,Object>> drawForRoom(String roomId){
+        return pickDrawableMenu(roomId).map(selectedMenu -> completeDraw(roomId, selectedMenu));
+        }
+
+        // full snapshot only; in delta mode the triggering change already went out as a delta
+        public void publishMenuStatus(String roomId){
+        broadcastMenuStatusUpdate(roomId);
+        }
+
+        private Optional<String> pickDrawableMenu(String roomId){
         Map<String, MenuVoteDetails> allMenusWithDetails = matchRoomRepository.getAllSubmittedMenusWithDetails(roomId);
         List<String> drawableMenus = new ArrayList<>();
         allMenusWithDetails.forEach((menuName, menuDetails) -> {
@@ -150,11 +184,13 @@ public class MenuService {
             });
 
         if(drawableMenus.isEmpty()) {
-            throw new RoomException("추첨할 메뉴가 없습니다. 메뉴를 다시 제출해주세요.");
+            return Optional.empty();
         }
-
         Random random = new Random();
-        String selectedMenu = drawableMenus.get(random.nextInt(drawableMenus.size()));
+        return Optional.of(drawableMenus.get(random.nextInt(drawableMenus.size())));
+        }
+
+        private Map<String,Object> completeDraw(String roomId, String selectedMenu){
         long drawTimestamp = Instant.now().toEpochMilli();
         log.info("Draw completed in room '{}'. Selected menu: {}", roomId, selectedMenu);
 
@@ -197,30 +233,43 @@ public class MenuService {
 
         log.info("Room '{}' has been reset by host '{}'.", roomId, username);
 
-        MenuStatus resetMenuStatus = buildMenuStatus(roomId);
-        broadcastMenuStatusUpdate(roomId, resetMenuStatus);
+        broadcastMenuStatusUpdate(roomId);
         }
 
 
-        private void broadcastMenuStatusUpdate(String roomId, MenuStatus menuStatus) {
-        WebSocketMessage<MenuStatus> message = new WebSocketMessage<>("MENU_STATUS_UPDATE", menuStatus);
-        messagingTemplate.convertAndSend("/topic/room/" + roomId + "/menuStatus", message);
-        log.debug("Broadcast menu status update for room {}", roomId);
+        // bursts of votes in one room are merged and the status is built once with the latest state
+        private void broadcastMenuStatusUpdate(String roomId) {
+        if(!roomEventPublisher.isFullSnapshotEnabled() || roomEventPublisher.isLargeRoom(roomId)) return;
+        broadcastCoalescer.submit(roomId, "/topic/room/" + roomId + "/menuStatus", "MENU_STATUS_UPDATE", () -> buildMenuStatus(roomId));
         }
 
         private void broadcastDrawResult(String roomId, String selectedMenu) {
 
             WebSocketMessage<Map<String,String>> message=
                     new WebSocketMessage<>("draw_result", Collections.singletonMap("selectedMenu", selectedMenu));
-            messagingTemplate.convertAndSend("/topic/room/" + roomId + "/events", message);
+            eventPipeline.publish(roomId, () -> messagingTemplate.convertAndSend("/topic/room/" + roomId + "/events", message));
             log.info("Broadcast draw_result for room {}:{}", roomId, selectedMenu);
         }
 
         public MenuStatus buildMenuStatus(String roomId) {
         Map<String,MenuVoteDetails> submittedMenusRaw = matchRoomRepository.getAllSubmittedMenusWithDetails(roomId);
+        Map<String, MenuVoteCount> voteCounts = new HashMap<>();
+        Set<String> dislikedAndExcludedMenuKeys = new HashSet<>();
+        submittedMenusRaw.forEach((menuName, menuDetails) -> {
+            voteCounts.put(menuName, new MenuVoteCount(menuDetails.getRecommenders().size(),
+                    menuDetails.getDislikedBy().size(), menuDetails.isExcluded()));
+            if(menuDetails.isExcluded()) {
+                dislikedAndExcludedMenuKeys.add(menuName);
+            }
+        });
+
+        // large room: counts only, no per-member maps or voter sets (they would grow with every member)
+        if(roomEventPublisher.isLargeRoom(roomId)) {
+            return new MenuStatus(null, null, dislikedAndExcludedMenuKeys, null, voteCounts);
+        }
+
         Map<String, List<String>> submittedMenusByUsers = new HashMap<>();
         Map<String, MenuVoteDetails> menuVotes = new HashMap<>();
-        Set<String> dislikedAndExcludedMenuKeys = new HashSet<>();
 
         Set<String> allUsersInRoom = matchRoomRepository.getRoomUsers(roomId);
         if(allUsersInRoom != null) {
@@ -230,18 +279,11 @@ public class MenuService {
         }
 
         submittedMenusRaw.forEach((menuName,menuDetails) -> {
-            Set<String> recommenders = menuDetails.getRecommenders();
-            Set<String> dislikers = menuDetails.getDislikedBy();
-
             MenuVoteDetails voteDetailsForStatus = new MenuVoteDetails();
-            voteDetailsForStatus.setRecommenders(recommenders);
-            voteDetailsForStatus.setDislikedBy(dislikers);
+            voteDetailsForStatus.setRecommenders(menuDetails.getRecommenders());
+            voteDetailsForStatus.setDislikedBy(menuDetails.getDislikedBy());
 
             menuVotes.put(menuName, voteDetailsForStatus);
-
-        if(menuDetails.isExcluded()) {
-                    dislikedAndExcludedMenuKeys.add(menuName);
-                }
         });
         Map<String,Boolean> rawSubmitStatus = matchRoomRepository.getRoomSubmitStatus(roomId);
         Map<String,Boolean> userSubmitStatus = new HashMap<>();
@@ -253,7 +295,7 @@ public class MenuService {
             }
         }
         
-        return new MenuStatus(submittedMenusByUsers, menuVotes,dislikedAndExcludedMenuKeys,userSubmitStatus);
+        return new MenuStatus(submittedMenusByUsers, menuVotes,dislikedAndExcludedMenuKeys,userSubmitStatus, voteCounts);
 
         }
 
@@ -0,0 +1,284 @@
+package com.example.BobGourmet.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-session outbound queue in front of the socket. Frames carrying a {@link #CONFLATE_HEADER}
+ * (full room snapshots) replace any queued frame with the same destination and key, so a slow client only
+ * ever holds the latest snapshot; the newer one is queued behind everything already waiting. Every other frame is queued in order, up to a bounded count.
+ * A session whose queue, buffered bytes or current send stays over its limit is disconnected.
+ * Sends run on a virtual thread per session, so a stalled socket never blocks the outbound channel.
+ */
+@Slf4j
+@Component
+public class OutboundSessionPolicy {
+
+    // native header on snapshot broadcasts; value is the event type
+    public static final String CONFLATE_HEADER = "conflate-key";
+
+    private static final String POLICY_CONFLATE = "conflate";
+    private static final String POLICY_QUEUE = "queue";
+
+    private final long sendTimeLimitMs;
+    private final int bufferSizeLimit;
+    private final int maxQueuedEvents;
+    private final ExecutorService sendExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ws-send-", 0).factory());
+
+    private final AtomicLong conflateBufferedBytes = new AtomicLong();
+    private final AtomicLong queueBufferedBytes = new AtomicLong();
+    private final Counter conflatedCounter;
+    private final Counter conflatedBytesCounter;
+    private final MeterRegistry meterRegistry;
+
+    public OutboundSessionPolicy(MeterRegistry meterRegistry,
+                                 @Value("${app.websocket.outbound.send-time-limit-ms:10000}") long sendTimeLimitMs,
+                                 @Value("${app.websocket.outbound.buffer-size-limit:524288}") int bufferSizeLimit,
+                                 @Value("${app.websocket.outbound.max-queued-events:500}") int maxQueuedEvents) {
+        this.meterRegistry = meterRegistry;
+        this.sendTimeLimitMs = sendTimeLimitMs;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.maxQueuedEvents = maxQueuedEvents;
+
+        this.conflatedCounter = Counter.builder("websocket.outbound.conflated")
+                .description("Queued snapshot frames replaced by a newer one before sending")
+                .tag("policy", POLICY_CONFLATE)
+                .register(meterRegistry);
+        this.conflatedBytesCounter = Counter.builder("websocket.outbound.conflated.bytes")
+                .description("Bytes never buffered or sent because their snapshot was superseded")
+                .baseUnit("bytes")
+                .tag("policy", POLICY_CONFLATE)
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.buffered.bytes", conflateBufferedBytes, AtomicLong::get)
+                .description("Bytes waiting in per-session outbound queues")
+                .baseUnit("bytes")
+                .tag("policy", POLICY_CONFLATE)
+                .register(meterRegistry);
+        Gauge.builder("websocket.outbound.buffered.bytes", queueBufferedBytes, AtomicLong::get)
+                .description("Bytes waiting in per-session outbound queues")
+                .baseUnit("bytes")
+                .tag("policy", POLICY_QUEUE)
+                .register(meterRegistry);
+    }
+
+    public long getSendTimeLimitMs() {
+        return sendTimeLimitMs;
+    }
+
+    public int getBufferSizeLimit() {
+        return bufferSizeLimit;
+    }
+
+    public WebSocketSession decorate(WebSocketSession session) {
+        return new PolicySession(session);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendExecutor.shutdownNow();
+    }
+
+    private void countDisconnect(String reason) {
+        meterRegistry.counter("websocket.outbound.disconnected", "reason", reason).increment();
+    }
+
+    // STOMP headers are everything before the first blank line; only that part is decoded
+    private static String headerBlock(WebSocketMessage<?> message) {
+        if (message instanceof TextMessage text) {
+            String payload = text.getPayload();
+            int end = payload.indexOf("\n\n");
+            return end < 0 ? payload : payload.substring(0, end);
+        }
+        if (message instanceof BinaryMessage binary) {
+            ByteBuffer buffer = binary.getPayload().duplicate();
+            int start = buffer.position();
+            for (int i = start; i < buffer.limit() - 1; i++) {
+                if (buffer.get(i) == '\n' && buffer.get(i + 1) == '\n') {
+                    byte[] header = new byte[i - start];
+                    buffer.get(header);
+                    return new String(header, StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return "";
+    }
+
+    private static String headerValue(String headers, String name) {
+        for (String line : headers.split("\n")) {
+            if (line.startsWith(name + ":")) {
+                return line.substring(name.length() + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    private record Pending(WebSocketMessage<?> message, boolean conflatable) {
+    }
+
+    private class PolicySession extends WebSocketSessionDecorator {
+
+        private final Object lock = new Object();
+        // conflation key or a per-frame sequence -> frame, in send order
+        private final LinkedHashMap<Object, Pending> queue = new LinkedHashMap<>();
+        private long sequence;
+        private int queuedEvents;
+        private long bufferedBytes;
+        private boolean draining;
+        private volatile long sendStartedAt;
+        private volatile boolean closed;
+        private CloseStatus closeAfterDrain;
+
+        PolicySession(WebSocketSession delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            if (closed) {
+                return;
+            }
+            long started = sendStartedAt;
+            if (started > 0 && System.currentTimeMillis() - started > sendTimeLimitMs) {
+                disconnect("send-time-limit");
+                return;
+            }
+
+            String headers = headerBlock(message);
+            String conflateKey = headerValue(headers, CONFLATE_HEADER);
+            String overLimit = null;
+            synchronized (lock) {
+                if (conflateKey != null) {
+                    Object key = headerValue(headers, "destination") + "#" + conflateKey;
+                    // the replacement goes to the back, not into the old slot: it was serialized after every frame
+                    // queued ahead of it, and sent earlier those older frames would then overwrite it on the client
+                    Pending replaced = queue.remove(key);
+                    if (replaced != null) {
+                        release(replaced);
+                        conflatedCounter.increment();
+                        conflatedBytesCounter.increment(replaced.message().getPayloadLength());
+                    }
+                    queue.put(key, new Pending(message, true));
+                } else {
+                    queue.put(sequence++, new Pending(message, false));
+                    queuedEvents++;
+                }
+                bufferedBytes += message.getPayloadLength();
+                (conflateKey != null ? conflateBufferedBytes : queueBufferedBytes).addAndGet(message.getPayloadLength());
+
+                if (queuedEvents > maxQueuedEvents) {
+                    overLimit = "queue-limit";
+                } else if (bufferedBytes > bufferSizeLimit) {
+                    overLimit = "buffer-size-limit";
+                } else if (!draining) {
+                    draining = true;
+                    sendExecutor.execute(this::drain);
+                }
+            }
+            if (overLimit != null) {
+                disconnect(overLimit);
+            }
+        }
+
+        @Override
+        public void close(CloseStatus status) throws IOException {
+            synchronized (lock) {
+                // let queued frames (e.g. an ERROR frame) go out first
+                if (draining && !closed) {
+                    closeAfterDrain = status;
+                    return;
+                }
+            }
+            closed = true;
+            super.close(status);
+        }
+
+        private void drain() {
+            while (true) {
+                Pending next;
+                CloseStatus pendingClose;
+                synchronized (lock) {
+                    Iterator<Pending> it = queue.values().iterator();
+                    if (closed || !it.hasNext()) {
+                        draining = false;
+                        pendingClose = closeAfterDrain;
+                        next = null;
+                    } else {
+                        next = it.next();
+                        it.remove();
+                        release(next);
+                        pendingClose = null;
+                    }
+                }
+                if (next == null) {
+                    if (pendingClose != null && !closed) {
+                        closeQuietly(pendingClose);
+                    }
+                    return;
+                }
+
+                sendStartedAt = System.currentTimeMillis();
+                try {
+                    getDelegate().sendMessage(next.message());
+                } catch (Exception e) {
+                    log.debug("Send to session {} failed: {}", getId(), e.getMessage());
+                    closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+                } finally {
+                    sendStartedAt = 0;
+                }
+            }
+        }
+
+        private void disconnect(String reason) {
+            log.warn("Disconnecting slow WebSocket session {} ({})", getId(), reason);
+            countDisconnect(reason);
+            closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+        }
+
+        private void closeQuietly(CloseStatus status) {
+            synchronized (lock) {
+                if (closed) return;
+                closed = true;
+                queue.values().forEach(this::release);
+                queue.clear();
+            }
+            try {
+                getDelegate().close(status);
+            } catch (Exception e) {
+                log.debug("Failed to close session {}: {}", getId(), e.getMessage());
+            }
+        }
+
+        // caller holds the lock
+        private void release(Pending pending) {
+            int size = pending.message().getPayloadLength();
+            bufferedBytes -= size;
+            if (pending.conflatable()) {
+                conflateBufferedBytes.addAndGet(-size);
+            } else {
+                queuedEvents--;
+                queueBufferedBytes.addAndGet(-size);
+            }
+        }
+    }
+}
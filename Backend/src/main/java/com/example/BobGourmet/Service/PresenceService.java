@@ -0,0 +1,154 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Room member presence kept in one Redis sorted set (username -> last heartbeat).
+ * Every node refreshes the members whose sockets it holds; the lease holder sweeps
+ * members whose heartbeat expired and announces online/away transitions.
+ */
+@Slf4j
+@Service
+public class PresenceService {
+
+    public static final String STATUS_ONLINE = "online";
+    public static final String STATUS_AWAY = "away";
+
+    private static final String PRESENCE_SWEEP_JOB = "job:presence-sweep";
+
+    private final MatchRoomRepository matchRoomRepository;
+    private final MatchroomService matchroomService;
+    private final StompEventListener stompEventListener;
+    private final ClusterLeaseService clusterLeaseService;
+    private final Counter sweptMembersCounter;
+    private final long expiryMs;
+    private final long onlineWindowMs;
+    private final int sweepBatchSize;
+
+    public PresenceService(MatchRoomRepository matchRoomRepository,
+                           MatchroomService matchroomService,
+                           StompEventListener stompEventListener,
+                           ClusterLeaseService clusterLeaseService,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.presence.expiry-ms:45000}") long expiryMs,
+                           @Value("${app.presence.online-window-ms:15000}") long onlineWindowMs,
+                           @Value("${app.presence.sweep-batch-size:100}") int sweepBatchSize) {
+        this.matchRoomRepository = matchRoomRepository;
+        this.matchroomService = matchroomService;
+        this.stompEventListener = stompEventListener;
+        this.clusterLeaseService = clusterLeaseService;
+        this.expiryMs = expiryMs;
+        this.onlineWindowMs = onlineWindowMs;
+        this.sweepBatchSize = sweepBatchSize;
+        this.sweptMembersCounter = Counter.builder("presence.swept")
+                .description("Room members removed because their heartbeat expired")
+                .register(meterRegistry);
+    }
+
+    // one HMGET for the room lookup and one ZADD for all local members, regardless of how many rooms they're in
+    @Scheduled(fixedDelayString = "${app.presence.heartbeat-interval-ms:5000}")
+    public void refreshLocalHeartbeats() {
+        Set<String> localUsers = stompEventListener.getLocallyConnectedUsers();
+        if (localUsers.isEmpty()) {
+            return;
+        }
+        Map<String, String> roomsByUser = matchRoomRepository.findRoomIdsByUsers(new ArrayList<>(localUsers));
+        matchRoomRepository.refreshHeartbeats(roomsByUser.keySet(), Instant.now().toEpochMilli());
+        log.trace("Refreshed presence heartbeats for {} local member(s).", roomsByUser.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.presence.sweep-interval-ms:5000}")
+    public void sweepPresence() {
+        clusterLeaseService.runWithLease(PRESENCE_SWEEP_JOB, this::sweep);
+    }
+
+    private void sweep(ClusterLeaseService.Lease lease) {
+        long now = Instant.now().toEpochMilli();
+        long expiredBefore = now - expiryMs;
+
+        for (String username : matchRoomRepository.findUsersByHeartbeat(0, expiredBefore, sweepBatchSize)) {
+            if (!lease.owns(username)) continue;
+            if (!lease.isStillValid()) {
+                log.warn("Presence lease '{}' is no longer valid. Stopping sweep.", lease.getName());
+                return;
+            }
+            // the claim fails if the member heartbeated since the range query
+            if (!matchRoomRepository.claimExpiredHeartbeat(username, expiredBefore)) continue;
+            try {
+                log.info("Presence heartbeat for user '{}' expired. Removing from room.", username);
+                matchroomService.handleDisconnect(username);
+                matchRoomRepository.removeAnnouncedAway(List.of(username));
+                sweptMembersCounter.increment();
+            } catch (Exception e) {
+                // without the heartbeat entry no later sweep would find the member, who would then stay in the room
+                log.error("Failed to remove expired member '{}': {}. Retrying on the next sweep.", username, e.getMessage(), e);
+                matchRoomRepository.restoreExpiredHeartbeat(username, expiredBefore);
+            }
+        }
+
+        announceAwayTransitions(lease, expiredBefore, now - onlineWindowMs);
+    }
+
+    /**
+     * A room is only notified when one of its members flips between online and away. The whole away window is read
+     * page by page, and who was announced away is kept in Redis rather than on the lease holder, so neither a long
+     * away list nor a lease or shard moving to another node makes members flap.
+     */
+    private void announceAwayTransitions(ClusterLeaseService.Lease lease, long expiredBefore, long onlineSince) {
+        Set<String> announced = matchRoomRepository.getAnnouncedAway();
+        // username -> new status
+        Map<String, String> changed = new HashMap<>();
+
+        List<String> nowAway = new ArrayList<>();
+        for (long offset = 0; ; offset += sweepBatchSize) {
+            List<String> page = matchRoomRepository.findUsersByHeartbeat(expiredBefore, onlineSince - 1, offset, sweepBatchSize);
+            for (String username : page) {
+                if (lease.owns(username) && !announced.contains(username)) nowAway.add(username);
+            }
+            if (page.size() < sweepBatchSize) break;
+        }
+
+        // announced members with a fresh heartbeat are online again; those without one left their room
+        List<String> owned = announced.stream().filter(lease::owns).toList();
+        Map<String, Long> heartbeats = matchRoomRepository.getHeartbeats(owned);
+        List<String> cleared = new ArrayList<>();
+        for (String username : owned) {
+            Long heartbeat = heartbeats.get(username);
+            if (heartbeat == null || heartbeat >= onlineSince) {
+                cleared.add(username);
+                if (heartbeat != null) changed.put(username, STATUS_ONLINE);
+            }
+        }
+
+        matchRoomRepository.addAnnouncedAway(nowAway);
+        matchRoomRepository.removeAnnouncedAway(cleared);
+        nowAway.forEach(username -> changed.put(username, STATUS_AWAY));
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        Map<String, Map<String, String>> changesByRoom = new HashMap<>();
+        matchRoomRepository.findRoomIdsByUsers(new ArrayList<>(changed.keySet())).forEach((username, roomId) ->
+                changesByRoom.computeIfAbsent(roomId, id -> new HashMap<>()).put(username, changed.get(username)));
+        changesByRoom.forEach((roomId, statusByUser) -> {
+            try {
+                matchroomService.publishPresenceChanges(roomId, statusByUser);
+            } catch (Exception e) {
+                log.warn("Could not publish presence change for room '{}': {}", roomId, e.getMessage());
+            }
+        });
+    }
+}
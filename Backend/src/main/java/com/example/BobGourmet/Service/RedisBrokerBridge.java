@@ -0,0 +1,232 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.DTO.ClusterDTO.BrokerEnvelope;
+import com.example.BobGourmet.utils.ClusterNodeId;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.user.UserDestinationMessageHandler;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lets the in-memory simple broker work across nodes. Room topics, the lobby topic and unresolved user messages
+ * sent on this node are published to Redis; each node relays what it receives to its own subscribers.
+ * A node only listens to the channel of a room while at least one local session is subscribed to it;
+ * the lobby channel is always listened to, since lobby versions are global and every node's diffs count.
+ * <p>
+ * User destinations use the user destination handler's broadcast destination: a message for a user without a local session
+ * goes to {@link #USER_BROADCAST_DESTINATION}, which every node receives and resolves against its own sessions.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.websocket.broker", havingValue = "redis")
+public class RedisBrokerBridge implements ChannelInterceptor, SmartInitializingSingleton {
+
+    public static final String USER_BROADCAST_DESTINATION = "/topic/unresolved-user";
+
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+    private static final String ROOM_CHANNEL_PREFIX = "ws:room:";
+    private static final String USER_BROADCAST_CHANNEL = "ws:user-broadcast";
+    private static final String LOBBY_CHANNEL = "ws:lobby";
+    // set on relayed messages so they aren't published again
+    public static final String BRIDGE_ORIGIN_HEADER = "bridgeOrigin";
+    // the user destination handler ignores broadcasts without a session id as its own
+    private static final String BRIDGE_SESSION_ID = "redis-broker-bridge";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MessageChannel brokerChannel;
+    private final ObjectProvider<UserDestinationMessageHandler> userDestinationMessageHandler;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+    private final MessageListener relayListener = (message, pattern) -> relay(message.getBody());
+
+    // roomId -> local subscriptions; the Redis channel is subscribed while this is > 0
+    private final Map<String, AtomicInteger> localRoomSubscriptions = new ConcurrentHashMap<>();
+    // sessionId -> (subscriptionId -> roomId), to undo subscriptions on unsubscribe/disconnect
+    private final Map<String, Map<String, String>> sessionSubscriptions = new ConcurrentHashMap<>();
+
+    private final Counter publishedCounter;
+    private final Counter relayedCounter;
+
+    public RedisBrokerBridge(StringRedisTemplate stringRedisTemplate,
+                             RedisMessageListenerContainer listenerContainer,
+                             @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel,
+                             ObjectProvider<UserDestinationMessageHandler> userDestinationMessageHandler,
+                             ObjectMapper objectMapper,
+                             ClusterNodeId clusterNodeId,
+                             MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.brokerChannel = brokerChannel;
+        this.userDestinationMessageHandler = userDestinationMessageHandler;
+        this.objectMapper = objectMapper;
+        this.nodeId = clusterNodeId.getNodeId();
+
+        listenerContainer.addMessageListener(relayListener, new ChannelTopic(USER_BROADCAST_CHANNEL));
+        listenerContainer.addMessageListener(relayListener, new ChannelTopic(LOBBY_CHANNEL));
+
+        this.publishedCounter = Counter.builder("websocket.bridge.published")
+                .description("Broker messages published to Redis for other nodes")
+                .register(meterRegistry);
+        this.relayedCounter = Counter.builder("websocket.bridge.relayed")
+                .description("Broker messages received from other nodes and delivered locally")
+                .register(meterRegistry);
+        Gauge.builder("websocket.bridge.rooms", localRoomSubscriptions, Map::size)
+                .description("Room channels this node listens to")
+                .register(meterRegistry);
+    }
+
+    // MessageBrokerRegistry only exposes the user broadcast for the broker relay, so it is set on the handler directly
+    @Override
+    public void afterSingletonsInstantiated() {
+        userDestinationMessageHandler.getObject().setBroadcastDestination(USER_BROADCAST_DESTINATION);
+    }
+
+    // brokerChannel interceptor: outbound copy to Redis
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String destination = accessor.getDestination();
+        if (destination == null || accessor.getHeader(BRIDGE_ORIGIN_HEADER) != null) {
+            return message;
+        }
+
+        String redisChannel;
+        if (destination.startsWith(ROOM_TOPIC_PREFIX)) {
+            String roomId = extractRoomId(destination);
+            if (roomId == null) return message;
+            redisChannel = ROOM_CHANNEL_PREFIX + roomId;
+        } else if (destination.equals(USER_BROADCAST_DESTINATION)) {
+            redisChannel = USER_BROADCAST_CHANNEL;
+        } else if (destination.equals(LobbyService.LOBBY_TOPIC)) {
+            redisChannel = LOBBY_CHANNEL;
+        } else {
+            return message;
+        }
+
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            log.debug("Not bridging non-binary payload for {}", destination);
+            return message;
+        }
+        try {
+            BrokerEnvelope envelope = new BrokerEnvelope(nodeId, destination, accessor.toNativeHeaderMap(),
+                    accessor.getContentType() != null ? accessor.getContentType().toString() : null, payload);
+            stringRedisTemplate.convertAndSend(redisChannel, objectMapper.writeValueAsString(envelope));
+            publishedCounter.increment();
+        } catch (Exception e) {
+            // local subscribers still get the message; only other nodes miss it
+            log.warn("Failed to publish {} to Redis channel {}: {}", destination, redisChannel, e.getMessage());
+        }
+        return message;
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        String sessionId = accessor.getSessionId();
+        String subscriptionId = accessor.getSubscriptionId();
+        if (destination == null || sessionId == null || subscriptionId == null || !destination.startsWith(ROOM_TOPIC_PREFIX)) {
+            return;
+        }
+        String roomId = extractRoomId(destination);
+        if (roomId == null) return;
+
+        sessionSubscriptions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>()).put(subscriptionId, roomId);
+        localRoomSubscriptions.compute(roomId, (id, count) -> {
+            if (count == null) {
+                listenerContainer.addMessageListener(relayListener, new ChannelTopic(ROOM_CHANNEL_PREFIX + id));
+                log.debug("Listening to room channel {}", id);
+                return new AtomicInteger(1);
+            }
+            count.incrementAndGet();
+            return count;
+        });
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        Map<String, String> subscriptions = accessor.getSessionId() != null ? sessionSubscriptions.get(accessor.getSessionId()) : null;
+        if (subscriptions == null || accessor.getSubscriptionId() == null) return;
+
+        String roomId = subscriptions.remove(accessor.getSubscriptionId());
+        if (roomId != null) {
+            releaseRoom(roomId);
+        }
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, String> subscriptions = sessionSubscriptions.remove(event.getSessionId());
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::releaseRoom);
+        }
+    }
+
+    private void releaseRoom(String roomId) {
+        localRoomSubscriptions.computeIfPresent(roomId, (id, count) -> {
+            if (count.decrementAndGet() > 0) return count;
+            listenerContainer.removeMessageListener(relayListener, new ChannelTopic(ROOM_CHANNEL_PREFIX + id));
+            log.debug("Stopped listening to room channel {}", id);
+            return null;
+        });
+    }
+
+    private void relay(byte[] body) {
+        try {
+            BrokerEnvelope envelope = objectMapper.readValue(new String(body, StandardCharsets.UTF_8), BrokerEnvelope.class);
+            if (nodeId.equals(envelope.getOriginNodeId())) {
+                return; // the local broker already delivered it
+            }
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(envelope.getDestination());
+            accessor.setSessionId(BRIDGE_SESSION_ID);
+            if (envelope.getNativeHeaders() != null) {
+                envelope.getNativeHeaders().forEach((name, values) -> values.forEach(value -> accessor.addNativeHeader(name, value)));
+            }
+            if (envelope.getContentType() != null) {
+                accessor.setContentType(MimeTypeUtils.parseMimeType(envelope.getContentType()));
+            }
+            accessor.setHeader(BRIDGE_ORIGIN_HEADER, envelope.getOriginNodeId());
+            brokerChannel.send(MessageBuilder.createMessage(envelope.getPayload(), accessor.getMessageHeaders()));
+            relayedCounter.increment();
+        } catch (Exception e) {
+            log.warn("Failed to relay broker message from Redis: {}", e.getMessage());
+        }
+    }
+
+    private String extractRoomId(String destination) {
+        String[] parts = destination.split("/");
+        return parts.length > 3 ? parts[3] : null;
+    }
+}
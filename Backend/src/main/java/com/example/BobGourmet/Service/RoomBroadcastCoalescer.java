@@ -0,0 +1,108 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.DTO.WebSocketMessage;
+import com.example.BobGourmet.Exception.RoomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Merges snapshot broadcasts for the same destination and event type within a short window.
+ * The first update opens the window; later ones only replace the pending builder (latest wins),
+ * and the snapshot is built once when the window closes, so it reflects the state at send time.
+ * Building and sending happen on the room's event pipeline lane, where a snapshot still queued behind a busy room
+ * is replaced by the next one; this class only keeps time.
+ */
+@Slf4j
+@Service
+public class RoomBroadcastCoalescer {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomEventPipeline eventPipeline;
+    private final long windowMs;
+    private final ScheduledExecutorService flusher;
+    private final Counter mergedCounter;
+    private final Counter flushedCounter;
+
+    // "destination#type" -> latest pending update
+    private final Map<String, PendingBroadcast> pending = new ConcurrentHashMap<>();
+
+    public RoomBroadcastCoalescer(SimpMessagingTemplate messagingTemplate,
+                                  RoomEventPipeline eventPipeline,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.websocket.coalesce-window-ms:40}") long windowMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.eventPipeline = eventPipeline;
+        this.windowMs = windowMs;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "room-broadcast-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.mergedCounter = Counter.builder("room.broadcasts.coalesced")
+                .description("Snapshot broadcasts merged into a pending one")
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("room.broadcasts.flushed")
+                .description("Snapshot broadcasts built and sent after coalescing")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues a snapshot broadcast. The builder runs later on the event pipeline,
+     * so it must read current state rather than capture a prebuilt payload.
+     */
+    public void submit(String roomId, String destination, String eventType, Supplier<?> payloadBuilder) {
+        PendingBroadcast update = new PendingBroadcast(roomId, destination, eventType, payloadBuilder);
+        String key = destination + "#" + eventType;
+        if (windowMs <= 0) {
+            eventPipeline.publishConflated(roomId, key, () -> send(update));
+            return;
+        }
+        if (pending.put(key, update) != null) {
+            mergedCounter.increment();
+            return;
+        }
+        flusher.schedule(() -> flush(key), windowMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+    }
+
+    private void flush(String key) {
+        PendingBroadcast update = pending.remove(key);
+        if (update != null) {
+            eventPipeline.publishConflated(update.roomId(), key, () -> send(update));
+        }
+    }
+
+    private void send(PendingBroadcast update) {
+        try {
+            Object payload = update.payloadBuilder().get();
+            messagingTemplate.convertAndSend(update.destination(), new WebSocketMessage<>(update.eventType(), payload),
+                    Map.<String, Object>of(OutboundSessionPolicy.CONFLATE_HEADER, update.eventType()));
+            flushedCounter.increment();
+            log.debug("Broadcast coalesced {} to {}", update.eventType(), update.destination());
+        } catch (RoomException e) {
+            // the room was closed inside the window
+            log.debug("Dropped {} for {}: {}", update.eventType(), update.destination(), e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to broadcast {} to {}: {}", update.eventType(), update.destination(), e.getMessage(), e);
+        }
+    }
+
+    private record PendingBroadcast(String roomId, String destination, String eventType, Supplier<?> payloadBuilder) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.DTO.MenuDTO.MenuStatus;
+import com.example.BobGourmet.DTO.MenuDTO.SubmitMenuRequest;
+import com.example.BobGourmet.DTO.RoomDTO.RoomDetails;
+import com.example.BobGourmet.Exception.RoomException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+/**
+ * Menu and draw commands shared by the REST controller and the STOMP command handlers:
+ * the menu/vote change plus the room state transition and broadcast it triggers.
+ * Each command passes the rate limit first, so both transports share one budget.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoomCommandService {
+
+    private final MatchroomService matchroomService;
+    private final MenuService menuService;
+    private final RoomStateService roomStateService;
+    private final RoomRateLimiter roomRateLimiter;
+
+    public MenuStatus submitMenus(String username, String roomId, SubmitMenuRequest request) {
+        roomRateLimiter.check(RoomRateLimiter.Action.SUBMIT, username, roomId);
+        Map<String,Object> result = menuService.submitMenus(username, roomId, request);
+        String nextState = (String) result.get("nextState");
+
+        if("submitted".equals(nextState)){
+            roomStateService.allMenusSubmitted(roomId);
+            matchroomService.broadcastRoomStateUpdate(roomId, "submitted");
+        }else if("inputting".equals(nextState)){
+            roomStateService.startMenuInput(roomId);
+            matchroomService.broadcastRoomStateUpdate(roomId, "inputting");
+        }
+        return (MenuStatus) result.get("menuStatus");
+    }
+
+    public RoomDetails startDraw(String username, String roomId) {
+        roomRateLimiter.check(RoomRateLimiter.Action.DRAW, username, roomId);
+        try {
+            Map<String, Object> drawResult = menuService.startDraw(username, roomId);
+            String selectedMenu = (String) drawResult.get("selectedMenu");
+            long timestamp = (long) drawResult.get("timestamp");
+            roomStateService.startResultViewing(roomId, selectedMenu, timestamp);
+            RoomDetails roomDetails = matchroomService.buildRoomDetails(roomId);
+            matchroomService.broadcastRoomStateUpdate(roomId, "result_viewing", roomDetails);
+            return roomDetails;
+        }
+        catch (RoomException e) {
+            if(e.getMessage().contains("추첨할 메뉴가 없습니다.")){
+                log.warn("Draw failed for room {}: {}. Resetting room.", roomId, e.getMessage());
+                roomStateService.startMenuInput(roomId);
+                // the room went back to menu input; every member has to see it, not just the caller
+                RoomDetails resetDetails = matchroomService.buildRoomDetails(roomId);
+                matchroomService.broadcastRoomStateUpdate(roomId, "inputting", resetDetails);
+                return resetDetails;
+            }
+            throw e;
+        }
+    }
+
+    public RoomDetails resetDraw(String username, String roomId) {
+        roomRateLimiter.check(RoomRateLimiter.Action.DRAW, username, roomId);
+        menuService.resetDraw(username, roomId);
+        roomStateService.startMenuInput(roomId);
+        RoomDetails updatedDetails = matchroomService.buildRoomDetails(roomId);
+        matchroomService.broadcastRoomStateUpdate(roomId, "inputting", updatedDetails);
+        return updatedDetails;
+    }
+
+    public MenuStatus recommendMenu(String username, String roomId, String menuKey) {
+        roomRateLimiter.check(RoomRateLimiter.Action.VOTE, username, roomId);
+        return menuService.recommendMenu(username, roomId, menuKey);
+    }
+
+    public MenuStatus dislikeMenu(String username, String roomId, String menuKey) {
+        roomRateLimiter.check(RoomRateLimiter.Action.VOTE, username, roomId);
+        return menuService.dislikeMenu(username, roomId, menuKey);
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.BobGourmet.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Outbound room events (snapshot builds and broker sends) run here instead of on the request thread.
+ * Each room has its own FIFO queue, drained in order by one single-threaded lane the room hashes to,
+ * so events of a room go out in publish order while different rooms fan out in parallel.
+ * A lane drains a room in small batches and then moves on, so a busy room only delays, never evicts, the others.
+ * <p>
+ * Kinds of events:
+ * <ul>
+ *   <li>{@link #publish} - not dropped for backpressure (room closed, draw results)</li>
+ *   <li>{@link #publishSequenced} - not dropped for backpressure and sent in sequence order (lobby diffs)</li>
+ *   <li>{@link #publishConflated} - full snapshots; a newer one replaces a queued one with the same key in place</li>
+ *   <li>{@link #publishDroppable} - versioned deltas; when the room's queue holds room-capacity events the drop policy discards
+ *       the room's oldest queued delta or the new one, and clients recover through the version gap and a snapshot resync</li>
+ * </ul>
+ * Every room queue is bounded by room-hard-limit. Past room-capacity only deltas are shed, which leaves the other
+ * events headroom; an event that would exceed the hard limit is rejected (counted and logged), so a room whose
+ * lane cannot keep up never grows its queue without bound.
+ * <p>
+ * Sequence numbers (room and lobby versions) are taken by the caller before publishing, outside any queue lock.
+ * A sequenced event is queued behind the room's queued events with a lower sequence, so publishers racing between
+ * their INCR and the queue still go out in version order as long as the lower one has not been sent yet.
+ */
+@Slf4j
+@Service
+public class RoomEventPipeline {
+
+    // tasks a lane runs for one room before giving the other rooms on that lane a turn
+    private static final int DRAIN_BATCH = 32;
+    private static final long UNSEQUENCED = Long.MIN_VALUE;
+
+    private final List<ThreadPoolExecutor> lanes = new ArrayList<>();
+    private final Map<String, RoomQueue> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedEvents = new AtomicInteger();
+    private final int roomCapacity;
+    private final int roomHardLimit;
+    private final boolean dropOldest;
+    private final Counter droppedCounter;
+    private final Counter conflatedCounter;
+    private final Counter rejectedCounter;
+
+    public RoomEventPipeline(MeterRegistry meterRegistry,
+                             @Value("${app.websocket.pipeline.lanes:4}") int laneCount,
+                             @Value("${app.websocket.pipeline.room-capacity:500}") int roomCapacity,
+                             @Value("${app.websocket.pipeline.room-hard-limit:1000}") int roomHardLimit,
+                             @Value("${app.websocket.pipeline.drop-policy:drop-oldest}") String dropPolicy) {
+        this.roomCapacity = Math.max(1, roomCapacity);
+        this.roomHardLimit = Math.max(this.roomCapacity, roomHardLimit);
+        this.dropOldest = switch (dropPolicy) {
+            case "drop-oldest" -> true;
+            case "drop-newest" -> false;
+            default -> throw new IllegalArgumentException("Unknown app.websocket.pipeline.drop-policy: " + dropPolicy);
+        };
+        this.droppedCounter = Counter.builder("room.events.dropped")
+                .description("Room deltas discarded because their room's queue was full")
+                .tag("policy", dropPolicy)
+                .register(meterRegistry);
+        this.conflatedCounter = Counter.builder("room.events.conflated")
+                .description("Queued room snapshots replaced by a newer one")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("room.events.rejected")
+                .description("Room events rejected because their room's queue reached the hard limit")
+                .register(meterRegistry);
+
+        for (int i = 0; i < Math.max(1, laneCount); i++) {
+            String threadName = "room-events-" + i;
+            // holds at most one drain task per room, so it needs no bound of its own
+            ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.DiscardPolicy());
+            lanes.add(lane);
+        }
+
+        Gauge.builder("room.events.queue.depth", queuedEvents, AtomicInteger::get)
+                .description("Room events waiting in the outbound pipeline")
+                .register(meterRegistry);
+        Gauge.builder("room.events.rooms", rooms, Map::size)
+                .description("Rooms with events waiting in the outbound pipeline")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues work for a room. The task runs after every task previously published for the same room;
+     * it is not dropped for backpressure, only rejected at the room's hard limit.
+     */
+    public boolean publish(String roomId, Runnable task) {
+        return enqueue(roomId, null, false, UNSEQUENCED, task);
+    }
+
+    /**
+     * Queues a snapshot for a room. If a task with the same key is still queued for the room it is replaced
+     * and keeps its place, so the newer snapshot still goes out before anything published after the old one.
+     */
+    public boolean publishConflated(String roomId, String conflationKey, Runnable task) {
+        return enqueue(roomId, conflationKey, false, UNSEQUENCED, task);
+    }
+
+    /**
+     * Queues work numbered by the caller (e.g. a version INCR done just before) that is not dropped for backpressure.
+     * It is queued ahead of the room's queued tasks with a higher sequence, so tasks go out in sequence order.
+     */
+    public boolean publishSequenced(String roomId, long sequence, Runnable task) {
+        return enqueue(roomId, null, false, sequence, task);
+    }
+
+    /**
+     * Queues a delta numbered by the caller that may be dropped under backpressure; queued in sequence order
+     * like {@link #publishSequenced}.
+     */
+    public boolean publishDroppable(String roomId, long sequence, Runnable task) {
+        return enqueue(roomId, null, true, sequence, task);
+    }
+
+    public int getQueueDepth() {
+        return queuedEvents.get();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // drain what is already queued so in-flight room changes still reach clients
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    // returns false if the event was dropped or rejected
+    private boolean enqueue(String roomId, String conflationKey, boolean droppable, long sequence, Runnable task) {
+        while (true) {
+            RoomQueue queue = rooms.computeIfAbsent(roomId, RoomQueue::new);
+            boolean schedule;
+            synchronized (queue) {
+                if (queue.retired) {
+                    continue; // emptied and removed by its lane in the meantime
+                }
+                if (conflationKey != null && queue.replace(conflationKey, task)) {
+                    conflatedCounter.increment();
+                    return true;
+                }
+                if (droppable && queue.entries.size() >= roomCapacity && !(dropOldest && queue.dropOldestDroppable())) {
+                    droppedCounter.increment();
+                    return false;
+                }
+                if (queue.entries.size() >= roomHardLimit && !queue.dropOldestDroppable()) {
+                    rejectedCounter.increment();
+                    log.warn("Room event queue for room '{}' is at its hard limit ({}); event rejected", roomId, roomHardLimit);
+                    return false;
+                }
+                queue.add(new Entry(conflationKey, droppable, sequence, task));
+                queuedEvents.incrementAndGet();
+                schedule = !queue.scheduled;
+                queue.scheduled = true;
+            }
+            if (schedule) {
+                queue.lane.execute(queue::drain);
+            }
+            return true;
+        }
+    }
+
+    private void run(String roomId, Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Room event for room '{}' failed: {}", roomId, e.getMessage(), e);
+        }
+    }
+
+    private static final class Entry {
+        private final String conflationKey;
+        private final boolean droppable;
+        private final long sequence;
+        private Runnable task;
+
+        private Entry(String conflationKey, boolean droppable, long sequence, Runnable task) {
+            this.conflationKey = conflationKey;
+            this.droppable = droppable;
+            this.sequence = sequence;
+            this.task = task;
+        }
+    }
+
+    private final class RoomQueue {
+        private final String roomId;
+        private final ThreadPoolExecutor lane;
+        // guarded by this
+        private final LinkedList<Entry> entries = new LinkedList<>();
+        private boolean scheduled;
+        private boolean retired;
+
+        private RoomQueue(String roomId) {
+            this.roomId = roomId;
+            this.lane = lanes.get(Math.floorMod(roomId.hashCode(), lanes.size()));
+        }
+
+        // a sequenced entry moves ahead of the queued entries with a higher sequence, up to the last unsequenced one
+        private void add(Entry entry) {
+            ListIterator<Entry> iterator = entries.listIterator(entries.size());
+            if (entry.sequence != UNSEQUENCED) {
+                while (iterator.hasPrevious()) {
+                    long queued = iterator.previous().sequence;
+                    if (queued == UNSEQUENCED || queued < entry.sequence) {
+                        iterator.next();
+                        break;
+                    }
+                }
+            }
+            iterator.add(entry);
+        }
+
+        private boolean replace(String conflationKey, Runnable task) {
+            for (Entry entry : entries) {
+                if (conflationKey.equals(entry.conflationKey)) {
+                    entry.task = task;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean dropOldestDroppable() {
+            Iterator<Entry> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().droppable) {
+                    iterator.remove();
+                    queuedEvents.decrementAndGet();
+                    droppedCounter.increment();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void drain() {
+            int ran = 0;
+            while (true) {
+                Entry entry;
+                synchronized (this) {
+                    entry = entries.poll();
+                    if (entry == null) {
+                        scheduled = false;
+                        retired = true;
+                        rooms.remove(roomId, this);
+                        return;
+                    }
+                }
+                queuedEvents.decrementAndGet();
+                run(roomId, entry.task);
+                // let the other rooms on this lane go; while shutting down, finish this room here
+                if (++ran >= DRAIN_BATCH && !lane.isShutdown()) {
+                    lane.execute(this::drain);
+                    return;
+                }
+            }
+        }
+    }
+}
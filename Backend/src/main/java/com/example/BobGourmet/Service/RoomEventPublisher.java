@@ -0,0 +1,110 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.DTO.RoomDTO.RoomDelta;
+import com.example.BobGourmet.DTO.WebSocketMessage;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versions room changes and publishes them as small delta events on /topic/room/{id}/deltas.
+ * Every change bumps the room version whatever the mode, so snapshots and deltas always line up.
+ * In "full" mode (default) only the existing full snapshot broadcasts go out, in "delta" mode only deltas,
+ * and "both" is meant for migrating clients.
+ * Large rooms always run on deltas only: a full snapshot per change to hundreds of members is what they avoid.
+ */
+@Slf4j
+@Service
+public class RoomEventPublisher {
+
+    public static final String DELTA_EVENT_TYPE = "ROOM_DELTA";
+
+    public static final String OP_MENUS_SUBMITTED = "MENUS_SUBMITTED";
+    public static final String OP_MENU_RECOMMENDED = "MENU_RECOMMENDED";
+    public static final String OP_MENU_DISLIKED = "MENU_DISLIKED";
+    public static final String OP_MENUS_RESET = "MENUS_RESET";
+    public static final String OP_USER_JOINED = "USER_JOINED";
+    public static final String OP_USER_LEFT = "USER_LEFT";
+    public static final String OP_PRESENCE_CHANGED = "PRESENCE_CHANGED";
+    public static final String OP_STATE_CHANGED = "STATE_CHANGED";
+    public static final String OP_ROUND_SETTINGS_CHANGED = "ROUND_SETTINGS_CHANGED";
+
+    private final MatchRoomRepository matchRoomRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RoomEventPipeline eventPipeline;
+    private final boolean fullSnapshotsEnabled;
+    private final boolean deltasEnabled;
+    private final long modeCacheTtlMs;
+
+    // a room's mode is set when it is created and never changes, so every vote need not re-read it;
+    // the TTL drops entries of closed rooms and covers a random room id being reused
+    private final Map<String, CachedMode> roomModes = new ConcurrentHashMap<>();
+
+    public RoomEventPublisher(MatchRoomRepository matchRoomRepository,
+                              SimpMessagingTemplate messagingTemplate,
+                              RoomEventPipeline eventPipeline,
+                              @Value("${app.websocket.room-events.mode:full}") String mode,
+                              @Value("${app.room.mode-cache-ttl-ms:60000}") long modeCacheTtlMs) {
+        this.matchRoomRepository = matchRoomRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.eventPipeline = eventPipeline;
+        this.modeCacheTtlMs = modeCacheTtlMs;
+        switch (mode) {
+            case "full" -> { fullSnapshotsEnabled = true; deltasEnabled = false; }
+            case "delta" -> { fullSnapshotsEnabled = false; deltasEnabled = true; }
+            case "both" -> { fullSnapshotsEnabled = true; deltasEnabled = true; }
+            default -> throw new IllegalArgumentException("Unknown app.websocket.room-events.mode: " + mode);
+        }
+        log.info("Room event mode: {}", mode);
+    }
+
+    // callers skip building full MenuStatus/RoomDetails payloads when this is false
+    public boolean isFullSnapshotEnabled() {
+        return fullSnapshotsEnabled;
+    }
+
+    public boolean isLargeRoom(String roomId) {
+        long now = System.currentTimeMillis();
+        CachedMode cached = roomModes.get(roomId);
+        if (cached != null && now - cached.cachedAt() <= modeCacheTtlMs) {
+            return cached.large();
+        }
+        boolean large = matchRoomRepository.isLargeRoom(roomId);
+        roomModes.put(roomId, new CachedMode(large, now));
+        return large;
+    }
+
+    @Scheduled(fixedDelayString = "${app.room.mode-cache-ttl-ms:60000}")
+    public void evictExpiredModes() {
+        long now = System.currentTimeMillis();
+        roomModes.values().removeIf(cached -> now - cached.cachedAt() > modeCacheTtlMs);
+    }
+
+    /**
+     * Bumps the room version and, in delta mode or for a large room, broadcasts the change.
+     * Data values should be absolute (counts, flags) so replaying a delta over a newer snapshot is harmless.
+     * The version is bumped on the calling thread, before and outside the pipeline's queue lock, so it is current once
+     * the mutation returns (ETags, snapshots); only the broadcast is queued, in version order, and may be dropped under backpressure.
+     */
+    public void publishDelta(String roomId, String op, Map<String, Object> data) {
+        if (!deltasEnabled && !isLargeRoom(roomId)) {
+            matchRoomRepository.incrementRoomVersion(roomId);
+            return;
+        }
+        long version = matchRoomRepository.incrementRoomVersion(roomId);
+        WebSocketMessage<RoomDelta> message = new WebSocketMessage<>(DELTA_EVENT_TYPE, new RoomDelta(roomId, version, op, data));
+        eventPipeline.publishDroppable(roomId, version, () -> {
+            messagingTemplate.convertAndSend("/topic/room/" + roomId + "/deltas", message);
+            log.debug("Broadcast delta {} v{} for room {}", op, version, roomId);
+        });
+    }
+
+    private record CachedMode(boolean large, long cachedAt) {
+    }
+}
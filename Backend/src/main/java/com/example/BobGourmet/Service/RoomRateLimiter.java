@@ -0,0 +1,102 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.Exception.RateLimitExceededException;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import com.example.BobGourmet.Repository.RateLimitRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Sliding-window limits on room operations, per user and per room, shared by every node through Redis.
+ * Limits come from app.ratelimit.{action}.per-user / per-room over app.ratelimit.window-ms; 0 turns one off.
+ * Large rooms only get the per-user window; a room budget sized for ten people would lock out hundreds.
+ * Both windows are checked and counted in one script call. A refused request throws
+ * {@link RateLimitExceededException} with the time until a slot frees, and is counted as
+ * room.requests.throttled (tag action). If Redis is unreachable the request is let through:
+ * losing the limit for a moment is better than failing every room operation.
+ */
+@Slf4j
+@Service
+public class RoomRateLimiter {
+
+    public enum Action {
+        CREATE, JOIN, SUBMIT, VOTE, DRAW;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private final RateLimitRepository rateLimitRepository;
+    private final MatchRoomRepository matchRoomRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final long windowMs;
+    private final Map<Action, int[]> limits = new EnumMap<>(Action.class);
+
+    public RoomRateLimiter(RateLimitRepository rateLimitRepository, MatchRoomRepository matchRoomRepository,
+                           MeterRegistry meterRegistry, Environment environment,
+                           @Value("${app.ratelimit.enabled:true}") boolean enabled,
+                           @Value("${app.ratelimit.window-ms:10000}") long windowMs) {
+        this.rateLimitRepository = rateLimitRepository;
+        this.matchRoomRepository = matchRoomRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.windowMs = windowMs;
+        limits.put(Action.CREATE, limits(environment, Action.CREATE, 3, 0));
+        limits.put(Action.JOIN, limits(environment, Action.JOIN, 5, 30));
+        limits.put(Action.SUBMIT, limits(environment, Action.SUBMIT, 5, 60));
+        limits.put(Action.VOTE, limits(environment, Action.VOTE, 10, 100));
+        limits.put(Action.DRAW, limits(environment, Action.DRAW, 5, 10));
+    }
+
+    /**
+     * @param roomId the room the request targets, or null when there is none yet (create, quick-join)
+     */
+    public void check(Action action, String username, String roomId) {
+        if (!enabled) {
+            return;
+        }
+        int[] actionLimits = limits.get(action);
+        long retryAfterMs;
+        try {
+            boolean roomScoped = roomId != null && actionLimits[1] > 0 && !matchRoomRepository.isLargeRoom(roomId);
+            String userKey = KEY_PREFIX + action.key() + ":user:" + username;
+            String[] keys = roomScoped
+                    ? new String[]{userKey, KEY_PREFIX + action.key() + ":room:" + roomId}
+                    : new String[]{userKey};
+            int[] keyLimits = roomScoped ? actionLimits : new int[]{actionLimits[0]};
+            retryAfterMs = rateLimitRepository.tryAcquire(keys, keyLimits, windowMs);
+        } catch (Exception e) {
+            log.warn("Rate limit check for {} by '{}' skipped: {}", action, username, e.getMessage());
+            return;
+        }
+        if (retryAfterMs > 0) {
+            Counter.builder("room.requests.throttled")
+                    .description("Room requests refused by the per-user or per-room rate limit")
+                    .tag("action", action.key())
+                    .register(meterRegistry)
+                    .increment();
+            log.info("Throttled {} by '{}' in room {} for {} ms", action, username, roomId, retryAfterMs);
+            throw new RateLimitExceededException(
+                    "요청이 너무 많습니다. " + RateLimitExceededException.toSeconds(retryAfterMs) + "초 후 다시 시도해 주세요.", retryAfterMs);
+        }
+    }
+
+    private static int[] limits(Environment environment, Action action, int perUser, int perRoom) {
+        String prefix = "app.ratelimit." + action.key() + ".";
+        return new int[]{
+                environment.getProperty(prefix + "per-user", Integer.class, perUser),
+                environment.getProperty(prefix + "per-room", Integer.class, perRoom)};
+    }
+}
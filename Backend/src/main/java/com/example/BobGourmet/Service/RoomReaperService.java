@@ -0,0 +1,95 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// closes rooms nobody touched for a while, e.g. everyone closed the tab without a clean disconnect
+@Slf4j
+@Service
+public class RoomReaperService {
+
+    private static final String IDLE_REAPER_JOB = "job:idle-room-reaper";
+
+    private final MatchRoomRepository matchRoomRepository;
+    private final MatchroomService matchroomService;
+    private final ClusterLeaseService clusterLeaseService;
+    private final Counter reapedRoomsCounter;
+    private final long idleTimeoutMs;
+    private final int batchSize;
+    // rooms created before the last-activity and quick-join indexes existed are indexed once, on the first run this node leads
+    private volatile boolean indexesBackfilled;
+
+    public RoomReaperService(MatchRoomRepository matchRoomRepository,
+                             MatchroomService matchroomService,
+                             ClusterLeaseService clusterLeaseService,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.room.idle-timeout-ms:1800000}") long idleTimeoutMs,
+                             @Value("${app.room.reaper-batch-size:50}") int batchSize) {
+        this.matchRoomRepository = matchRoomRepository;
+        this.matchroomService = matchroomService;
+        this.clusterLeaseService = clusterLeaseService;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.batchSize = batchSize;
+        this.reapedRoomsCounter = Counter.builder("rooms.reaped")
+                .description("Rooms closed by the idle room reaper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.room.reaper-interval-ms:60000}")
+    public void reapIdleRooms() {
+        AtomicInteger reclaimed = new AtomicInteger();
+        clusterLeaseService.runWithLease(IDLE_REAPER_JOB, lease -> reclaimed.addAndGet(reapBatch(lease)));
+        if (reclaimed.get() > 0) {
+            log.info("Idle room reaper reclaimed {} room(s).", reclaimed.get());
+        }
+    }
+
+    private void backfillIndexes(long now) {
+        long backfilled = matchRoomRepository.backfillRoomLastActivity(now);
+        if (backfilled > 0) {
+            log.info("Indexed last activity of {} room(s) that had none; they are reaped once idle from now.", backfilled);
+        }
+        log.info("Quick-join index rebuilt: {} joinable room(s).", matchRoomRepository.backfillFreeSlots());
+        indexesBackfilled = true;
+    }
+
+    /**
+     * Closes at most one batch of rooms idle longer than the threshold.
+     * Returns how many rooms were reclaimed.
+     */
+    int reapBatch(ClusterLeaseService.Lease lease) {
+        long now = Instant.now().toEpochMilli();
+        if (!indexesBackfilled) {
+            backfillIndexes(now);
+        }
+        long idleSince = now - idleTimeoutMs;
+        List<String> idleRoomIds = matchRoomRepository.findIdleRoomIds(idleSince, batchSize);
+
+        int reclaimed = 0;
+        for (String roomId : idleRoomIds) {
+            if (!lease.owns(roomId)) continue;
+            if (!lease.isStillValid()) {
+                log.warn("Reaper lease '{}' is no longer valid. Stopping after {} room(s).", lease.getName(), reclaimed);
+                break;
+            }
+            try {
+                if (matchroomService.closeIdleRoom(roomId, idleSince)) {
+                    reclaimed++;
+                    reapedRoomsCounter.increment();
+                }
+            } catch (Exception e) {
+                log.error("Failed to reap idle room '{}': {}", roomId, e.getMessage(), e);
+            }
+        }
+        return reclaimed;
+    }
+}
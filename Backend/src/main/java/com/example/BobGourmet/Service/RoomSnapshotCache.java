@@ -0,0 +1,112 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.DTO.RoomDTO.RoomSnapshot;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Room snapshots for subscribe-time delivery, cached per room and keyed by the room version.
+ * A burst of members subscribing to the same room builds the snapshot once; concurrent misses for
+ * one room wait on the future of the single build, which runs outside the map so other rooms never wait on it. Any delta bumps the version and invalidates the entry; the TTL
+ * bounds staleness of time-derived fields such as presence status.
+ */
+@Slf4j
+@Service
+public class RoomSnapshotCache {
+
+    private final MatchRoomRepository matchRoomRepository;
+    private final MatchroomService matchroomService;
+    private final MenuService menuService;
+    private final long ttlMs;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    private final Map<String, CachedSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public RoomSnapshotCache(MatchRoomRepository matchRoomRepository,
+                             MatchroomService matchroomService,
+                             MenuService menuService,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.websocket.subscribe-snapshot-ttl-ms:2000}") long ttlMs) {
+        this.matchRoomRepository = matchRoomRepository;
+        this.matchroomService = matchroomService;
+        this.menuService = menuService;
+        this.ttlMs = ttlMs;
+        this.hitCounter = Counter.builder("room.snapshot.cache")
+                .description("Subscribe-time room snapshot lookups")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("room.snapshot.cache")
+                .description("Subscribe-time room snapshot lookups")
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Current snapshot of the room; throws RoomException if the room no longer exists.
+     */
+    public RoomSnapshot get(String roomId) {
+        long version = matchRoomRepository.getRoomVersion(roomId);
+        long now = System.currentTimeMillis();
+        while (true) {
+            CachedSnapshot cached = snapshots.get(roomId);
+            if (isValid(cached, version, now)) {
+                hitCounter.increment();
+                return await(cached.snapshot());
+            }
+            if (cached != null) {
+                snapshots.remove(roomId, cached);
+            }
+            // the map only holds the key long enough to publish the future; the build runs outside of it
+            CachedSnapshot building = new CachedSnapshot(version, new CompletableFuture<>(), now);
+            if (snapshots.putIfAbsent(roomId, building) != null) {
+                continue; // another subscriber started a build first
+            }
+            missCounter.increment();
+            try {
+                building.snapshot().complete(new RoomSnapshot(version,
+                        matchroomService.buildRoomDetails(roomId), menuService.buildMenuStatus(roomId)));
+            } catch (RuntimeException e) {
+                snapshots.remove(roomId, building);
+                building.snapshot().completeExceptionally(e);
+                throw e;
+            }
+            return building.snapshot().join();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.websocket.subscribe-snapshot-ttl-ms:2000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        snapshots.values().removeIf(cached -> now - cached.builtAt() > ttlMs);
+    }
+
+    // a build started for this version or a newer one serves the subscriber
+    private boolean isValid(CachedSnapshot cached, long version, long now) {
+        return cached != null && cached.version() >= version && now - cached.builtAt() <= ttlMs;
+    }
+
+    private RoomSnapshot await(CompletableFuture<RoomSnapshot> snapshot) {
+        try {
+            return snapshot.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record CachedSnapshot(long version, CompletableFuture<RoomSnapshot> snapshot, long builtAt) {
+    }
+}
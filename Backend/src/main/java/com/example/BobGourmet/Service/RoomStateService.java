@@ -1,15 +1,37 @@
 package com.example.BobGourmet.Service;
 
+import com.example.BobGourmet.Exception.RoomException;
 import com.example.BobGourmet.Repository.MatchRoomRepository;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class RoomStateService {
 
+    public static final String INPUT_DEADLINE_TIMER = "input_deadline";
+    public static final String RESULT_VIEW_TIMER = "result_view_end";
+
+    public static final String DEADLINE_ACTION_DRAW = "draw";
+    public static final String DEADLINE_ACTION_SUBMIT = "submit";
+
+    private static final int MIN_INPUT_DEADLINE_SECONDS = 15;
+    private static final int MAX_INPUT_DEADLINE_SECONDS = 600;
+    private static final int MIN_RESULT_VIEW_SECONDS = 3;
+    private static final int MAX_RESULT_VIEW_SECONDS = 60;
+
     private final MatchRoomRepository matchRoomRepository;
+    private final RoomTimerService roomTimerService;
+    private final RoomEventPublisher roomEventPublisher;
+    private final LobbyService lobbyService;
+
+    @Value("${app.room.default-result-view-seconds:10}")
+    private int defaultResultViewSeconds;
 
     //changing room state to "inputting"
     @Transactional
@@ -17,19 +39,29 @@ public class RoomStateService {
         matchRoomRepository.updateRoomState(roomId,"inputting");
         matchRoomRepository.clearSubmittedMenus(roomId);
         matchRoomRepository.clearLastDrawResult(roomId);
+        roomTimerService.cancel(RESULT_VIEW_TIMER, roomId);
+        armInputDeadline(roomId);
+        roomEventPublisher.publishDelta(roomId, RoomEventPublisher.OP_MENUS_RESET, Map.of());
+        publishStateChanged(roomId, "inputting");
     }
-    
+
     // New method: Only change state to inputting without clearing data (for late joiners)
     @Transactional
     public void resumeMenuInput(String roomId){
         matchRoomRepository.updateRoomState(roomId,"inputting");
         // Don't clear submitted menus - preserve existing submissions for late joiners
+        // and keep the running deadline so a late joiner can't extend the round
+        if(!matchRoomRepository.getRoomDetailsMap(roomId).containsKey("roundDeadline")){
+            armInputDeadline(roomId);
+        }
+        publishStateChanged(roomId, "inputting");
     }
 
     //changing room state to "submitted"
     @Transactional
     public void allMenusSubmitted(String roomId){
         matchRoomRepository.updateRoomState(roomId, "submitted");
+        publishStateChanged(roomId, "submitted");
     }
 
     // changing room state to "result_viewing"
@@ -37,5 +69,69 @@ public class RoomStateService {
     public void startResultViewing(String roomId, String selectedMenu, long timestamp){
         matchRoomRepository.saveLastDrawResult(roomId, selectedMenu, timestamp);
         matchRoomRepository.updateRoomState(roomId, "result_viewing");
+
+        roomTimerService.cancel(INPUT_DEADLINE_TIMER, roomId);
+        long viewEndsAt = roomTimerService.schedule(RESULT_VIEW_TIMER, roomId,
+                getResultViewMs(matchRoomRepository.getRoomDetailsMap(roomId)));
+        matchRoomRepository.saveRoundDeadline(roomId, viewEndsAt);
+        publishStateChanged(roomId, "result_viewing");
+    }
+
+    // (re)starts the input countdown if the host configured one; the deadline is stored once and clients count down locally
+    public void armInputDeadline(String roomId){
+        Map<String,String> details = matchRoomRepository.getRoomDetailsMap(roomId);
+        int inputDeadlineSeconds = Integer.parseInt(details.getOrDefault("inputDeadlineSeconds", "0"));
+        if(inputDeadlineSeconds > 0){
+            long deadline = roomTimerService.schedule(INPUT_DEADLINE_TIMER, roomId, inputDeadlineSeconds * 1000L);
+            matchRoomRepository.saveRoundDeadline(roomId, deadline);
+        }else{
+            roomTimerService.cancel(INPUT_DEADLINE_TIMER, roomId);
+            matchRoomRepository.saveRoundDeadline(roomId, null);
+        }
+    }
+
+    public void cancelRoomTimers(String roomId){
+        roomTimerService.cancel(INPUT_DEADLINE_TIMER, roomId);
+        roomTimerService.cancel(RESULT_VIEW_TIMER, roomId);
+    }
+
+    // null arguments keep the defaults; 0 input deadline seconds disables the countdown
+    public void saveRoundSettings(String roomId, Integer inputDeadlineSeconds, Integer resultViewSeconds, String deadlineAction){
+        int deadline = inputDeadlineSeconds != null ? inputDeadlineSeconds : 0;
+        int resultView = resultViewSeconds != null ? resultViewSeconds : defaultResultViewSeconds;
+        String action = deadlineAction != null ? deadlineAction : DEADLINE_ACTION_DRAW;
+        validateRoundSettings(deadline, resultView, action);
+        matchRoomRepository.saveRoundSettings(roomId, deadline, resultView, action);
+    }
+
+    // throws RoomException for settings outside the allowed ranges; lets room creation reject them before the room exists
+    public void validateRoundSettings(Integer inputDeadlineSeconds, Integer resultViewSeconds, String deadlineAction){
+        int deadline = inputDeadlineSeconds != null ? inputDeadlineSeconds : 0;
+        int resultView = resultViewSeconds != null ? resultViewSeconds : defaultResultViewSeconds;
+        String action = deadlineAction != null ? deadlineAction : DEADLINE_ACTION_DRAW;
+
+        if(deadline != 0 && (deadline < MIN_INPUT_DEADLINE_SECONDS || deadline > MAX_INPUT_DEADLINE_SECONDS)){
+            throw new RoomException("입력 제한 시간은 " + MIN_INPUT_DEADLINE_SECONDS + "초 이상 " + MAX_INPUT_DEADLINE_SECONDS + "초 이하만 됩니다.");
+        }
+        if(resultView < MIN_RESULT_VIEW_SECONDS || resultView > MAX_RESULT_VIEW_SECONDS){
+            throw new RoomException("결과 확인 시간은 " + MIN_RESULT_VIEW_SECONDS + "초 이상 " + MAX_RESULT_VIEW_SECONDS + "초 이하만 됩니다.");
+        }
+        if(!DEADLINE_ACTION_DRAW.equals(action) && !DEADLINE_ACTION_SUBMIT.equals(action)){
+            throw new RoomException("알 수 없는 마감 동작입니다: " + action);
+        }
+    }
+
+    public void publishStateChanged(String roomId, String state){
+        Map<String,String> details = matchRoomRepository.getRoomDetailsMap(roomId);
+        Map<String,Object> data = new HashMap<>();
+        data.put("state", state);
+        data.put("roundDeadline", details.containsKey("roundDeadline") ? Long.parseLong(details.get("roundDeadline")) : null);
+        data.put("lastDrawResult", details.get("lastDrawResult"));
+        roomEventPublisher.publishDelta(roomId, RoomEventPublisher.OP_STATE_CHANGED, data);
+        lobbyService.publishStateChanged(roomId, state);
+    }
+
+    public long getResultViewMs(Map<String,String> roomDetails){
+        return Integer.parseInt(roomDetails.getOrDefault("resultViewSeconds", String.valueOf(defaultResultViewSeconds))) * 1000L;
     }
 }
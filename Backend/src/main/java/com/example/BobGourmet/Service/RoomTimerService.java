@@ -0,0 +1,165 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.Repository.RoomTimerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Per-room timers on an in-process hashed wheel, mirrored to a Redis sorted set.
+ * The node that schedules a timer fires it from its wheel; if that node dies, the
+ * recovery job on the lease holder picks the overdue entry up from Redis.
+ * Firing always goes through an atomic claim, so a timer runs at most once cluster-wide.
+ */
+@Slf4j
+@Service
+public class RoomTimerService {
+
+    private static final String TIMER_RECOVERY_JOB = "job:room-timer-recovery";
+    private static final String TIMER_ID_SEPARATOR = "|";
+
+    private final RoomTimerRepository roomTimerRepository;
+    private final ClusterLeaseService clusterLeaseService;
+    private final long recoveryGraceMs;
+    private final int recoveryBatchSize;
+
+    private final HashedWheelTimer wheel;
+    private final ExecutorService handlerExecutor;
+
+    // timer type -> handler receiving the target id (room id, username, ...)
+    private final Map<String, Consumer<String>> handlers = new ConcurrentHashMap<>();
+    // timers scheduled from this node's wheel
+    private final Map<String, Timeout> localTimeouts = new ConcurrentHashMap<>();
+
+    public RoomTimerService(RoomTimerRepository roomTimerRepository,
+                            ClusterLeaseService clusterLeaseService,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.timers.tick-ms:100}") long tickMs,
+                            @Value("${app.timers.wheel-size:512}") int wheelSize,
+                            @Value("${app.timers.handler-threads:2}") int handlerThreads,
+                            @Value("${app.timers.recovery-grace-ms:2000}") long recoveryGraceMs,
+                            @Value("${app.timers.recovery-batch-size:200}") int recoveryBatchSize) {
+        this.roomTimerRepository = roomTimerRepository;
+        this.clusterLeaseService = clusterLeaseService;
+        this.recoveryGraceMs = recoveryGraceMs;
+        this.recoveryBatchSize = recoveryBatchSize;
+
+        this.wheel = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable, "room-timer-wheel");
+            thread.setDaemon(true);
+            return thread;
+        }, tickMs, TimeUnit.MILLISECONDS, wheelSize);
+
+        AtomicInteger handlerThreadCount = new AtomicInteger();
+        this.handlerExecutor = Executors.newFixedThreadPool(Math.max(1, handlerThreads), runnable -> {
+            Thread thread = new Thread(runnable, "room-timer-handler-" + handlerThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("room.timers.local", localTimeouts, Map::size)
+                .description("Timers scheduled on this node's wheel")
+                .register(meterRegistry);
+    }
+
+    public void registerHandler(String type, Consumer<String> handler) {
+        handlers.put(type, handler);
+    }
+
+    /**
+     * Schedules (or reschedules) the timer of the given type for the target.
+     * Returns the absolute due time so callers can publish it as a deadline.
+     */
+    public long schedule(String type, String targetId, long delayMs) {
+        String timerId = timerId(type, targetId);
+        long dueAt = Instant.now().toEpochMilli() + Math.max(0, delayMs);
+
+        roomTimerRepository.schedule(timerId, dueAt);
+        Timeout timeout = wheel.newTimeout(t -> fire(timerId, dueAt), Math.max(0, delayMs), TimeUnit.MILLISECONDS);
+        Timeout previous = localTimeouts.put(timerId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+        log.debug("Scheduled timer '{}' due at {}", timerId, dueAt);
+        return dueAt;
+    }
+
+    public void cancel(String type, String targetId) {
+        String timerId = timerId(type, targetId);
+        Timeout timeout = localTimeouts.remove(timerId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        roomTimerRepository.cancel(timerId);
+        log.debug("Cancelled timer '{}'", timerId);
+    }
+
+    // picks up timers whose owning node died before firing them
+    @Scheduled(fixedDelayString = "${app.timers.recovery-interval-ms:1000}")
+    public void recoverOverdueTimers() {
+        clusterLeaseService.runWithLease(TIMER_RECOVERY_JOB, lease -> {
+            Map<String, Long> overdue = roomTimerRepository.findDue(
+                    Instant.now().toEpochMilli() - recoveryGraceMs, recoveryBatchSize);
+            overdue.forEach((timerId, dueAt) -> {
+                if (!lease.owns(timerId)) return;
+                log.info("Recovering overdue timer '{}' (due {})", timerId, dueAt);
+                fire(timerId, dueAt);
+            });
+        });
+    }
+
+    public long countPending() {
+        return roomTimerRepository.countPending();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // pending timers stay in Redis and are recovered by another node
+        wheel.stop();
+        handlerExecutor.shutdown();
+    }
+
+    private void fire(String timerId, long dueAt) {
+        localTimeouts.computeIfPresent(timerId, (id, timeout) -> timeout.isExpired() ? null : timeout);
+        // the wheel thread only claims and hands off; handlers do Redis I/O and broadcasts
+        handlerExecutor.execute(() -> {
+            try {
+                if (!roomTimerRepository.claim(timerId, dueAt)) {
+                    log.debug("Timer '{}' was cancelled, rescheduled or fired elsewhere", timerId);
+                    return;
+                }
+                int separatorIndex = timerId.indexOf(TIMER_ID_SEPARATOR);
+                String type = timerId.substring(0, separatorIndex);
+                String targetId = timerId.substring(separatorIndex + 1);
+
+                Consumer<String> handler = handlers.get(type);
+                if (handler == null) {
+                    log.warn("No handler registered for timer type '{}' (timer '{}')", type, timerId);
+                    return;
+                }
+                handler.accept(targetId);
+            } catch (Exception e) {
+                log.error("Timer '{}' failed: {}", timerId, e.getMessage(), e);
+            }
+        });
+    }
+
+    private String timerId(String type, String targetId) {
+        return type + TIMER_ID_SEPARATOR + targetId;
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.BobGourmet.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.DefaultContentTypeResolver;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Per-session payload encoding. A client connecting over the plain WebSocket endpoint can send
+ * {@code payload-format: cbor} on CONNECT; its MESSAGE frames are then re-encoded from JSON to CBOR
+ * and sent as binary frames (content-type application/octet-stream plus a payload-format header).
+ * Everyone else, including all SockJS sessions, keeps JSON text frames.
+ * <p>
+ * The same clients can send {@code payload-encoding: gzip}: payloads of at least
+ * app.websocket.compression.threshold-bytes are then gzipped (binary frame plus a payload-encoding header)
+ * and smaller ones go out as before. Sessions that negotiated permessage-deflate at the handshake are already
+ * compressed by the container frame by frame and are never gzipped twice.
+ */
+@Slf4j
+@Component
+public class SessionPayloadEncoder implements ChannelInterceptor {
+
+    public static final String PAYLOAD_FORMAT_HEADER = "payload-format";
+    public static final String FORMAT_JSON = "json";
+    public static final String FORMAT_CBOR = "cbor";
+    // set by the handshake interceptor of the non-SockJS endpoint; SockJS can't carry binary frames
+    public static final String NATIVE_WEBSOCKET_ATTRIBUTE = "nativeWebSocket";
+
+    public static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    public static final String PAYLOAD_ENCODING_HEADER = "payload-encoding";
+    public static final String ENCODING_GZIP = "gzip";
+    public static final String PERMESSAGE_DEFLATE = "permessage-deflate";
+    // set when the container negotiated permessage-deflate for the session
+    public static final String PERMESSAGE_DEFLATE_ATTRIBUTE = "permessageDeflate";
+
+    private final ObjectMapper jsonMapper;
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    // sessionId -> negotiated format, only for non-JSON sessions
+    private final Map<String, String> sessionFormats = new ConcurrentHashMap<>();
+    // sessions that asked for gzip above the threshold
+    private final Set<String> gzipSessions = ConcurrentHashMap.newKeySet();
+    // the broker fans one message out to its subscribers one after another on the publishing thread, all with the
+    // same payload array; remembering the last payload per thread encodes it once per message, without a shared lock
+    private final ThreadLocal<Encoded> lastCbor = new ThreadLocal<>();
+    private final ThreadLocal<Encoded> lastGzip = new ThreadLocal<>();
+    private final int compressionThreshold;
+
+    private final DistributionSummary jsonFrameBytes;
+    private final DistributionSummary cborFrameBytes;
+    private final Timer jsonEncodeTimer;
+    private final Timer cborTranscodeTimer;
+    private final Timer gzipTimer;
+    private final DistributionSummary compressionRatio;
+    private final Counter belowThresholdCounter;
+    private final MeterRegistry meterRegistry;
+
+    public SessionPayloadEncoder(ObjectMapper jsonMapper, MeterRegistry meterRegistry,
+                                 @Value("${app.websocket.compression.threshold-bytes:1024}") int compressionThreshold) {
+        this.jsonMapper = jsonMapper;
+        this.meterRegistry = meterRegistry;
+        this.compressionThreshold = compressionThreshold;
+        this.jsonFrameBytes = DistributionSummary.builder("websocket.frame.bytes")
+                .description("Outbound MESSAGE frame payload size")
+                .baseUnit("bytes")
+                .tag("encoding", FORMAT_JSON)
+                .register(meterRegistry);
+        this.cborFrameBytes = DistributionSummary.builder("websocket.frame.bytes")
+                .description("Outbound MESSAGE frame payload size")
+                .baseUnit("bytes")
+                .tag("encoding", FORMAT_CBOR)
+                .register(meterRegistry);
+        this.jsonEncodeTimer = Timer.builder("websocket.frame.encode")
+                .description("Time to serialize an outbound payload")
+                .tag("encoding", FORMAT_JSON)
+                .register(meterRegistry);
+        this.cborTranscodeTimer = Timer.builder("websocket.frame.transcode")
+                .description("Time to transcode an outbound JSON payload to CBOR (once per broadcast, shared by its sessions)")
+                .tag("encoding", FORMAT_CBOR)
+                .register(meterRegistry);
+        this.gzipTimer = Timer.builder("websocket.frame.compress")
+                .description("CPU time to gzip an outbound payload (once per broadcast, shared by its sessions)")
+                .tag("encoding", ENCODING_GZIP)
+                .register(meterRegistry);
+        this.compressionRatio = DistributionSummary.builder("websocket.frame.compression.ratio")
+                .description("Uncompressed to compressed size of gzipped outbound frames")
+                .tag("encoding", ENCODING_GZIP)
+                .register(meterRegistry);
+        this.belowThresholdCounter = Counter.builder("websocket.frame.compression.skipped")
+                .description("Frames of gzip sessions sent uncompressed because they were below the threshold")
+                .tag("encoding", ENCODING_GZIP)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records whether the container negotiated permessage-deflate for a new WebSocket (or SockJS websocket) session.
+     */
+    public void afterConnectionEstablished(WebSocketSession session) {
+        boolean deflate = session.getExtensions().stream().anyMatch(extension -> PERMESSAGE_DEFLATE.equals(extension.getName()));
+        if (deflate) {
+            session.getAttributes().put(PERMESSAGE_DEFLATE_ATTRIBUTE, true);
+        }
+        meterRegistry.counter("websocket.sessions.compression", "mode", deflate ? PERMESSAGE_DEFLATE : "none").increment();
+    }
+
+    /**
+     * JSON converter used by the messaging template; same as the default one but timed.
+     */
+    public MessageConverter jsonConverter() {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter() {
+            @Override
+            protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+                return jsonEncodeTimer.record(() -> super.convertToInternal(payload, headers, conversionHint));
+            }
+        };
+        DefaultContentTypeResolver resolver = new DefaultContentTypeResolver();
+        resolver.setDefaultMimeType(MimeTypeUtils.APPLICATION_JSON);
+        converter.setContentTypeResolver(resolver);
+        converter.setObjectMapper(jsonMapper);
+        return converter;
+    }
+
+    /**
+     * Reads (and writes) application/cbor payloads. Strict, so it never picks up messages without that content type.
+     */
+    public MessageConverter cborConverter() {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter(APPLICATION_CBOR);
+        converter.setObjectMapper(cborMapper);
+        converter.setStrictContentTypeMatch(true);
+        return converter;
+    }
+
+    // clientInboundChannel: negotiation on CONNECT, cleanup on DISCONNECT
+    public Message<?> handleInbound(Message<?> message) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        String sessionId = accessor.getSessionId();
+        if (sessionId == null) {
+            return message;
+        }
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String requested = accessor.getFirstNativeHeader(PAYLOAD_FORMAT_HEADER);
+            Map<String, Object> attributes = accessor.getSessionAttributes();
+            boolean nativeWebSocket = attributes != null && Boolean.TRUE.equals(attributes.get(NATIVE_WEBSOCKET_ATTRIBUTE));
+            if (FORMAT_CBOR.equalsIgnoreCase(requested)) {
+                if (nativeWebSocket) {
+                    sessionFormats.put(sessionId, FORMAT_CBOR);
+                    log.debug("Session {} negotiated CBOR payloads", sessionId);
+                } else {
+                    log.debug("Session {} requested CBOR over SockJS; staying on JSON", sessionId);
+                }
+            }
+            boolean deflate = attributes != null && Boolean.TRUE.equals(attributes.get(PERMESSAGE_DEFLATE_ATTRIBUTE));
+            if (ENCODING_GZIP.equalsIgnoreCase(accessor.getFirstNativeHeader(PAYLOAD_ENCODING_HEADER))
+                    && nativeWebSocket && !deflate && compressionThreshold > 0) {
+                gzipSessions.add(sessionId);
+                meterRegistry.counter("websocket.sessions.compression", "mode", ENCODING_GZIP).increment();
+            }
+        } else if (StompCommand.DISCONNECT.equals(accessor.getCommand())) {
+            sessionFormats.remove(sessionId);
+            gzipSessions.remove(sessionId);
+        }
+        return message;
+    }
+
+    // clientOutboundChannel: re-encode MESSAGE frames for CBOR sessions, compress large ones for gzip sessions
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getMessageType() == SimpMessageType.DISCONNECT_ACK) {
+            sessionFormats.remove(accessor.getSessionId());
+            gzipSessions.remove(accessor.getSessionId());
+            return message;
+        }
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        String sessionId = accessor.getSessionId();
+        String format = sessionId != null ? sessionFormats.get(sessionId) : null;
+        MimeType contentType = accessor.getContentType();
+        boolean json = contentType != null && MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(contentType);
+        boolean cbor = FORMAT_CBOR.equals(format) && json;
+        boolean gzip = sessionId != null && gzipSessions.contains(sessionId);
+        if (!cbor && !gzip) {
+            jsonFrameBytes.record(payload.length);
+            return message;
+        }
+
+        try {
+            byte[] body = payload;
+            if (cbor) {
+                body = encodeOnce(lastCbor, payload, this::toCbor);
+                cborFrameBytes.record(body.length);
+                accessor.setNativeHeader(PAYLOAD_FORMAT_HEADER, FORMAT_CBOR);
+            } else {
+                jsonFrameBytes.record(payload.length);
+                if (json) accessor.setNativeHeader(PAYLOAD_FORMAT_HEADER, FORMAT_JSON);
+            }
+            if (gzip) {
+                if (body.length >= compressionThreshold) {
+                    body = encodeOnce(lastGzip, body, this::toGzip);
+                    accessor.setNativeHeader(PAYLOAD_ENCODING_HEADER, ENCODING_GZIP);
+                } else {
+                    belowThresholdCounter.increment();
+                }
+            }
+            if (body == payload) {
+                return message;
+            }
+            accessor.setContentType(MimeTypeUtils.APPLICATION_OCTET_STREAM); // makes the STOMP handler send a binary frame
+            return MessageBuilder.createMessage(body, accessor.getMessageHeaders());
+        } catch (Exception e) {
+            log.warn("Payload encoding failed for session {}, sending JSON: {}", sessionId, e.getMessage());
+            return message;
+        }
+    }
+
+    private byte[] encodeOnce(ThreadLocal<Encoded> last, byte[] source, UnaryOperator<byte[]> encoder) {
+        Encoded encoded = last.get();
+        if (encoded == null || encoded.source() != source) {
+            encoded = new Encoded(source, encoder.apply(source));
+            last.set(encoded);
+        }
+        return encoded.body();
+    }
+
+    private byte[] toGzip(byte[] body) {
+        byte[] compressed = gzipTimer.record(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 32);
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                gzipOut.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        });
+        compressionRatio.record((double) body.length / compressed.length);
+        return compressed;
+    }
+
+    // the broker only holds the JSON bytes, so tokens are streamed from them straight into CBOR, without a tree
+    private byte[] toCbor(byte[] json) {
+        return cborTranscodeTimer.record(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length);
+            try (JsonParser parser = jsonMapper.getFactory().createParser(json);
+                 JsonGenerator generator = cborMapper.getFactory().createGenerator(out)) {
+                parser.nextToken();
+                generator.copyCurrentStructure(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return out.toByteArray();
+        });
+    }
+
+    // source is compared by identity: the same array means the same broker message
+    private record Encoded(byte[] source, byte[] body) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.BobGourmet.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors and metrics for the STOMP client inbound and outbound channels.
+ * Each channel runs on a bounded thread pool sized from app.websocket.channel.{inbound|outbound}.*, or on
+ * virtual threads when app.websocket.channel.virtual-threads is set. A full pool runs the task on the sending
+ * thread instead of dropping it, which pushes back on the WebSocket reader (inbound) or the broker (outbound).
+ * <p>
+ * Metrics per channel: queue wait (submit to start of handling), handling time tagged with message type and
+ * normalized destination (its count is the throughput), pool gauges and caller-runs fallbacks.
+ */
+@Slf4j
+@Component
+public class StompChannelExecutors {
+
+    public static final String INBOUND = "inbound";
+    public static final String OUTBOUND = "outbound";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean virtualThreads;
+    private final InstrumentedChannel inbound;
+    private final InstrumentedChannel outbound;
+
+    public StompChannelExecutors(MeterRegistry meterRegistry, Environment environment,
+                                 @Value("${app.websocket.channel.virtual-threads:false}") boolean virtualThreads) {
+        this.meterRegistry = meterRegistry;
+        this.virtualThreads = virtualThreads;
+        this.inbound = new InstrumentedChannel(INBOUND, environment);
+        this.outbound = new InstrumentedChannel(OUTBOUND, environment);
+        log.info("STOMP channel executors: {}", virtualThreads ? "virtual threads" : "platform thread pools");
+    }
+
+    public TaskExecutor inboundExecutor() {
+        return inbound.executor;
+    }
+
+    public TaskExecutor outboundExecutor() {
+        return outbound.executor;
+    }
+
+    public ExecutorChannelInterceptor inboundInterceptor() {
+        return inbound.interceptor;
+    }
+
+    public ExecutorChannelInterceptor outboundInterceptor() {
+        return outbound.interceptor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        inbound.delegate.shutdown();
+        outbound.delegate.shutdown();
+    }
+
+    // room ids, menu keys and per-session user suffixes would give every room its own time series
+    static String destinationTag(String destination) {
+        if (destination == null) {
+            return "none";
+        }
+        return destination
+                .replaceAll("-user[^/]+$", "")
+                .replaceAll("/(room|rooms)/[^/]+", "/$1/{id}")
+                .replaceAll("/menus/[^/]+/", "/menus/{key}/");
+    }
+
+    private class InstrumentedChannel {
+
+        private final String channel;
+        private final ExecutorService delegate;
+        private final TaskExecutor executor;
+        private final ExecutorChannelInterceptor interceptor;
+        private final Timer queueWaitTimer;
+        private final Counter callerRunsCounter;
+        // handling start per thread; beforeHandle and afterMessageHandled run on the same executor thread
+        private final ThreadLocal<Long> handleStartedAt = new ThreadLocal<>();
+
+        InstrumentedChannel(String channel, Environment environment) {
+            this.channel = channel;
+            this.queueWaitTimer = Timer.builder("websocket.channel.queue.wait")
+                    .description("Time a STOMP message waits for a channel executor thread")
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+            this.callerRunsCounter = Counter.builder("websocket.channel.caller.runs")
+                    .description("Messages handled on the sending thread because the channel pool was full")
+                    .tag("channel", channel)
+                    .register(meterRegistry);
+
+            if (virtualThreads) {
+                this.delegate = Executors.newThreadPerTaskExecutor(
+                        Thread.ofVirtual().name("ws-" + channel + "-", 0).factory());
+            } else {
+                String prefix = "app.websocket.channel." + channel + ".";
+                int cores = Runtime.getRuntime().availableProcessors();
+                int corePoolSize = environment.getProperty(prefix + "core-pool-size", Integer.class, cores * 2);
+                int maxPoolSize = Math.max(corePoolSize, environment.getProperty(prefix + "max-pool-size", Integer.class, cores * 8));
+                int queueCapacity = environment.getProperty(prefix + "queue-capacity", Integer.class, 10000);
+                long keepAliveSeconds = environment.getProperty(prefix + "keep-alive-seconds", Long.class, 60L);
+
+                AtomicInteger threadCount = new AtomicInteger();
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(corePoolSize, maxPoolSize, keepAliveSeconds, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                            Thread thread = new Thread(runnable, "ws-" + channel + "-" + threadCount.getAndIncrement());
+                            thread.setDaemon(true);
+                            return thread;
+                        }, (task, executor) -> {
+                            if (executor.isShutdown()) return;
+                            callerRunsCounter.increment();
+                            task.run();
+                        });
+                pool.allowCoreThreadTimeOut(true);
+                this.delegate = pool;
+
+                Gauge.builder("websocket.channel.pool.active", pool, ThreadPoolExecutor::getActiveCount)
+                        .description("Channel executor threads handling a message")
+                        .tag("channel", channel)
+                        .register(meterRegistry);
+                Gauge.builder("websocket.channel.pool.size", pool, ThreadPoolExecutor::getPoolSize)
+                        .description("Channel executor threads alive")
+                        .tag("channel", channel)
+                        .register(meterRegistry);
+                Gauge.builder("websocket.channel.queue.depth", pool, p -> p.getQueue().size())
+                        .description("STOMP messages waiting for a channel executor thread")
+                        .tag("channel", channel)
+                        .register(meterRegistry);
+                log.info("STOMP {} channel pool: core={}, max={}, queue={}", channel, corePoolSize, maxPoolSize, queueCapacity);
+            }
+
+            // the submit time travels with the task, so the wait is measured without any per-message bookkeeping;
+            // a TaskExecutor because the broker stats bean looks the channel executors up by that type
+            this.executor = task -> {
+                long submittedAt = System.nanoTime();
+                delegate.execute(() -> {
+                    queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                    task.run();
+                });
+            };
+            this.interceptor = new HandlingTimer();
+        }
+
+        private class HandlingTimer implements ExecutorChannelInterceptor {
+
+            @Override
+            public Message<?> beforeHandle(Message<?> message, MessageChannel messageChannel, MessageHandler handler) {
+                handleStartedAt.set(System.nanoTime());
+                return message;
+            }
+
+            @Override
+            public void afterMessageHandled(Message<?> message, MessageChannel messageChannel, MessageHandler handler, Exception ex) {
+                Long startedAt = handleStartedAt.get();
+                if (startedAt == null) {
+                    return;
+                }
+                handleStartedAt.remove();
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+                SimpMessageType type = accessor.getMessageType();
+                Timer.builder("websocket.channel.handle")
+                        .description("Time to handle a STOMP message on its channel; the count is the throughput")
+                        .tag("channel", channel)
+                        .tag("type", type != null ? type.name() : "OTHER")
+                        .tag("destination", destinationTag(accessor.getDestination()))
+                        .tag("outcome", ex == null ? "success" : "error")
+                        .register(meterRegistry)
+                        .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
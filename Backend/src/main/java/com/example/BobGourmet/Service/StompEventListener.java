@@ -1,50 +1,101 @@
 package com.example.BobGourmet.Service;
 
-import com.example.BobGourmet.DTO.MenuDTO.MenuStatus;
-import com.example.BobGourmet.DTO.RoomDTO.RoomDetails;
+import com.example.BobGourmet.DTO.RoomDTO.RoomSnapshot;
 import com.example.BobGourmet.DTO.WebSocketMessage;
+import com.example.BobGourmet.Exception.RoomException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.messaging.SessionConnectedEvent;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
 import java.security.Principal;
+import java.util.Set;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class StompEventListener {
 
-    private final SimpMessageSendingOperations messagingTemplate;
     private final MatchroomService matchroomService;
-    private final MenuService menuService;
+    private final RoomSnapshotCache roomSnapshotCache;
+    private final RoomTimerService roomTimerService;
+    private final WebSocketSessionRegistry sessionRegistry;
+
+    public static final String DISCONNECT_GRACE_TIMER = "disconnect_grace";
+    // details, menu status and the version they're at, in one message; room deltas with a higher version apply on top
+    public static final String ROOM_SNAPSHOT_EVENT_TYPE = "ROOM_SNAPSHOT";
+
+    // a page refresh or a short network blip shouldn't run a full leave (which closes the room if the user is host)
+    @Value("${app.websocket.reconnect-grace-ms:15000}")
+    private long reconnectGraceMs;
+
+    @PostConstruct
+    public void registerGraceTimerHandler() {
+        roomTimerService.registerHandler(DISCONNECT_GRACE_TIMER, username -> {
+            // the timer can fire on any node, and the user may have reconnected to another one
+            if (sessionRegistry.hasLocalSessions(username) || sessionRegistry.countUserSessions(username) > 0) {
+                log.debug("User '{}' reconnected before grace expired. Skipping leave.", username);
+                return;
+            }
+            log.info("Reconnect grace expired for user '{}'. Leaving room.", username);
+            matchroomService.handleDisconnect(username);
+        });
+    }
 
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectedEvent event) {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
+
+        if(event.getUser() != null && headerAccessor.getSessionId() != null) {
+            sessionRegistry.registerSession(headerAccessor.getSessionId(), event.getUser().getName());
+        }
+    }
+
+    @EventListener
+    public void handleWebSocketSubscribeListener(SessionSubscribeEvent event) {
+        StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
         Principal userPrincipal = headerAccessor.getUser();
         String destination = headerAccessor.getDestination();
 
-        if(userPrincipal == null || destination == null) {
+        if(userPrincipal == null || destination == null || !destination.startsWith("/topic/room/")) {
+            return;
+        }
+        // resubscribing to the room within the grace window cancels the pending leave (on whichever node it was scheduled)
+        String username = userPrincipal.getName();
+        String roomId = extractRoomIdFromDestination(destination);
+        if(roomId == null) {
             return;
-        }if(destination.startsWith("/topic/room/") && destination.endsWith("/events")){
-            String roomId = extractRoomIdFromDestination(destination);
-            if(roomId != null) {
-                log.info("User {} subscribed to room {}. Sending initial state.", userPrincipal.getName(), roomId);
-
-                RoomDetails roomDetails = matchroomService.buildRoomDetails(roomId);
-                WebSocketMessage<RoomDetails> roomStateMessage = new WebSocketMessage<>("ROOM_STATE_UPDATE", roomDetails);
-                messagingTemplate.convertAndSendToUser(userPrincipal.getName(), "/queue/events", roomStateMessage);
-
-                MenuStatus menuStatus = menuService.buildMenuStatus(roomId);
-                WebSocketMessage<MenuStatus> menuStatusMessage = new WebSocketMessage<>("MENU_STATUS_UPDATE", menuStatus);
-                messagingTemplate.convertAndSendToUser(userPrincipal.getName(), "/queue/events", menuStatusMessage);
+        }
+        if(!matchroomService.isUserInMatchroom(username, roomId)) {
+            // spectators of a large room get the same initial state, read-only
+            if(destination.endsWith("/events") && matchroomService.isLargeRoom(roomId)) {
+                sendInitialState(username, headerAccessor.getSessionId(), roomId);
             }
+            return;
+        }
+        roomTimerService.cancel(DISCONNECT_GRACE_TIMER, username);
 
+        // initial state once per room join: served from the version-keyed cache, so a burst of subscribers costs one build
+        if(destination.endsWith("/events")) {
+            sendInitialState(username, headerAccessor.getSessionId(), roomId);
+        }
+    }
+
+    // only to the subscribing session; the user's other sessions keep their state
+    private void sendInitialState(String username, String sessionId, String roomId) {
+        try {
+            RoomSnapshot snapshot = roomSnapshotCache.get(roomId);
+            log.debug("User {} subscribed to room {}. Sending initial state v{}.", username, roomId, snapshot.getVersion());
+            sessionRegistry.sendToSession(username, sessionId, "/queue/events",
+                    new WebSocketMessage<>(ROOM_SNAPSHOT_EVENT_TYPE, snapshot));
+        } catch (RoomException e) {
+            log.debug("No initial state for room {}: {}", roomId, e.getMessage());
         }
     }
 
@@ -53,10 +104,35 @@ public class StompEventListener {
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
         Principal userPrincipal = headerAccessor.getUser();
 
-        if(userPrincipal != null){
-            String username = userPrincipal.getName();
+        if(userPrincipal == null){
+            return;
+        }
+        String username = userPrincipal.getName();
+
+        // disconnect events can be published more than once per session; a repeat must not schedule the leave again
+        if(!sessionRegistry.unregisterSession(event.getSessionId())) {
+            log.debug("Disconnect of session {} ('{}') was already handled.", event.getSessionId(), username);
+            return;
+        }
+        // only the last open session counts
+        if(sessionRegistry.hasLocalSessions(username)) {
+            log.debug("User '{}' still has open session(s).", username);
+            return;
+        }
+
+        if(reconnectGraceMs <= 0) {
             matchroomService.handleDisconnect(username);
+            return;
         }
+        if(matchroomService.findRoomIdByUser(username).isEmpty()) {
+            return;
+        }
+        roomTimerService.schedule(DISCONNECT_GRACE_TIMER, username, reconnectGraceMs);
+        log.info("User '{}' disconnected. Leave scheduled in {} ms unless they reconnect.", username, reconnectGraceMs);
+    }
+
+    public Set<String> getLocallyConnectedUsers() {
+        return sessionRegistry.getLocalUsers();
     }
 
     private String extractRoomIdFromDestination(String destination) {
@@ -0,0 +1,121 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.DTO.RoomDTO.RoomDetails;
+import com.example.BobGourmet.DTO.RoomDTO.RoundSettingsRequest;
+import com.example.BobGourmet.Exception.RoomException;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// reacts to the per-room round timers: input deadline and end of result viewing
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TimedRoundService {
+
+    private final MatchRoomRepository matchRoomRepository;
+    private final RoomTimerService roomTimerService;
+    private final RoomStateService roomStateService;
+    private final MatchroomService matchroomService;
+    private final MenuService menuService;
+    private final RoomEventPublisher roomEventPublisher;
+
+    @PostConstruct
+    public void registerTimerHandlers() {
+        roomTimerService.registerHandler(RoomStateService.INPUT_DEADLINE_TIMER, this::onInputDeadline);
+        roomTimerService.registerHandler(RoomStateService.RESULT_VIEW_TIMER, this::onResultViewEnd);
+    }
+
+    public RoomDetails updateRoundSettings(String username, String roomId, RoundSettingsRequest request) {
+        Map<String, String> details = matchRoomRepository.getRoomDetailsMap(roomId);
+        if (details.isEmpty()) {
+            throw new RoomException("방 '" + roomId + "'을(를) 찾을 수 없습니다.");
+        }
+        if (!username.equals(details.get("hostUsername"))) {
+            throw new RoomException("호스트만 라운드 설정을 변경할 수 있습니다.");
+        }
+
+        roomStateService.saveRoundSettings(roomId, request.getInputDeadlineSeconds(),
+                request.getResultViewSeconds(), request.getDeadlineAction());
+        if ("inputting".equals(details.get("state"))) {
+            roomStateService.armInputDeadline(roomId);
+        }
+        log.info("Round settings updated for room '{}' by host '{}': {}", roomId, username, request);
+
+        RoomDetails roomDetails = matchroomService.buildRoomDetails(roomId);
+        Map<String, Object> data = new HashMap<>();
+        data.put("inputDeadlineSeconds", roomDetails.getInputDeadlineSeconds());
+        data.put("resultViewSeconds", roomDetails.getResultViewSeconds());
+        data.put("roundDeadline", roomDetails.getRoundDeadline());
+        roomEventPublisher.publishDelta(roomId, RoomEventPublisher.OP_ROUND_SETTINGS_CHANGED, data);
+        matchroomService.broadcastRoomStateUpdate(roomId, roomDetails.getState(), roomDetails);
+        return roomDetails;
+    }
+
+    void onInputDeadline(String roomId) {
+        Map<String, String> details = matchRoomRepository.getRoomDetailsMap(roomId);
+        String state = details.get("state");
+        if (!"inputting".equals(state) && !"submitted".equals(state)) {
+            log.debug("Input deadline for room '{}' ignored in state '{}'", roomId, state);
+            return;
+        }
+
+        String action = details.getOrDefault("deadlineAction", RoomStateService.DEADLINE_ACTION_DRAW);
+        if (RoomStateService.DEADLINE_ACTION_SUBMIT.equals(action)) {
+            autoSubmit(roomId);
+        } else {
+            autoDraw(roomId);
+        }
+    }
+
+    void onResultViewEnd(String roomId) {
+        if (!"result_viewing".equals(matchRoomRepository.getRoomState(roomId))) {
+            return;
+        }
+        log.info("Result viewing window ended for room '{}'. Starting next round.", roomId);
+        roomStateService.startMenuInput(roomId);
+        matchroomService.broadcastRoomStateUpdate(roomId, "inputting");
+        menuService.publishMenuStatus(roomId);
+    }
+
+    // users who haven't submitted are marked as done so the host can draw right away
+    private void autoSubmit(String roomId) {
+        Map<String, Boolean> submitStatus = matchRoomRepository.getRoomSubmitStatus(roomId);
+        for (String user : matchRoomRepository.getRoomUsers(roomId)) {
+            if (!submitStatus.getOrDefault(user, false)) {
+                matchRoomRepository.updateUserSubmitStatus(roomId, user, true);
+                roomEventPublisher.publishDelta(roomId, RoomEventPublisher.OP_MENUS_SUBMITTED,
+                        Map.of("username", user, "submitted", true));
+            }
+        }
+        // deadline cleared first, so the STATE_CHANGED delta (and the version it bumps) covers it
+        matchRoomRepository.saveRoundDeadline(roomId, null);
+        roomStateService.allMenusSubmitted(roomId);
+        log.info("Input deadline reached in room '{}'. Remaining users auto-submitted.", roomId);
+
+        matchroomService.broadcastRoomStateUpdate(roomId, "submitted");
+        menuService.publishMenuStatus(roomId);
+    }
+
+    private void autoDraw(String roomId) {
+        Optional<Map<String, Object>> drawResult = menuService.drawForRoom(roomId);
+        if (drawResult.isEmpty()) {
+            log.info("Input deadline reached in room '{}' with nothing to draw. Restarting menu input.", roomId);
+            roomStateService.startMenuInput(roomId);
+            matchroomService.broadcastRoomStateUpdate(roomId, "inputting");
+            return;
+        }
+
+        String selectedMenu = (String) drawResult.get().get("selectedMenu");
+        long timestamp = (long) drawResult.get().get("timestamp");
+        roomStateService.startResultViewing(roomId, selectedMenu, timestamp);
+        log.info("Input deadline reached in room '{}'. Auto-drew '{}'.", roomId, selectedMenu);
+        matchroomService.broadcastRoomStateUpdate(roomId, "result_viewing");
+    }
+}
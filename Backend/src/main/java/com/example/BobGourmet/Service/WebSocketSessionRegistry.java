@@ -0,0 +1,275 @@
+package com.example.BobGourmet.Service;
+
+import com.example.BobGourmet.DTO.ClusterDTO.UserMessageEnvelope;
+import com.example.BobGourmet.Repository.SessionDirectoryRepository;
+import com.example.BobGourmet.utils.ClusterNodeId;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebSocket sessions of this node (in memory) and of the cluster (Redis directory).
+ * Tracks which node holds each session of a user, so {@link #sendToUser} can hand a message straight to the
+ * owning nodes over their node channel instead of relying on the broker to find the user. Room subscriptions are
+ * counted per node in Redis, so a room's connected-session count is one pipelined read per live node.
+ * A user's directory entry is a hash with a 24h TTL; entries left by dead nodes are dropped whenever the user is looked up.
+ * <p>
+ * Connect and disconnect are reported by {@link StompEventListener}, whose reconnect grace logic depends on
+ * the local index being updated first; room subscriptions are tracked here directly.
+ */
+@Slf4j
+@Service
+public class WebSocketSessionRegistry {
+
+    private static final String NODE_CHANNEL_PREFIX = "ws:node:";
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+
+    private final SessionDirectoryRepository sessionDirectoryRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+    private final long nodeExpiryMs;
+    // relay: the external broker resolves user destinations cluster-wide on its own
+    private final boolean brokerResolvesUsers;
+
+    // sessionId -> session; username -> local session ids
+    private final Map<String, LocalSession> localSessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> localUserSessions = new ConcurrentHashMap<>();
+
+    public WebSocketSessionRegistry(SessionDirectoryRepository sessionDirectoryRepository,
+                                    StringRedisTemplate stringRedisTemplate,
+                                    SimpMessagingTemplate messagingTemplate,
+                                    RedisMessageListenerContainer listenerContainer,
+                                    ObjectMapper objectMapper,
+                                    ClusterNodeId clusterNodeId,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.websocket.registry.node-expiry-ms:15000}") long nodeExpiryMs,
+                                    @Value("${app.websocket.broker:simple}") String brokerMode) {
+        this.sessionDirectoryRepository = sessionDirectoryRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.nodeId = clusterNodeId.getNodeId();
+        this.nodeExpiryMs = nodeExpiryMs;
+        this.brokerResolvesUsers = "relay".equals(brokerMode);
+
+        listenerContainer.addMessageListener((message, pattern) -> deliverForwarded(message.getBody()),
+                new ChannelTopic(NODE_CHANNEL_PREFIX + nodeId));
+
+        Gauge.builder("websocket.sessions.local", localSessions, Map::size)
+                .description("STOMP sessions connected to this node")
+                .register(meterRegistry);
+        Gauge.builder("websocket.users.local", localUserSessions, Map::size)
+                .description("Users with at least one STOMP session on this node")
+                .register(meterRegistry);
+    }
+
+    public void registerSession(String sessionId, String username) {
+        localSessions.put(sessionId, new LocalSession(username, new ConcurrentHashMap<>()));
+        localUserSessions.computeIfAbsent(username, name -> ConcurrentHashMap.newKeySet()).add(sessionId);
+        try {
+            sessionDirectoryRepository.addUserSession(username, sessionId, nodeId);
+        } catch (Exception e) {
+            log.warn("Failed to register session {} of '{}' in the directory: {}", sessionId, username, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes a session of this node. Disconnect events can arrive more than once; returns false for a session
+     * that is unknown or already removed, so callers handle each disconnect once.
+     */
+    public boolean unregisterSession(String sessionId) {
+        LocalSession session = localSessions.remove(sessionId);
+        if (session == null) {
+            return false;
+        }
+        localUserSessions.computeIfPresent(session.username(), (name, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+        try {
+            sessionDirectoryRepository.removeUserSession(session.username(), sessionId);
+            session.roomSubscriptions().values().forEach(roomId -> sessionDirectoryRepository.incrementRoomSessions(nodeId, roomId, -1));
+        } catch (Exception e) {
+            log.warn("Failed to remove session {} from the directory: {}", sessionId, e.getMessage());
+        }
+        return true;
+    }
+
+    public boolean hasLocalSessions(String username) {
+        return localUserSessions.containsKey(username);
+    }
+
+    public Set<String> getLocalUsers() {
+        return Set.copyOf(localUserSessions.keySet());
+    }
+
+    // sessions of the user on live nodes, this one included
+    public int countUserSessions(String username) {
+        return liveUserSessions(username).size();
+    }
+
+    public long countRoomSessions(String roomId) {
+        Set<String> nodes = liveNodes();
+        nodes.add(nodeId);
+        return sessionDirectoryRepository.countRoomSessions(roomId, nodes);
+    }
+
+    /**
+     * Sends to every session of the user, wherever it is connected. Local sessions are served by the local broker;
+     * each other node holding a session gets one forwarded copy.
+     */
+    public void sendToUser(String username, String destination, Object payload) {
+        if (brokerResolvesUsers) {
+            messagingTemplate.convertAndSendToUser(username, destination, payload);
+            return;
+        }
+        if (hasLocalSessions(username)) {
+            messagingTemplate.convertAndSendToUser(username, destination, payload);
+        }
+
+        Set<String> remoteNodes;
+        try {
+            remoteNodes = new HashSet<>(liveUserSessions(username).values());
+            remoteNodes.remove(nodeId);
+        } catch (Exception e) {
+            log.warn("Session directory lookup for '{}' failed: {}", username, e.getMessage());
+            return;
+        }
+        if (remoteNodes.isEmpty()) {
+            return;
+        }
+        try {
+            String envelope = objectMapper.writeValueAsString(
+                    new UserMessageEnvelope(username, destination, objectMapper.writeValueAsString(payload)));
+            remoteNodes.forEach(node -> stringRedisTemplate.convertAndSend(NODE_CHANNEL_PREFIX + node, envelope));
+        } catch (Exception e) {
+            log.warn("Failed to forward {} for '{}' to nodes {}: {}", destination, username, remoteNodes, e.getMessage());
+        }
+    }
+
+    /**
+     * Sends to one session of this node only, e.g. the state a session asked for by subscribing.
+     * The user's other sessions (other tabs, other nodes) already have it.
+     */
+    public void sendToSession(String username, String sessionId, String destination, Object payload) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(username, destination, payload, headers.getMessageHeaders());
+    }
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        String destination = accessor.getDestination();
+        LocalSession session = accessor.getSessionId() != null ? localSessions.get(accessor.getSessionId()) : null;
+        // one counted subscription per session and room: the room's events topic
+        if (session == null || accessor.getSubscriptionId() == null || destination == null
+                || !destination.startsWith(ROOM_TOPIC_PREFIX) || !destination.endsWith("/events")) {
+            return;
+        }
+        String[] parts = destination.split("/");
+        if (parts.length < 4) return;
+        String roomId = parts[3];
+        if (session.roomSubscriptions().put(accessor.getSubscriptionId(), roomId) == null) {
+            sessionDirectoryRepository.incrementRoomSessions(nodeId, roomId, 1);
+        }
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        LocalSession session = accessor.getSessionId() != null ? localSessions.get(accessor.getSessionId()) : null;
+        if (session == null || accessor.getSubscriptionId() == null) return;
+        String roomId = session.roomSubscriptions().remove(accessor.getSubscriptionId());
+        if (roomId != null) {
+            sessionDirectoryRepository.incrementRoomSessions(nodeId, roomId, -1);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.websocket.registry.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        try {
+            sessionDirectoryRepository.refreshNode(nodeId, System.currentTimeMillis(), nodeExpiryMs);
+        } catch (Exception e) {
+            log.warn("Session registry heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        try {
+            sessionDirectoryRepository.removeNode(nodeId);
+        } catch (Exception e) {
+            log.debug("Failed to remove node {} from the session directory: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private Set<String> liveNodes() {
+        return new HashSet<>(sessionDirectoryRepository.getLiveNodes(System.currentTimeMillis() - nodeExpiryMs));
+    }
+
+    /**
+     * sessionId -> nodeId of the user's sessions that still exist. Entries of nodes that stopped heartbeating,
+     * and of this node's sessions it no longer holds (a missed disconnect), are removed from the directory on the way.
+     */
+    private Map<String, String> liveUserSessions(String username) {
+        Map<String, String> sessions = sessionDirectoryRepository.getUserSessions(username);
+        if (sessions.isEmpty()) {
+            return sessions;
+        }
+        Set<String> liveNodes = liveNodes();
+        List<String> stale = sessions.entrySet().stream()
+                .filter(entry -> entry.getValue().equals(nodeId)
+                        ? !localSessions.containsKey(entry.getKey())
+                        : !liveNodes.contains(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!stale.isEmpty()) {
+            sessionDirectoryRepository.removeUserSessions(username, stale);
+            stale.forEach(sessions::remove);
+            log.debug("Removed {} stale directory session(s) of '{}'", stale.size(), username);
+        }
+        return sessions;
+    }
+
+    private void deliverForwarded(byte[] body) {
+        try {
+            UserMessageEnvelope envelope = objectMapper.readValue(new String(body, StandardCharsets.UTF_8), UserMessageEnvelope.class);
+            if (!hasLocalSessions(envelope.getUsername())) {
+                return; // the session moved or closed since the lookup
+            }
+            messagingTemplate.convertAndSendToUser(envelope.getUsername(), envelope.getDestination(),
+                    objectMapper.readTree(envelope.getPayloadJson()));
+        } catch (Exception e) {
+            log.warn("Failed to deliver forwarded user message: {}", e.getMessage());
+        }
+    }
+
+    // subscriptionId -> roomId for the counted room subscriptions of the session
+    private record LocalSession(String username, Map<String, String> roomSubscriptions) {
+    }
+}
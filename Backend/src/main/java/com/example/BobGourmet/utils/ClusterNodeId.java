@@ -0,0 +1,37 @@
+package com.example.BobGourmet.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.util.UUID;
+
+@Slf4j
+@Component
+public class ClusterNodeId {
+
+    private final String nodeId;
+
+    public ClusterNodeId(@Value("${app.cluster.node-id:}") String configuredNodeId) {
+        if (configuredNodeId != null && !configuredNodeId.isBlank()) {
+            this.nodeId = configuredNodeId;
+        } else {
+            // Cloud Run instances have no stable name, so hostname + random suffix keeps restarts distinguishable
+            this.nodeId = resolveHostName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        }
+        log.info("Cluster node id: {}", nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private String resolveHostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "node";
+        }
+    }
+}
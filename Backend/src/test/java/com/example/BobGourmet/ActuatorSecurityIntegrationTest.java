@@ -0,0 +1,70 @@
+package com.example.BobGourmet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Health is public for probes; the cluster endpoints (leases, roomtraffic) only answer configured operators.
+ */
+@Testcontainers
+@SpringBootTest(properties = "app.admin.usernames=ops-admin")
+class ActuatorSecurityIntegrationTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    @DisplayName("헬스 체크는 인증 없이 응답")
+    void health_IsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    @WithMockUser(username = "player")
+    @DisplayName("일반 사용자는 클러스터 엔드포인트에 접근할 수 없음")
+    void clusterEndpoints_DeniedToRegularUsers() throws Exception {
+        mockMvc.perform(get("/actuator/leases")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/roomtraffic")).andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(username = "ops-admin")
+    @DisplayName("설정된 운영자는 클러스터 엔드포인트를 조회")
+    void clusterEndpoints_AllowedToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/leases")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/roomtraffic")).andExpect(status().isOk());
+    }
+}
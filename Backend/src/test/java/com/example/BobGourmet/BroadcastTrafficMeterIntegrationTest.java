@@ -0,0 +1,125 @@
+package com.example.BobGourmet;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 브로커 채널 발행 집계와 세션별 전달 집계가 실제 STOMP 세션 기준으로 맞는지 확인한다.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BroadcastTrafficMeterIntegrationTest {
+
+    private static final int SUBSCRIBERS = 3;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(session -> {
+            if (session.isConnected()) session.disconnect();
+        });
+    }
+
+    @Test
+    @DisplayName("구독자 N명인 방에 한 번 발행하면 발행 1건, 전달 N건으로 집계")
+    void onePublish_CountsOneMessageAndNDeliveries() throws Exception {
+        // given: 같은 방 델타를 구독한 세션 N개
+        String destination = "/topic/room/traffic-room/deltas";
+        AtomicReference<CountDownLatch> received = new AtomicReference<>(new CountDownLatch(SUBSCRIBERS));
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            StompSession session = stompClient.connectAsync("ws://localhost:" + port + "/ws-BobGourmet-native",
+                    new WebSocketHttpHeaders(), new StompHeaders(), new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+            sessions.add(session);
+            session.subscribe(destination, new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    received.get().countDown();
+                }
+            });
+        }
+
+        // 구독이 모두 등록될 때까지 워밍업 메시지를 반복
+        boolean subscribed = false;
+        for (int attempt = 0; attempt < 20 && !subscribed; attempt++) {
+            received.set(new CountDownLatch(SUBSCRIBERS));
+            messagingTemplate.convertAndSend(destination, Map.of("marker", "warmup"));
+            subscribed = received.get().await(500, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(subscribed, "모든 세션이 구독을 마치지 못했습니다.");
+        Thread.sleep(200); // 늦게 도착한 워밍업 복사본이 집계를 마치도록
+
+        double messagesBefore = count("websocket.broadcast.messages");
+        double deliveriesBefore = count("websocket.broadcast.deliveries");
+
+        // when
+        received.set(new CountDownLatch(SUBSCRIBERS));
+        messagingTemplate.convertAndSend(destination, Map.of("marker", "measured"));
+
+        // then
+        assertTrue(received.get().await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, count("websocket.broadcast.messages") - messagesBefore);
+        assertEquals(SUBSCRIBERS, count("websocket.broadcast.deliveries") - deliveriesBefore);
+    }
+
+    private double count(String name) {
+        Counter counter = meterRegistry.find(name).tag("type", "deltas").counter();
+        return counter != null ? counter.count() : 0.0;
+    }
+}
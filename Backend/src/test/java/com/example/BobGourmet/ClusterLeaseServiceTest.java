@@ -0,0 +1,112 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Repository.LeaseRepository;
+import com.example.BobGourmet.Service.ClusterLeaseService;
+import com.example.BobGourmet.utils.ClusterNodeId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ClusterLeaseServiceTest {
+
+    @Mock
+    private LeaseRepository leaseRepository;
+
+    private ClusterLeaseService newService(int shards, int maxShardsPerNode) {
+        return new ClusterLeaseService(leaseRepository, new ClusterNodeId("node-a"), 15000, shards, maxShardsPerNode);
+    }
+
+    @Test
+    @DisplayName("리스를 획득한 노드만 작업을 실행")
+    void runWithLease_RunsOnlyWhenAcquired() {
+        // given
+        ClusterLeaseService service = newService(1, 0);
+        when(leaseRepository.tryAcquire(eq("job:test:shard-0"), eq("node-a"), anyLong())).thenReturn(7L);
+
+        // when
+        List<Long> tokens = new ArrayList<>();
+        int processed = service.runWithLease("job:test", lease -> tokens.add(lease.getFencingToken()));
+
+        // then
+        assertEquals(1, processed);
+        assertEquals(List.of(7L), tokens);
+        assertTrue(service.getHeldLeaseNames().contains("job:test:shard-0"));
+    }
+
+    @Test
+    @DisplayName("다른 노드가 리스를 보유 중이면 작업을 건너뜀")
+    void runWithLease_SkipsWhenHeldElsewhere() {
+        // given
+        ClusterLeaseService service = newService(1, 0);
+        when(leaseRepository.tryAcquire(anyString(), anyString(), anyLong())).thenReturn(-1L);
+
+        // when
+        int processed = service.runWithLease("job:test", lease -> fail("task must not run"));
+
+        // then
+        assertEquals(0, processed);
+        assertTrue(service.getHeldLeaseNames().isEmpty());
+    }
+
+    @Test
+    @DisplayName("샤드 모드에서 각 샤드는 서로 겹치지 않는 방을 소유")
+    void runWithLease_ShardsOwnDisjointRooms() {
+        // given
+        ClusterLeaseService service = newService(4, 0);
+        when(leaseRepository.tryAcquire(anyString(), eq("node-a"), anyLong())).thenReturn(1L);
+        List<String> roomIds = List.of("room-a1b2c3", "room-d4e5f6", "room-112233", "room-abcdef", "room-999999");
+
+        // when
+        List<String> owned = new ArrayList<>();
+        int processed = service.runWithLease("job:test", lease ->
+                roomIds.stream().filter(lease::owns).forEach(owned::add));
+
+        // then: every room is processed by exactly one shard
+        assertEquals(4, processed);
+        assertEquals(roomIds.size(), owned.size());
+        assertTrue(owned.containsAll(roomIds));
+    }
+
+    @Test
+    @DisplayName("노드당 최대 샤드 수를 넘겨 획득하지 않음")
+    void runWithLease_RespectsMaxShardsPerNode() {
+        // given
+        ClusterLeaseService service = newService(4, 2);
+        when(leaseRepository.tryAcquire(anyString(), eq("node-a"), anyLong())).thenReturn(1L);
+
+        // when
+        int processed = service.runWithLease("job:test", lease -> { });
+
+        // then
+        assertEquals(2, processed);
+        verify(leaseRepository, times(2)).tryAcquire(anyString(), eq("node-a"), anyLong());
+    }
+
+    @Test
+    @DisplayName("갱신 실패 시 보유 리스 목록에서 제거")
+    void renewHeldLeases_DropsLostLease() {
+        // given
+        ClusterLeaseService service = newService(1, 0);
+        when(leaseRepository.tryAcquire(anyString(), eq("node-a"), anyLong())).thenReturn(3L);
+        service.runWithLease("job:test", lease -> { });
+        when(leaseRepository.renew(eq("job:test:shard-0"), eq("node-a"), anyLong())).thenReturn(-1L);
+
+        // when
+        service.renewHeldLeases();
+
+        // then
+        assertTrue(service.getHeldLeaseNames().isEmpty());
+    }
+}
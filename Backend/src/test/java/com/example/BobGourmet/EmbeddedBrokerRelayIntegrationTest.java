@@ -0,0 +1,177 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Entity.User;
+import com.example.BobGourmet.Repository.UserRepository;
+import com.example.BobGourmet.utils.JwtProvider;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * relay 브로커 모드 테스트: embedded-broker 프로필의 내장 Artemis 브로커를 띄우고,
+ * 서버에서 발행한 방 토픽 메시지와 사용자 큐 메시지가 외부 브로커를 거쳐 STOMP 구독자에게 전달되는지 확인한다.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"dev", "embedded-broker"})
+class EmbeddedBrokerRelayIntegrationTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static final int RELAY_PORT = freePort();
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+        registry.add("app.websocket.relay.port", () -> RELAY_PORT);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmbeddedActiveMQ embeddedStompBroker;
+
+    @Autowired
+    private StompBrokerRelayMessageHandler stompBrokerRelayMessageHandler;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    private StompSession session;
+
+    @AfterEach
+    void tearDown() {
+        if (session != null && session.isConnected()) session.disconnect();
+    }
+
+    private StompSession connect(String username) throws Exception {
+        if (userRepository.findByUsername(username).isEmpty()) {
+            userRepository.save(new User(username, username + "@relay.test", null, username));
+        }
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + jwtProvider.generateToken(username));
+        return stompClient.connectAsync("ws://localhost:" + port + "/ws-BobGourmet-native",
+                new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+    }
+
+    private BlockingQueue<Map<?, ?>> subscribe(String destination) {
+        BlockingQueue<Map<?, ?>> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<?, ?>) payload);
+            }
+        });
+        return received;
+    }
+
+    // 브로커에 구독이 등록될 때까지 반복 발행
+    private Map<?, ?> sendUntilReceived(Runnable send, BlockingQueue<Map<?, ?>> received) throws InterruptedException {
+        Map<?, ?> message = null;
+        for (int attempt = 0; attempt < 20 && message == null; attempt++) {
+            send.run();
+            message = received.poll(500, TimeUnit.MILLISECONDS);
+        }
+        return message;
+    }
+
+    @Test
+    @DisplayName("내장 브로커가 뜨고 릴레이의 시스템 연결이 맺어짐")
+    void embeddedBroker_RelaySystemSessionConnected() throws InterruptedException {
+        assertTrue(embeddedStompBroker.getActiveMQServer().isActive());
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!stompBrokerRelayMessageHandler.isBrokerAvailable() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertTrue(stompBrokerRelayMessageHandler.isBrokerAvailable(), "릴레이가 내장 브로커에 연결하지 못했습니다.");
+    }
+
+    @Test
+    @DisplayName("방 토픽 메시지가 외부 브로커를 거쳐 구독자에게 전달")
+    void roomTopicMessage_RelayedThroughBroker() throws Exception {
+        // given
+        session = connect("relay-user1");
+        String destination = "/topic/room/relay-room/deltas";
+        BlockingQueue<Map<?, ?>> received = subscribe(destination);
+
+        // when
+        Map<?, ?> message = sendUntilReceived(
+                () -> messagingTemplate.convertAndSend(destination, Map.of("via", "relay")), received);
+
+        // then
+        assertNotNull(message, "구독자가 릴레이를 거친 메시지를 받지 못했습니다.");
+        assertEquals("relay", message.get("via"));
+    }
+
+    @Test
+    @DisplayName("사용자 큐 메시지가 외부 브로커의 세션별 큐를 거쳐 해당 사용자에게만 전달")
+    void userQueueMessage_RelayedThroughBroker() throws Exception {
+        // given
+        session = connect("relay-user2");
+        BlockingQueue<Map<?, ?>> received = subscribe("/user/queue/events");
+
+        // when
+        Map<?, ?> message = sendUntilReceived(
+                () -> messagingTemplate.convertAndSendToUser("relay-user2", "/queue/events", Map.of("to", "relay-user2")), received);
+
+        // then
+        assertNotNull(message, "사용자가 릴레이를 거친 메시지를 받지 못했습니다.");
+        assertEquals("relay-user2", message.get("to"));
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Service.IdleSessionEvictor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.sockjs.transport.SockJsSession;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdleSessionEvictorTest {
+
+    private static final long IDLE_TIMEOUT_MS = 200;
+    private static final long PING_AFTER_MS = 50;
+
+    @Mock
+    private WebSocketSession session;
+
+    @Mock
+    private WebSocketSession sendQueue;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IdleSessionEvictor evictor = new IdleSessionEvictor(meterRegistry, IDLE_TIMEOUT_MS, PING_AFTER_MS);
+
+    private double liveSessions() {
+        return meterRegistry.find("websocket.sessions.live").gauge().value();
+    }
+
+    private double evicted() {
+        return meterRegistry.find("websocket.sessions.evicted").counter().count();
+    }
+
+    @Test
+    @DisplayName("방금 등록된 세션은 핑도 종료도 하지 않음")
+    void evictIdleSessions_FreshSession_Untouched() throws Exception {
+        // given
+        when(session.getId()).thenReturn("s1");
+        evictor.register(session, sendQueue);
+
+        // when
+        evictor.evictIdleSessions();
+
+        // then
+        verifyNoInteractions(sendQueue);
+        verify(session, never()).close(any());
+        assertEquals(1.0, liveSessions());
+    }
+
+    @Test
+    @DisplayName("핑 시간이 지난 네이티브 세션에는 송신 큐를 통해 핑을 보냄")
+    void evictIdleSessions_QuietNativeSession_Pinged() throws Exception {
+        // given
+        when(session.getId()).thenReturn("s1");
+        evictor.register(session, sendQueue);
+        Thread.sleep(PING_AFTER_MS + 50);
+
+        // when
+        evictor.evictIdleSessions();
+
+        // then
+        verify(sendQueue).sendMessage(any(PingMessage.class));
+        verify(session, never()).close(any());
+        verify(session, never()).sendMessage(any());
+    }
+
+    @Test
+    @DisplayName("SockJS 세션에는 핑을 보내지 않음")
+    void evictIdleSessions_QuietSockJsSession_NotPinged() throws Exception {
+        // given
+        SockJsSession sockJsSession = mock(SockJsSession.class);
+        when(sockJsSession.getId()).thenReturn("sockjs");
+        evictor.register(sockJsSession, sendQueue);
+        Thread.sleep(PING_AFTER_MS + 50);
+
+        // when
+        evictor.evictIdleSessions();
+
+        // then
+        verifyNoInteractions(sendQueue);
+        verify(sockJsSession, never()).close(any());
+    }
+
+    @Test
+    @DisplayName("유휴 시간을 넘긴 세션은 한 번만 닫고 추적에서 뺌")
+    void evictIdleSessions_IdlePastTimeout_ClosedOnce() throws Exception {
+        // given
+        when(session.getId()).thenReturn("s1");
+        evictor.register(session, sendQueue);
+        Thread.sleep(IDLE_TIMEOUT_MS + 50);
+
+        // when
+        evictor.evictIdleSessions();
+        evictor.evictIdleSessions();
+
+        // then
+        verify(session, times(1)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        verifyNoInteractions(sendQueue);
+        assertEquals(1.0, evicted());
+        assertEquals(0.0, liveSessions());
+    }
+
+    @Test
+    @DisplayName("프레임이 들어오면 유휴 시간이 다시 시작됨")
+    void touch_ResetsIdleTime() throws Exception {
+        // given
+        when(session.getId()).thenReturn("s1");
+        evictor.register(session, sendQueue);
+        Thread.sleep(IDLE_TIMEOUT_MS - 50);
+
+        // when: 등록 후로는 유휴 시간을 넘겼지만 마지막 프레임 이후로는 넘기지 않음
+        evictor.touch("s1");
+        Thread.sleep(100);
+        evictor.evictIdleSessions();
+
+        // then
+        verify(session, never()).close(any());
+        assertEquals(0.0, evicted());
+    }
+
+    @Test
+    @DisplayName("등록 해제된 세션은 더 이상 검사하지 않음")
+    void unregister_StopsTracking() throws Exception {
+        // given
+        when(session.getId()).thenReturn("s1");
+        evictor.register(session, sendQueue);
+
+        // when
+        evictor.unregister("s1");
+        Thread.sleep(IDLE_TIMEOUT_MS + 50);
+        evictor.evictIdleSessions();
+
+        // then
+        verify(session, never()).close(any());
+        assertEquals(0.0, liveSessions());
+    }
+
+    @Test
+    @DisplayName("유휴 시간이 0이면 축출하지 않음")
+    void evictIdleSessions_ZeroTimeout_Disabled() throws Exception {
+        // given
+        IdleSessionEvictor disabled = new IdleSessionEvictor(new SimpleMeterRegistry(), 0, 0);
+        when(session.getId()).thenReturn("s1");
+        disabled.register(session, sendQueue);
+        Thread.sleep(50);
+
+        // when
+        disabled.evictIdleSessions();
+
+        // then
+        verifyNoInteractions(sendQueue);
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    @DisplayName("세션을 닫다 실패해도 나머지 검사는 계속됨")
+    void evictIdleSessions_CloseFails_Swallowed() throws Exception {
+        // given
+        when(session.getId()).thenReturn("s1");
+        doThrow(new IOException("broken pipe")).when(session).close(any());
+        evictor.register(session, sendQueue);
+        Thread.sleep(IDLE_TIMEOUT_MS + 50);
+
+        // when & then
+        assertDoesNotThrow(evictor::evictIdleSessions);
+        assertEquals(1.0, evicted());
+        assertEquals(0.0, liveSessions());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.BobGourmet;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.containers.GenericContainer;
+
+/**
+ * 전체 컨텍스트를 띄우는 통합 테스트의 공통 속성.
+ * dev 프로필(H2)을 그대로 쓰되 Postgres 전용 Flyway 마이그레이션은 끄고(스키마는 JPA가 생성),
+ * 환경 변수로만 주입되는 값(JWT 비밀키, Google OAuth 클라이언트)은 테스트용 값으로 채운다.
+ */
+final class IntegrationTestProperties {
+
+    static final String JWT_SECRET = "Ym9iZ291cm1ldC1pbnRlZ3JhdGlvbi10ZXN0LWp3dC1zZWNyZXQta2V5";
+
+    private IntegrationTestProperties() {
+    }
+
+    static void register(DynamicPropertyRegistry registry, GenericContainer<?> redis) {
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", () -> redis.getMappedPort(6379).toString());
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("jwt.secret", () -> JWT_SECRET);
+        registry.add("spring.security.oauth2.client.registration.google.client-id", () -> "test-client-id");
+        registry.add("spring.security.oauth2.client.registration.google.client-secret", () -> "test-client-secret");
+        registry.add("spring.security.oauth2.client.registration.google.redirect-uri", () -> "http://localhost/login/oauth2/code/google");
+    }
+
+    // 같은 Redis를 쓰는 두 번째 컨텍스트(SpringApplicationBuilder.run 인자)용
+    static String[] commandLineArgs(GenericContainer<?> redis) {
+        return new String[]{
+                "--spring.data.redis.host=" + redis.getHost(),
+                "--spring.data.redis.port=" + redis.getMappedPort(6379),
+                "--spring.flyway.enabled=false",
+                "--jwt.secret=" + JWT_SECRET,
+                "--spring.security.oauth2.client.registration.google.client-id=test-client-id",
+                "--spring.security.oauth2.client.registration.google.client-secret=test-client-secret",
+                "--spring.security.oauth2.client.registration.google.redirect-uri=http://localhost/login/oauth2/code/google"
+        };
+    }
+}
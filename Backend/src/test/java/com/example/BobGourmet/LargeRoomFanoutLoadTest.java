@@ -0,0 +1,233 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.DTO.MenuDTO.SubmitMenuRequest;
+import com.example.BobGourmet.DTO.RoomDTO.CreateRoomRequest;
+import com.example.BobGourmet.DTO.RoomDTO.JoinRoomRequest;
+import com.example.BobGourmet.DTO.RoomDTO.RoomDetails;
+import com.example.BobGourmet.Entity.User;
+import com.example.BobGourmet.Repository.UserRepository;
+import com.example.BobGourmet.Service.MatchroomService;
+import com.example.BobGourmet.Service.MenuService;
+import com.example.BobGourmet.Service.RoomEventPublisher;
+import com.example.BobGourmet.utils.JwtProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 대규모 방 팬아웃 부하 테스트: 500명이 실제 STOMP 세션으로 /deltas 를 구독한 상태에서
+ * 메뉴 제출 한 번이 모든 세션에 도달하기까지의 지연을 측정한다. ./gradlew loadTest 로만 실행된다.
+ */
+@Tag("load")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LargeRoomFanoutLoadTest {
+
+    private static final int MEMBERS = 500;
+    private static final int ROUNDS = 30;
+    private static final long ROUND_TIMEOUT_SECONDS = 10;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+        registry.add("app.room.large.max-users", () -> String.valueOf(MEMBERS));
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MatchroomService matchroomService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private RoomEventPublisher roomEventPublisher;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private final List<StompSession> sessions = Collections.synchronizedList(new ArrayList<>());
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(session -> {
+            if (session.isConnected()) session.disconnect();
+        });
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("부하 테스트: 500명 대규모 방의 델타 팬아웃 지연")
+    void deltaFanoutLatency_500Members() throws Exception {
+        // given: 500명이 참가한 대규모 방
+        List<String> usernames = new ArrayList<>();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            String username = "load-user-" + i;
+            usernames.add(username);
+            users.add(new User(username, username + "@load.test", null, "부하" + i));
+        }
+        userRepository.saveAll(users);
+
+        CreateRoomRequest createRequest = new CreateRoomRequest();
+        createRequest.setRoomName("전사 점심 투표");
+        createRequest.setMaxUsers(10);
+        createRequest.setLargeRoom(true);
+        createRequest.setInputDeadlineSeconds(0); // 측정 중 타이머가 상태를 바꾸지 않도록
+        RoomDetails room = matchroomService.createRoom(usernames.get(0), createRequest, "127.0.0.1", 10000);
+        String roomId = room.getRoomId();
+        for (int i = 1; i < MEMBERS; i++) {
+            matchroomService.joinRoom(usernames.get(i), roomId, new JoinRoomRequest(), "127.0.0.1", 10000 + i);
+        }
+        assertTrue(room.isLargeRoom());
+        assertEquals(MEMBERS, matchroomService.buildRoomDetails(roomId).getParticipantCount());
+
+        // 모든 세션이 델타를 구독
+        Map<String, Round> rounds = new ConcurrentHashMap<>(); // username of the submitter -> round
+        AtomicReference<CountDownLatch> warmup = new AtomicReference<>(new CountDownLatch(MEMBERS));
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+
+        List<CompletableFuture<StompSession>> connects = new ArrayList<>();
+        for (String username : usernames) {
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", "Bearer " + jwtProvider.generateToken(username));
+            connects.add(stompClient.connectAsync("ws://localhost:" + port + "/ws-BobGourmet-native",
+                    new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {}));
+        }
+        for (CompletableFuture<StompSession> connect : connects) {
+            StompSession session = connect.get(30, TimeUnit.SECONDS);
+            sessions.add(session);
+            session.subscribe("/topic/room/" + roomId + "/deltas", new StompFrameHandler() {
+                @Override
+                public Type getPayloadType(StompHeaders headers) {
+                    return Map.class;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public void handleFrame(StompHeaders headers, Object payload) {
+                    long receivedAt = System.nanoTime();
+                    Map<String, Object> delta = (Map<String, Object>) ((Map<String, Object>) payload).get("payload");
+                    Map<String, Object> data = (Map<String, Object>) delta.get("data");
+                    if (RoomEventPublisher.OP_MENUS_SUBMITTED.equals(delta.get("op"))) {
+                        Round round = rounds.get(String.valueOf(data.get("username")));
+                        if (round != null) round.record(receivedAt);
+                    } else if ("warmup".equals(data.get("marker"))) {
+                        warmup.get().countDown();
+                    }
+                }
+            });
+        }
+
+        // 구독이 모두 등록될 때까지 워밍업 델타를 반복
+        boolean subscribed = false;
+        for (int attempt = 0; attempt < 20 && !subscribed; attempt++) {
+            warmup.set(new CountDownLatch(MEMBERS));
+            roomEventPublisher.publishDelta(roomId, RoomEventPublisher.OP_PRESENCE_CHANGED, Map.of("marker", "warmup"));
+            subscribed = warmup.get().await(2, TimeUnit.SECONDS);
+        }
+        assertTrue(subscribed, "모든 세션이 델타 구독을 마치지 못했습니다.");
+
+        // when: 멤버가 한 명씩 메뉴를 제출하고, 각 제출 델타가 500개 세션 모두에 도달하는 시간을 측정
+        List<Long> deliveryLatencies = new ArrayList<>();
+        List<Long> fanoutCompletion = new ArrayList<>();
+        for (int i = 1; i <= ROUNDS; i++) {
+            String submitter = usernames.get(i);
+            Round round = new Round(System.nanoTime());
+            rounds.put(submitter, round);
+
+            SubmitMenuRequest submitRequest = new SubmitMenuRequest();
+            submitRequest.setMenus(List.of("메뉴" + i));
+            menuService.submitMenus(submitter, roomId, submitRequest);
+
+            // then: 모든 세션이 델타를 받아야 함
+            assertTrue(round.done.await(ROUND_TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                    "라운드 " + i + ": " + round.done.getCount() + "개 세션이 델타를 받지 못했습니다.");
+            deliveryLatencies.addAll(round.latencies);
+            fanoutCompletion.add(Collections.max(round.latencies));
+        }
+
+        Collections.sort(deliveryLatencies);
+        Collections.sort(fanoutCompletion);
+        System.out.printf("Large-room fan-out (%d members, %d rounds): delivery p50=%.1fms p99=%.1fms max=%.1fms, "
+                        + "last delivery per round p50=%.1fms p99=%.1fms%n",
+                MEMBERS, ROUNDS,
+                millis(percentile(deliveryLatencies, 50)), millis(percentile(deliveryLatencies, 99)),
+                millis(deliveryLatencies.get(deliveryLatencies.size() - 1)),
+                millis(percentile(fanoutCompletion, 50)), millis(percentile(fanoutCompletion, 99)));
+        assertEquals((long) MEMBERS * ROUNDS, deliveryLatencies.size());
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static final class Round {
+        private final long startedAt;
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch done = new CountDownLatch(MEMBERS);
+
+        private Round(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private void record(long receivedAt) {
+            latencies.add(receivedAt - startedAt);
+            done.countDown();
+        }
+    }
+}
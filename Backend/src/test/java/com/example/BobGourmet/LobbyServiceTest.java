@@ -0,0 +1,175 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.DTO.RoomDTO.LobbyDiff;
+import com.example.BobGourmet.DTO.WebSocketMessage;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import com.example.BobGourmet.Service.LobbyService;
+import com.example.BobGourmet.Service.RoomEventPipeline;
+import com.example.BobGourmet.Service.WebSocketSessionRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class LobbyServiceTest {
+
+    @Mock
+    private MatchRoomRepository matchRoomRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private WebSocketSessionRegistry sessionRegistry;
+
+    private final AtomicLong lobbyVersion = new AtomicLong();
+    private final List<LobbyDiff> sent = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private RoomEventPipeline eventPipeline;
+    private LobbyService lobbyService;
+
+    @BeforeEach
+    void setUp() {
+        // one lane: a blocked task on any room holds the lobby queue until release
+        eventPipeline = new RoomEventPipeline(new SimpleMeterRegistry(), 1, 100, 1000, "drop-oldest");
+        lobbyService = new LobbyService(matchRoomRepository, messagingTemplate, eventPipeline, sessionRegistry);
+
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(1);
+            sent.add((LobbyDiff) message.getPayload());
+            return null;
+        }).when(messagingTemplate).convertAndSend(eq(LobbyService.LOBBY_TOPIC), any(Object.class));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        eventPipeline.shutdown();
+    }
+
+    private void blockLane() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        eventPipeline.publish("blocker", () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    // shutdown drains what is queued, including lobby batches that re-queue themselves on the lane
+    private void awaitDrained() throws InterruptedException {
+        release.countDown();
+        eventPipeline.shutdown();
+    }
+
+    @Test
+    @DisplayName("버전을 먼저 받은 변경이 늦게 큐에 들어와도 디프는 버전 순서로 전송")
+    void publish_LateEnqueuedLowerVersion_SentFirst() throws Exception {
+        // given: 첫 번째 INCR은 버전 1을 받은 뒤, 두 번째 변경이 큐에 들어갈 때까지 멈춤
+        CountDownLatch secondQueued = new CountDownLatch(1);
+        when(matchRoomRepository.incrementLobbyVersion()).thenAnswer(invocation -> {
+            long version = lobbyVersion.incrementAndGet();
+            if (version == 1) {
+                assertTrue(secondQueued.await(5, TimeUnit.SECONDS));
+            }
+            return version;
+        });
+        blockLane();
+
+        // when
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> lobbyService.publishRoomClosed("room-a"));
+        while (lobbyVersion.get() < 1) {
+            Thread.onSpinWait();
+        }
+        lobbyService.publishStateChanged("room-b", "inputting");
+        secondQueued.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        awaitDrained();
+
+        // then
+        assertEquals(2, sent.size());
+        assertEquals(1L, sent.get(0).getVersion());
+        assertEquals("room-a", sent.get(0).getRoomId());
+        assertEquals(LobbyService.OP_ROOM_CLOSED, sent.get(0).getOp());
+        assertEquals(2L, sent.get(1).getVersion());
+        assertEquals(LobbyService.OP_STATE_CHANGED, sent.get(1).getOp());
+    }
+
+    @Test
+    @DisplayName("동시에 발생한 변경의 디프 버전이 빠짐없이 1씩 증가하는 순서로 전송")
+    void publish_ConcurrentChanges_VersionsContiguousAndOrdered() throws Exception {
+        // given
+        when(matchRoomRepository.incrementLobbyVersion()).thenAnswer(invocation -> lobbyVersion.incrementAndGet());
+        when(matchRoomRepository.getRoomUserCount(any())).thenReturn(3L);
+        blockLane();
+
+        // when: 8개 스레드가 각각 50개의 변경을 발행
+        int threads = 8;
+        int perThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String roomId = "room-" + t;
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    lobbyService.publishMemberCountChanged(roomId);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        awaitDrained();
+
+        // then
+        assertEquals(threads * perThread, sent.size());
+        for (int i = 0; i < sent.size(); i++) {
+            assertEquals(i + 1L, sent.get(i).getVersion());
+        }
+    }
+
+    @Test
+    @DisplayName("생성 디프가 나가기 전에 방이 닫히면 같은 버전으로 종료 디프를 전송")
+    void publishRoomCreated_ClosedBeforeSend_SendsClosedWithSameVersion() throws Exception {
+        // given
+        when(matchRoomRepository.incrementLobbyVersion()).thenAnswer(invocation -> lobbyVersion.incrementAndGet());
+        when(matchRoomRepository.getRoomDetailsMap("room-1")).thenReturn(Map.of());
+        blockLane();
+
+        // when
+        lobbyService.publishRoomCreated("room-1");
+        lobbyService.publishRoomClosed("room-1");
+        awaitDrained();
+
+        // then: 버전이 비지 않도록 두 디프 모두 전송
+        assertEquals(2, sent.size());
+        assertEquals(List.of(1L, 2L), sent.stream().map(LobbyDiff::getVersion).toList());
+        assertTrue(sent.stream().allMatch(diff -> LobbyService.OP_ROOM_CLOSED.equals(diff.getOp())));
+        verify(matchRoomRepository, never()).getRoomUserCount("room-1");
+    }
+}
@@ -7,6 +7,9 @@ import com.example.BobGourmet.DTO.WebSocketMessage;
 import com.example.BobGourmet.Exception.RoomException;
 import com.example.BobGourmet.Repository.MatchRoomRepository;
 import com.example.BobGourmet.Service.MenuService;
+import com.example.BobGourmet.Service.RoomBroadcastCoalescer;
+import com.example.BobGourmet.Service.RoomEventPipeline;
+import com.example.BobGourmet.Service.RoomEventPublisher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -33,6 +36,15 @@ public class MenuServiceTest {
     @Mock
     private SimpMessagingTemplate messagingTemplate;
 
+    @Mock
+    private RoomEventPublisher roomEventPublisher;
+
+    @Mock
+    private RoomBroadcastCoalescer broadcastCoalescer;
+
+    @Mock
+    private RoomEventPipeline eventPipeline;
+
     @InjectMocks
     private MenuService menuService;
 
@@ -50,6 +62,14 @@ public class MenuServiceTest {
         roomDetails = new HashMap<>();
         roomDetails.put("hostUsername", hostUsername);
         roomDetails.put("state", "inputting");
+
+        // default room event mode: full snapshots are broadcast
+        lenient().when(roomEventPublisher.isFullSnapshotEnabled()).thenReturn(true);
+        // run pipeline work inline so sends can be verified synchronously
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(eventPipeline).publish(anyString(), any(Runnable.class));
     }
 
     @Test
@@ -0,0 +1,182 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Service.OutboundSessionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboundSessionPolicyTest {
+
+    private static final String DESTINATION = "/topic/room/room-1/events";
+
+    @Mock
+    private WebSocketSession delegate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private OutboundSessionPolicy policy;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // the "blocked" frame stalls the socket until release, so later frames stay queued
+        lenient().doAnswer(invocation -> {
+            String body = body(invocation.getArgument(0));
+            if (body.equals("blocked")) {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            sent.add(body);
+            return null;
+        }).when(delegate).sendMessage(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (policy != null) policy.shutdown();
+    }
+
+    private WebSocketSession newSession(long sendTimeLimitMs, int maxQueuedEvents) {
+        policy = new OutboundSessionPolicy(meterRegistry, sendTimeLimitMs, 512 * 1024, maxQueuedEvents);
+        return policy.decorate(delegate);
+    }
+
+    private static TextMessage frame(String body, String conflateKey) {
+        String headers = "MESSAGE\ndestination:" + DESTINATION + "\n"
+                + (conflateKey != null ? OutboundSessionPolicy.CONFLATE_HEADER + ":" + conflateKey + "\n" : "");
+        return new TextMessage(headers + "\n" + body + "\u0000");
+    }
+
+    private static String body(WebSocketMessage<?> message) {
+        String payload = ((TextMessage) message).getPayload();
+        return payload.substring(payload.indexOf("\n\n") + 2, payload.length() - 1);
+    }
+
+    private void blockSocket(WebSocketSession session) throws Exception {
+        session.sendMessage(frame("blocked", null));
+        verify(delegate, timeout(5000)).sendMessage(any());
+    }
+
+    private void awaitSent(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, sent.size(), "sent=" + sent);
+    }
+
+    private double disconnects(String reason) {
+        var counter = meterRegistry.find("websocket.outbound.disconnected").tag("reason", reason).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    @DisplayName("일반 프레임은 보낸 순서대로 전달")
+    void sendMessage_DeliversInOrder() throws Exception {
+        // given
+        WebSocketSession session = newSession(10000, 100);
+        blockSocket(session);
+
+        // when
+        for (int i = 0; i < 5; i++) {
+            session.sendMessage(frame("event-" + i, null));
+        }
+        release.countDown();
+
+        // then
+        awaitSent(6);
+        assertEquals(List.of("blocked", "event-0", "event-1", "event-2", "event-3", "event-4"), sent);
+    }
+
+    @Test
+    @DisplayName("새 스냅샷은 대기 중인 같은 키의 스냅샷을 대체하고 그 사이의 이벤트 뒤로 감")
+    void sendMessage_ConflatesSnapshotBehindNewerEvents() throws Exception {
+        // given
+        WebSocketSession session = newSession(10000, 100);
+        blockSocket(session);
+
+        // when
+        session.sendMessage(frame("snapshot-1", "ROOM_STATE_UPDATE"));
+        session.sendMessage(frame("delta", null));
+        session.sendMessage(frame("snapshot-2", "ROOM_STATE_UPDATE"));
+        release.countDown();
+
+        // then
+        awaitSent(3);
+        assertEquals(List.of("blocked", "delta", "snapshot-2"), sent);
+        assertEquals(1.0, meterRegistry.find("websocket.outbound.conflated").counter().count());
+    }
+
+    @Test
+    @DisplayName("대기 이벤트 수가 한도를 넘으면 세션을 끊고 남은 프레임을 버림")
+    void sendMessage_QueueLimit_Disconnects() throws Exception {
+        // given
+        WebSocketSession session = newSession(10000, 2);
+        blockSocket(session);
+
+        // when
+        for (int i = 0; i < 3; i++) {
+            session.sendMessage(frame("event-" + i, null));
+        }
+        release.countDown();
+
+        // then
+        verify(delegate, timeout(5000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1.0, disconnects("queue-limit"));
+        awaitSent(1);
+    }
+
+    @Test
+    @DisplayName("한 번의 전송이 제한 시간을 넘기면 다음 프레임에서 세션을 끊음")
+    void sendMessage_SendTimeLimit_Disconnects() throws Exception {
+        // given
+        WebSocketSession session = newSession(50, 100);
+        blockSocket(session);
+        Thread.sleep(100);
+
+        // when
+        session.sendMessage(frame("event", null));
+
+        // then
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1.0, disconnects("send-time-limit"));
+    }
+
+    @Test
+    @DisplayName("닫기 요청은 대기 중인 프레임을 모두 보낸 뒤에 처리")
+    void close_WaitsForQueuedFrames() throws Exception {
+        // given
+        WebSocketSession session = newSession(10000, 100);
+        blockSocket(session);
+        session.sendMessage(frame("error", null));
+
+        // when
+        session.close(CloseStatus.NORMAL);
+        verify(delegate, never()).close(any());
+        release.countDown();
+
+        // then
+        verify(delegate, timeout(5000)).close(CloseStatus.NORMAL);
+        assertEquals(List.of("blocked", "error"), sent);
+    }
+}
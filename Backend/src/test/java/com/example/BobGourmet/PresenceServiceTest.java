@@ -0,0 +1,152 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Repository.LeaseRepository;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import com.example.BobGourmet.Service.ClusterLeaseService;
+import com.example.BobGourmet.Service.MatchroomService;
+import com.example.BobGourmet.Service.PresenceService;
+import com.example.BobGourmet.Service.StompEventListener;
+import com.example.BobGourmet.utils.ClusterNodeId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PresenceServiceTest {
+
+    private static final int BATCH = 100;
+
+    @Mock
+    private MatchRoomRepository matchRoomRepository;
+
+    @Mock
+    private MatchroomService matchroomService;
+
+    @Mock
+    private StompEventListener stompEventListener;
+
+    @Mock
+    private LeaseRepository leaseRepository;
+
+    private PresenceService presenceService;
+
+    @BeforeEach
+    void setUp() {
+        when(leaseRepository.tryAcquire(anyString(), anyString(), anyLong())).thenReturn(1L);
+        ClusterLeaseService leaseService = new ClusterLeaseService(leaseRepository, new ClusterNodeId("node-a"), 15000, 1, 0);
+        // no expired members to sweep
+        lenient().when(matchRoomRepository.findUsersByHeartbeat(anyLong(), anyLong(), anyInt())).thenReturn(List.of());
+        presenceService = new PresenceService(matchRoomRepository, matchroomService, stompEventListener, leaseService,
+                new SimpleMeterRegistry(), 45000, 15000, BATCH);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> publishedChanges() {
+        ArgumentCaptor<Map<String, String>> changes = ArgumentCaptor.forClass(Map.class);
+        verify(matchroomService).publishPresenceChanges(eq("room-1"), changes.capture());
+        return changes.getValue();
+    }
+
+    @Test
+    @DisplayName("한 페이지를 넘는 자리비움 멤버도 모두 away로 알리고 online으로 잘못 알리지 않음")
+    void sweep_PagesThroughWholeAwayWindow() {
+        // given: 자리비움 구간에 배치 크기보다 많은 250명
+        List<String> away = new ArrayList<>();
+        for (int i = 0; i < 250; i++) away.add("user-" + i);
+        when(matchRoomRepository.findUsersByHeartbeat(anyLong(), anyLong(), anyLong(), eq(BATCH))).thenAnswer(invocation -> {
+            int offset = (int) (long) invocation.getArgument(2, Long.class);
+            return away.subList(Math.min(offset, away.size()), Math.min(offset + BATCH, away.size()));
+        });
+        Map<String, String> rooms = new HashMap<>();
+        away.forEach(username -> rooms.put(username, "room-1"));
+        when(matchRoomRepository.findRoomIdsByUsers(anyList())).thenReturn(rooms);
+
+        // when
+        presenceService.sweepPresence();
+
+        // then
+        Map<String, String> changes = publishedChanges();
+        assertEquals(250, changes.size());
+        assertTrue(changes.values().stream().allMatch(PresenceService.STATUS_AWAY::equals));
+        verify(matchRoomRepository).addAnnouncedAway(argThat((Collection<String> usernames) -> usernames.size() == 250));
+    }
+
+    @Test
+    @DisplayName("이미 알린 멤버는 다시 알리지 않고, 하트비트가 돌아온 멤버만 online으로 알림")
+    void sweep_AnnouncesOnlyTransitions() {
+        // given: 이전 리스 보유 노드가 away로 알린 세 명
+        long now = System.currentTimeMillis();
+        when(matchRoomRepository.getAnnouncedAway()).thenReturn(Set.of("still-away", "back", "left"));
+        when(matchRoomRepository.findUsersByHeartbeat(anyLong(), anyLong(), anyLong(), eq(BATCH))).thenReturn(List.of("still-away"));
+        when(matchRoomRepository.getHeartbeats(anyList())).thenReturn(Map.of("still-away", now - 20000, "back", now));
+        when(matchRoomRepository.findRoomIdsByUsers(List.of("back"))).thenReturn(Map.of("back", "room-1"));
+
+        // when
+        presenceService.sweepPresence();
+
+        // then: 방을 떠난 멤버는 조용히 정리
+        assertEquals(Map.of("back", PresenceService.STATUS_ONLINE), publishedChanges());
+        verify(matchRoomRepository).removeAnnouncedAway(argThat((Collection<String> usernames) ->
+                usernames.size() == 2 && usernames.containsAll(List.of("back", "left"))));
+        verify(matchRoomRepository).addAnnouncedAway(List.of());
+    }
+
+    @Test
+    @DisplayName("만료 멤버 퇴장 처리가 실패하면 하트비트를 되돌려 다음 스윕에서 다시 시도")
+    void sweep_DisconnectFails_RestoresClaimAndRetries() {
+        // given: 만료된 멤버의 퇴장 처리가 한 번 실패
+        when(leaseRepository.isFenceCurrent(anyString(), anyLong())).thenReturn(true);
+        when(matchRoomRepository.findUsersByHeartbeat(eq(0L), anyLong(), eq(BATCH))).thenReturn(List.of("expired"));
+        when(matchRoomRepository.claimExpiredHeartbeat(eq("expired"), anyLong())).thenReturn(true);
+        doThrow(new IllegalStateException("redis timeout")).doNothing().when(matchroomService).handleDisconnect("expired");
+
+        // when
+        presenceService.sweepPresence();
+
+        // then: 만료 시각 그대로 되돌리고 away 알림 기록은 유지
+        ArgumentCaptor<Long> expiredBefore = ArgumentCaptor.forClass(Long.class);
+        verify(matchRoomRepository).claimExpiredHeartbeat(eq("expired"), expiredBefore.capture());
+        verify(matchRoomRepository).restoreExpiredHeartbeat("expired", expiredBefore.getValue());
+        verify(matchRoomRepository, never()).removeAnnouncedAway(List.of("expired"));
+
+        // when: 다음 스윕에서는 성공
+        presenceService.sweepPresence();
+
+        // then
+        verify(matchroomService, times(2)).handleDisconnect("expired");
+        verify(matchRoomRepository, times(1)).restoreExpiredHeartbeat(eq("expired"), anyLong());
+        verify(matchRoomRepository).removeAnnouncedAway(List.of("expired"));
+    }
+
+    @Test
+    @DisplayName("스윕 사이에 하트비트를 보낸 멤버는 퇴장시키지 않음")
+    void sweep_ClaimLost_SkipsMember() {
+        // given
+        when(leaseRepository.isFenceCurrent(anyString(), anyLong())).thenReturn(true);
+        when(matchRoomRepository.findUsersByHeartbeat(eq(0L), anyLong(), eq(BATCH))).thenReturn(List.of("refreshed"));
+        when(matchRoomRepository.claimExpiredHeartbeat(eq("refreshed"), anyLong())).thenReturn(false);
+
+        // when
+        presenceService.sweepPresence();
+
+        // then
+        verify(matchroomService, never()).handleDisconnect(anyString());
+        verify(matchRoomRepository, never()).restoreExpiredHeartbeat(anyString(), anyLong());
+    }
+}
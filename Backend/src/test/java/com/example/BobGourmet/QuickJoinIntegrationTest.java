@@ -0,0 +1,185 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.DTO.RoomDTO.CreateRoomRequest;
+import com.example.BobGourmet.DTO.RoomDTO.JoinRoomRequest;
+import com.example.BobGourmet.Entity.User;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import com.example.BobGourmet.Repository.UserRepository;
+import com.example.BobGourmet.Service.MatchroomService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Quick join against a real Redis: the claim script, fill-first ordering, stale index entries,
+ * the create fallback and the index backfill for rooms created before it existed.
+ */
+@Testcontainers
+@SpringBootTest
+class QuickJoinIntegrationTest {
+
+    private static final String FREE_SLOTS_KEY = "rooms:free_slots";
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+    }
+
+    @Autowired
+    private MatchroomService matchroomService;
+
+    @Autowired
+    private MatchRoomRepository matchRoomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private int port = 20000;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            String username = "qj-user" + i;
+            if (userRepository.findByUsername(username).isEmpty()) {
+                users.add(new User(username, username + "@quickjoin.test", null, "빠른" + i));
+            }
+        }
+        userRepository.saveAll(users);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+
+    private String createRoom(String host, int maxUsers) {
+        CreateRoomRequest request = new CreateRoomRequest();
+        request.setRoomName(host + "의 방");
+        request.setMaxUsers(maxUsers);
+        return matchroomService.createRoom(host, request, "127.0.0.1", port++).getRoomId();
+    }
+
+    private String quickJoin(String username) {
+        return matchroomService.quickJoin(username, "127.0.0.1", port++).getRoomId();
+    }
+
+    private Double freeSlots(String roomId) {
+        return stringRedisTemplate.opsForZSet().score(FREE_SLOTS_KEY, roomId);
+    }
+
+    @Test
+    @DisplayName("빈자리를 차지하면 방 멤버가 되고 인덱스의 빈자리 수가 줄어듦")
+    void quickJoin_ClaimsSlotAndUpdatesIndex() {
+        // given
+        String roomId = createRoom("qj-user0", 4);
+        assertEquals(3.0, freeSlots(roomId));
+
+        // when
+        String joined = quickJoin("qj-user1");
+
+        // then
+        assertEquals(roomId, joined);
+        assertTrue(matchroomService.isUserInMatchroom("qj-user1", roomId));
+        assertEquals(2.0, freeSlots(roomId));
+    }
+
+    @Test
+    @DisplayName("빈자리가 가장 적은 방부터 채우고, 가득 찬 방은 인덱스에서 빠짐")
+    void quickJoin_FillsFullestRoomFirst() {
+        // given: 빈자리 3인 방과 1인 방
+        String roomy = createRoom("qj-user0", 4);
+        String almostFull = createRoom("qj-user1", 2);
+
+        // when
+        String joined = quickJoin("qj-user2");
+
+        // then
+        assertEquals(almostFull, joined);
+        assertNull(freeSlots(almostFull));
+        assertEquals(roomy, quickJoin("qj-user3"));
+    }
+
+    @Test
+    @DisplayName("인덱스에 남은 오래된 후보는 건너뛰며 제거하고 실제로 들어갈 수 있는 방을 고름")
+    void quickJoin_DropsStaleCandidates() {
+        // given: 사라진 방과 인덱스 갱신 없이 추첨 결과 화면으로 넘어간 방이 더 앞선 후보
+        String open = createRoom("qj-user0", 4);
+        String drawn = createRoom("qj-user1", 4);
+        stringRedisTemplate.opsForHash().put("room:" + drawn + ":details", "state", "result_viewing");
+        stringRedisTemplate.opsForZSet().add(FREE_SLOTS_KEY, drawn, 1);
+        stringRedisTemplate.opsForZSet().add(FREE_SLOTS_KEY, "ghost", 1);
+
+        // when
+        String joined = quickJoin("qj-user2");
+
+        // then
+        assertEquals(open, joined);
+        assertNull(freeSlots("ghost"));
+        assertNull(freeSlots(drawn));
+    }
+
+    @Test
+    @DisplayName("들어갈 방이 없으면 사용자를 호스트로 새 공개 방을 만듦")
+    void quickJoin_CreatesRoomWhenNoneFits() {
+        // given: 비공개 방과 가득 찬 방만 있음
+        CreateRoomRequest privateRequest = new CreateRoomRequest();
+        privateRequest.setRoomName("비공개 방");
+        privateRequest.setMaxUsers(4);
+        privateRequest.setPrivate(true);
+        privateRequest.setPassword("secret");
+        matchroomService.createRoom("qj-user0", privateRequest, "127.0.0.1", port++);
+        String full = createRoom("qj-user1", 2);
+        matchroomService.joinRoom("qj-user2", full, new JoinRoomRequest(), "127.0.0.1", port++);
+
+        // when
+        String joined = quickJoin("qj-user3");
+
+        // then
+        assertNotEquals(full, joined);
+        assertEquals("qj-user3", matchRoomRepository.getRoomDetailsMap(joined).get("hostUsername"));
+        assertNotNull(freeSlots(joined));
+    }
+
+    @Test
+    @DisplayName("인덱스가 없던 기존 방은 백필 후 빠른 매칭으로 들어갈 수 있음")
+    void backfillFreeSlots_IndexesExistingRooms() {
+        // given: 인덱스가 생기기 전에 만들어진 것처럼 항목 삭제
+        String roomId = createRoom("qj-user0", 4);
+        stringRedisTemplate.delete(FREE_SLOTS_KEY);
+
+        // when
+        long indexed = matchRoomRepository.backfillFreeSlots();
+
+        // then
+        assertEquals(1L, indexed);
+        assertEquals(3.0, freeSlots(roomId));
+        assertEquals(roomId, quickJoin("qj-user1"));
+    }
+}
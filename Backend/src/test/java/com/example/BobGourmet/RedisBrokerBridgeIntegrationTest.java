@@ -0,0 +1,143 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Service.LobbyService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * redis 브로커 모드 2노드 테스트: 테스트 컨텍스트(노드 A)와 같은 Redis를 쓰는 두 번째 컨텍스트(노드 B)를 띄우고,
+ * 노드 A에서 보낸 /topic/room/*, /topic/lobby 메시지가 노드 B에 연결된 STOMP 구독자에게 전달되는지 확인한다.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RedisBrokerBridgeIntegrationTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+        registry.add("app.websocket.broker", () -> "redis");
+        registry.add("app.cluster.node-id", () -> "node-a");
+    }
+
+    private static ConfigurableApplicationContext nodeB;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private StompSession session;
+
+    @BeforeAll
+    static void startNodeB() {
+        List<String> args = new ArrayList<>(List.of(IntegrationTestProperties.commandLineArgs(redis)));
+        args.addAll(List.of("--server.port=0", "--app.websocket.broker=redis", "--app.cluster.node-id=node-b"));
+        nodeB = new SpringApplicationBuilder(BobGourmetApplication.class).run(args.toArray(String[]::new));
+    }
+
+    @AfterAll
+    static void stopNodeB() {
+        if (nodeB != null) nodeB.close();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (session != null && session.isConnected()) session.disconnect();
+    }
+
+    // 노드 B에 연결해 destination을 구독한 클라이언트가 받은 메시지
+    private BlockingQueue<Map<?, ?>> subscribeOnNodeB(String destination) throws Exception {
+        int nodeBPort = Integer.parseInt(nodeB.getEnvironment().getProperty("local.server.port"));
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        session = stompClient.connectAsync("ws://localhost:" + nodeBPort + "/ws-BobGourmet/websocket",
+                new WebSocketHttpHeaders(), new StompHeaders(), new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+
+        BlockingQueue<Map<?, ?>> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<?, ?>) payload);
+            }
+        });
+        return received;
+    }
+
+    // 노드 A의 브로커로 발행 (노드 B의 구독이 등록될 때까지 반복)
+    private Map<?, ?> sendFromNodeA(String destination, BlockingQueue<Map<?, ?>> received) throws InterruptedException {
+        Map<?, ?> message = null;
+        for (int attempt = 0; attempt < 20 && message == null; attempt++) {
+            messagingTemplate.convertAndSend(destination, Map.of("from", "node-a", "attempt", attempt));
+            message = received.poll(500, TimeUnit.MILLISECONDS);
+        }
+        return message;
+    }
+
+    @Test
+    @DisplayName("노드 A에서 발행한 방 토픽 메시지가 노드 B의 구독자에게 전달")
+    void roomTopicMessage_CrossesNodes() throws Exception {
+        // given: 노드 B에 연결해 방 델타를 구독한 클라이언트
+        String destination = "/topic/room/bridge-room/deltas";
+        BlockingQueue<Map<?, ?>> received = subscribeOnNodeB(destination);
+
+        // when
+        Map<?, ?> message = sendFromNodeA(destination, received);
+
+        // then
+        assertNotNull(message, "노드 B의 구독자가 노드 A의 메시지를 받지 못했습니다.");
+        assertEquals("node-a", message.get("from"));
+    }
+
+    @Test
+    @DisplayName("노드 A에서 발행한 로비 디프가 노드 B의 로비 구독자에게 전달")
+    void lobbyTopicMessage_CrossesNodes() throws Exception {
+        // given: 노드 B에 연결해 로비를 구독한 클라이언트
+        BlockingQueue<Map<?, ?>> received = subscribeOnNodeB(LobbyService.LOBBY_TOPIC);
+
+        // when
+        Map<?, ?> message = sendFromNodeA(LobbyService.LOBBY_TOPIC, received);
+
+        // then
+        assertNotNull(message, "노드 B의 로비 구독자가 노드 A의 로비 디프를 받지 못했습니다.");
+        assertEquals("node-a", message.get("from"));
+    }
+}
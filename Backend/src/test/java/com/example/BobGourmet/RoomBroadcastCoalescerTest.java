@@ -0,0 +1,165 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.DTO.WebSocketMessage;
+import com.example.BobGourmet.Exception.RoomException;
+import com.example.BobGourmet.Service.OutboundSessionPolicy;
+import com.example.BobGourmet.Service.RoomBroadcastCoalescer;
+import com.example.BobGourmet.Service.RoomEventPipeline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoomBroadcastCoalescerTest {
+
+    private static final long WINDOW_MS = 50;
+    private static final String EVENTS = "/topic/room/room-1/events";
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RoomEventPipeline eventPipeline = new RoomEventPipeline(meterRegistry, 1, 100, 1000, "drop-oldest");
+    private RoomBroadcastCoalescer coalescer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (coalescer != null) coalescer.shutdown();
+        eventPipeline.shutdown();
+    }
+
+    private RoomBroadcastCoalescer newCoalescer(long windowMs) {
+        coalescer = new RoomBroadcastCoalescer(messagingTemplate, eventPipeline, meterRegistry, windowMs);
+        return coalescer;
+    }
+
+    private double counter(String name) {
+        return meterRegistry.find(name).counter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private WebSocketMessage<Object> sentOnce(String destination) {
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(1000)).convertAndSend(eq(destination), message.capture(), anyMap());
+        return (WebSocketMessage<Object>) message.getValue();
+    }
+
+    @Test
+    @DisplayName("창 안의 연속 갱신은 마지막 빌더로 한 번만 만들어 전송")
+    void submit_BurstWithinWindow_SendsLatestOnce() {
+        // given
+        newCoalescer(WINDOW_MS);
+        AtomicInteger builds = new AtomicInteger();
+
+        // when: 같은 목적지와 타입으로 10번 갱신
+        for (int i = 0; i < 10; i++) {
+            int state = i;
+            coalescer.submit("room-1", EVENTS, "ROOM_STATE_UPDATE", () -> {
+                builds.incrementAndGet();
+                return "state-" + state;
+            });
+        }
+
+        // then
+        WebSocketMessage<Object> message = sentOnce(EVENTS);
+        assertEquals("ROOM_STATE_UPDATE", message.getType());
+        assertEquals("state-9", message.getPayload());
+        verify(messagingTemplate, after(200).times(1)).convertAndSend(eq(EVENTS), any(Object.class),
+                eq(Map.<String, Object>of(OutboundSessionPolicy.CONFLATE_HEADER, "ROOM_STATE_UPDATE")));
+        assertEquals(1, builds.get());
+        assertEquals(9.0, counter("room.broadcasts.coalesced"));
+        assertEquals(1.0, counter("room.broadcasts.flushed"));
+    }
+
+    @Test
+    @DisplayName("스냅샷은 전송 시점의 상태로 만들어짐")
+    void submit_BuildsFromStateAtSendTime() {
+        // given
+        newCoalescer(WINDOW_MS);
+        AtomicInteger participants = new AtomicInteger(1);
+
+        // when: 제출 후 창이 닫히기 전에 상태가 바뀜
+        coalescer.submit("room-1", EVENTS, "ROOM_STATE_UPDATE", participants::get);
+        participants.set(3);
+
+        // then
+        assertEquals(3, sentOnce(EVENTS).getPayload());
+    }
+
+    @Test
+    @DisplayName("목적지나 이벤트 타입이 다르면 따로 전송")
+    void submit_DifferentKeys_SentSeparately() {
+        // given
+        newCoalescer(WINDOW_MS);
+        String menuStatus = "/topic/room/room-1/menuStatus";
+
+        // when
+        coalescer.submit("room-1", EVENTS, "ROOM_STATE_UPDATE", () -> "details");
+        coalescer.submit("room-1", EVENTS, "PARTICIPANT_UPDATE", () -> "participants");
+        coalescer.submit("room-1", menuStatus, "MENU_STATUS_UPDATE", () -> "menus");
+
+        // then
+        verify(messagingTemplate, timeout(1000).times(2)).convertAndSend(eq(EVENTS), any(Object.class), anyMap());
+        assertEquals("menus", sentOnce(menuStatus).getPayload());
+        assertEquals(0.0, counter("room.broadcasts.coalesced"));
+    }
+
+    @Test
+    @DisplayName("창이 닫힌 뒤의 갱신은 새 창을 열어 다시 전송")
+    void submit_AfterFlush_OpensNewWindow() {
+        // given
+        newCoalescer(WINDOW_MS);
+        coalescer.submit("room-1", EVENTS, "ROOM_STATE_UPDATE", () -> "first");
+        assertEquals("first", sentOnce(EVENTS).getPayload());
+
+        // when
+        coalescer.submit("room-1", EVENTS, "ROOM_STATE_UPDATE", () -> "second");
+
+        // then
+        verify(messagingTemplate, timeout(1000).times(2)).convertAndSend(eq(EVENTS), any(Object.class), anyMap());
+        assertEquals(2.0, counter("room.broadcasts.flushed"));
+    }
+
+    @Test
+    @DisplayName("창 안에 방이 닫혀 빌더가 RoomException을 던지면 전송하지 않음")
+    void submit_RoomClosedInsideWindow_Dropped() {
+        // given
+        newCoalescer(WINDOW_MS);
+
+        // when
+        coalescer.submit("room-1", EVENTS, "ROOM_STATE_UPDATE", () -> {
+            throw new RoomException("방을 찾을 수 없습니다.");
+        });
+
+        // then
+        verify(messagingTemplate, after(300).never()).convertAndSend(anyString(), any(Object.class), anyMap());
+        assertEquals(0.0, counter("room.broadcasts.flushed"));
+    }
+
+    @Test
+    @DisplayName("창이 0이면 기다리지 않고 파이프라인으로 바로 전송")
+    void submit_ZeroWindow_SendsEachUpdate() {
+        // given
+        newCoalescer(0);
+
+        // when
+        coalescer.submit("room-1", EVENTS, "ROOM_STATE_UPDATE", () -> "only");
+
+        // then
+        assertEquals("only", sentOnce(EVENTS).getPayload());
+        assertEquals(0.0, counter("room.broadcasts.coalesced"));
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Controller.RoomCommandController;
+import com.example.BobGourmet.DTO.MenuDTO.SubmitMenuRequest;
+import com.example.BobGourmet.DTO.RoomDTO.CreateRoomRequest;
+import com.example.BobGourmet.DTO.RoomDTO.JoinRoomRequest;
+import com.example.BobGourmet.Entity.User;
+import com.example.BobGourmet.Repository.UserRepository;
+import com.example.BobGourmet.Service.MatchroomService;
+import com.example.BobGourmet.utils.JwtProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.simp.user.SimpUser;
+import org.springframework.messaging.simp.user.SimpUserRegistry;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * STOMP 명령 경로 테스트: /app/rooms/{roomId}/... 로 보낸 명령에 대해 보낸 사용자만
+ * /user/queue/acks(성공) 또는 /user/queue/errors(실패)로 command-id가 담긴 응답을 받는지 확인한다.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RoomCommandIntegrationTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MatchroomService matchroomService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtProvider jwtProvider;
+
+    @Autowired
+    private SimpUserRegistry simpUserRegistry;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private final List<StompSession> sessions = new ArrayList<>();
+    private String roomId;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (String username : List.of("cmd-host", "cmd-member", "cmd-outsider")) {
+            if (userRepository.findByUsername(username).isEmpty()) {
+                users.add(new User(username, username + "@command.test", null, username));
+            }
+        }
+        userRepository.saveAll(users);
+
+        CreateRoomRequest request = new CreateRoomRequest();
+        request.setRoomName("명령 테스트 방");
+        request.setMaxUsers(4);
+        roomId = matchroomService.createRoom("cmd-host", request, "127.0.0.1", 30000).getRoomId();
+        matchroomService.joinRoom("cmd-member", roomId, new JoinRoomRequest(), "127.0.0.1", 30001);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(session -> {
+            if (session.isConnected()) session.disconnect();
+        });
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+
+    private StompSession connect(String username) throws Exception {
+        WebSocketStompClient stompClient = new WebSocketStompClient(new StandardWebSocketClient());
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + jwtProvider.generateToken(username));
+        StompSession session = stompClient.connectAsync("ws://localhost:" + port + "/ws-BobGourmet-native",
+                new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {}).get(10, TimeUnit.SECONDS);
+        sessions.add(session);
+        return session;
+    }
+
+    // 인바운드 채널은 여러 스레드에서 처리되므로, 명령을 보내기 전에 서버에 구독이 등록될 때까지 기다린다
+    private BlockingQueue<Map<?, ?>> subscribe(StompSession session, String username, String destination) throws InterruptedException {
+        BlockingQueue<Map<?, ?>> received = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<?, ?>) payload);
+            }
+        });
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!isSubscribed(username, destination)) {
+            assertTrue(System.currentTimeMillis() < deadline, destination + " 구독이 등록되지 않았습니다.");
+            Thread.sleep(20);
+        }
+        return received;
+    }
+
+    private boolean isSubscribed(String username, String destination) {
+        SimpUser user = simpUserRegistry.getUser(username);
+        return user != null && user.getSessions().stream()
+                .flatMap(session -> session.getSubscriptions().stream())
+                .anyMatch(subscription -> destination.equals(subscription.getDestination()));
+    }
+
+    private void send(StompSession session, String destination, String commandId, Object payload) {
+        StompHeaders headers = new StompHeaders();
+        headers.setDestination(destination);
+        if (commandId != null) {
+            headers.add(RoomCommandController.COMMAND_ID_HEADER, commandId);
+        }
+        session.send(headers, payload);
+    }
+
+    @Test
+    @DisplayName("메뉴 제출 명령이 성공하면 보낸 사용자에게 command-id가 담긴 ack를 전송")
+    void submitMenus_Success_AcksWithCommandId() throws Exception {
+        // given
+        StompSession session = connect("cmd-host");
+        BlockingQueue<Map<?, ?>> acks = subscribe(session, "cmd-host", "/user/queue/acks");
+        BlockingQueue<Map<?, ?>> errors = subscribe(session, "cmd-host", "/user/queue/errors");
+        SubmitMenuRequest request = new SubmitMenuRequest();
+        request.setMenus(List.of("김치찌개", "돈까스"));
+
+        // when
+        String destination = "/app/rooms/" + roomId + "/menus";
+        send(session, destination, "cmd-1", request);
+
+        // then
+        Map<?, ?> ack = acks.poll(5, TimeUnit.SECONDS);
+        assertNotNull(ack, "ack를 받지 못했습니다.");
+        assertEquals("cmd-1", ack.get("commandId"));
+        assertEquals(destination, ack.get("command"));
+        assertNull(ack.get("error"));
+        assertNull(errors.poll(200, TimeUnit.MILLISECONDS));
+        assertTrue(matchroomService.buildRoomDetails(roomId).getParticipants().stream()
+                .anyMatch(participant -> "cmd-host".equals(participant.getUsername()) && participant.isSubmittedMenu()));
+    }
+
+    @Test
+    @DisplayName("command-id 없이 보낸 명령의 ack는 commandId가 비어 있음")
+    void submitMenus_WithoutCommandId_AcksWithNullCommandId() throws Exception {
+        // given
+        StompSession session = connect("cmd-member");
+        BlockingQueue<Map<?, ?>> acks = subscribe(session, "cmd-member", "/user/queue/acks");
+        SubmitMenuRequest request = new SubmitMenuRequest();
+        request.setMenus(List.of("냉면"));
+
+        // when
+        send(session, "/app/rooms/" + roomId + "/menus", null, request);
+
+        // then
+        Map<?, ?> ack = acks.poll(5, TimeUnit.SECONDS);
+        assertNotNull(ack, "ack를 받지 못했습니다.");
+        assertTrue(ack.containsKey("commandId"));
+        assertNull(ack.get("commandId"));
+    }
+
+    @Test
+    @DisplayName("방 규칙 위반 명령은 command-id와 함께 오류를 errors 큐로 전송하고 ack는 보내지 않음")
+    void startDraw_NotHost_ErrorWithCommandId() throws Exception {
+        // given: 호스트가 아닌 멤버
+        StompSession session = connect("cmd-member");
+        BlockingQueue<Map<?, ?>> acks = subscribe(session, "cmd-member", "/user/queue/acks");
+        BlockingQueue<Map<?, ?>> errors = subscribe(session, "cmd-member", "/user/queue/errors");
+
+        // when
+        String destination = "/app/rooms/" + roomId + "/draw";
+        send(session, destination, "cmd-2", Map.of());
+
+        // then
+        Map<?, ?> error = errors.poll(5, TimeUnit.SECONDS);
+        assertNotNull(error, "오류 응답을 받지 못했습니다.");
+        assertEquals("cmd-2", error.get("commandId"));
+        assertEquals(destination, error.get("command"));
+        assertEquals("Room Error", error.get("error"));
+        assertEquals("호스트만 추첨을 시작할 수 있습니다.", error.get("message"));
+        assertNull(acks.poll(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    @DisplayName("방 멤버가 아닌 사용자의 명령은 Access Denied 오류로 응답")
+    void startDraw_NotMember_AccessDenied() throws Exception {
+        // given
+        StompSession session = connect("cmd-outsider");
+        BlockingQueue<Map<?, ?>> errors = subscribe(session, "cmd-outsider", "/user/queue/errors");
+
+        // when
+        send(session, "/app/rooms/" + roomId + "/draw", "cmd-3", Map.of());
+
+        // then
+        Map<?, ?> error = errors.poll(5, TimeUnit.SECONDS);
+        assertNotNull(error, "오류 응답을 받지 못했습니다.");
+        assertEquals("cmd-3", error.get("commandId"));
+        assertEquals("Access Denied", error.get("error"));
+    }
+}
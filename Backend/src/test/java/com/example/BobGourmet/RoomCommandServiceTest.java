@@ -0,0 +1,67 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.DTO.RoomDTO.RoomDetails;
+import com.example.BobGourmet.Exception.RoomException;
+import com.example.BobGourmet.Service.MatchroomService;
+import com.example.BobGourmet.Service.MenuService;
+import com.example.BobGourmet.Service.RoomCommandService;
+import com.example.BobGourmet.Service.RoomRateLimiter;
+import com.example.BobGourmet.Service.RoomStateService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoomCommandServiceTest {
+
+    @Mock
+    private MatchroomService matchroomService;
+
+    @Mock
+    private MenuService menuService;
+
+    @Mock
+    private RoomStateService roomStateService;
+
+    @Mock
+    private RoomRateLimiter roomRateLimiter;
+
+    @InjectMocks
+    private RoomCommandService roomCommandService;
+
+    @Test
+    @DisplayName("추첨할 메뉴가 없으면 방을 메뉴 입력 단계로 되돌리고 모든 멤버에게 방송")
+    void startDraw_NoMenus_ResetsAndBroadcasts() {
+        // given
+        RoomDetails resetDetails = new RoomDetails();
+        when(menuService.startDraw("host", "room-1")).thenThrow(new RoomException("추첨할 메뉴가 없습니다. 메뉴를 다시 제출해주세요."));
+        when(matchroomService.buildRoomDetails("room-1")).thenReturn(resetDetails);
+
+        // when
+        RoomDetails result = roomCommandService.startDraw("host", "room-1");
+
+        // then
+        assertSame(resetDetails, result);
+        verify(roomStateService).startMenuInput("room-1");
+        verify(matchroomService).broadcastRoomStateUpdate("room-1", "inputting", resetDetails);
+        verify(roomStateService, never()).startResultViewing(any(), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("그 밖의 추첨 오류는 방 상태를 바꾸지 않고 그대로 전달")
+    void startDraw_OtherRoomException_Rethrown() {
+        // given
+        when(menuService.startDraw("host", "room-1")).thenThrow(new RoomException("모든 참여자가 메뉴를 제출해야 추첨을 시작할 수 있습니다."));
+
+        // when & then
+        assertThrows(RoomException.class, () -> roomCommandService.startDraw("host", "room-1"));
+        verifyNoInteractions(roomStateService);
+        verify(matchroomService, never()).broadcastRoomStateUpdate(any(), any(), any());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.DTO.MenuDTO.SubmitMenuRequest;
+import com.example.BobGourmet.DTO.RoomDTO.CreateRoomRequest;
+import com.example.BobGourmet.DTO.RoomDTO.JoinRoomRequest;
+import com.example.BobGourmet.Entity.User;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import com.example.BobGourmet.Repository.UserRepository;
+import com.example.BobGourmet.Service.MatchroomService;
+import com.example.BobGourmet.Service.MenuService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 방 상세 조회의 조건부 응답: 변경이 없으면 304, 변경 요청이 응답한 직후에는 새 ETag로 200.
+ */
+@Testcontainers
+@SpringBootTest
+class RoomETagIntegrationTest {
+
+    private static final String HOST = "etag-host";
+    private static final String MEMBER = "etag-member";
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+    }
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private MatchroomService matchroomService;
+
+    @Autowired
+    private MenuService menuService;
+
+    @Autowired
+    private MatchRoomRepository matchRoomRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    private MockMvc mockMvc;
+    private String roomId;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+        if (userRepository.findByUsername(HOST).isEmpty()) {
+            userRepository.saveAll(List.of(new User(HOST, HOST + "@etag.test", null, "호스트"),
+                    new User(MEMBER, MEMBER + "@etag.test", null, "멤버")));
+        }
+        CreateRoomRequest createRequest = new CreateRoomRequest();
+        createRequest.setRoomName("ETag 테스트방");
+        createRequest.setMaxUsers(4);
+        createRequest.setInputDeadlineSeconds(0);
+        roomId = matchroomService.createRoom(HOST, createRequest, "127.0.0.1", 10000).getRoomId();
+        matchroomService.joinRoom(MEMBER, roomId, new JoinRoomRequest(), "127.0.0.1", 10001);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+
+    private String fetchETag(String ifNoneMatch) throws Exception {
+        var request = get("/api/MatchRooms/" + roomId);
+        if (ifNoneMatch != null) request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        String eTag = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(ifNoneMatch, eTag);
+        return eTag;
+    }
+
+    @Test
+    @WithMockUser(username = HOST)
+    @DisplayName("변경이 없으면 304, 변경 직후에는 새 ETag로 200")
+    void getRoomInfo_RevalidatesAgainstSynchronousVersion() throws Exception {
+        // given: 첫 조회
+        String first = fetchETag(null);
+
+        // 변경이 없으면 304
+        mockMvc.perform(get("/api/MatchRooms/" + roomId).header(HttpHeaders.IF_NONE_MATCH, first))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, first));
+
+        // when: 메뉴 제출이 응답한 바로 다음 조회
+        SubmitMenuRequest submitRequest = new SubmitMenuRequest();
+        submitRequest.setMenus(List.of("김치찌개"));
+        menuService.submitMenus(MEMBER, roomId, submitRequest);
+
+        // then: 이전 ETag로 재검증해도 새 본문과 새 ETag
+        String second = fetchETag(first);
+        mockMvc.perform(get("/api/MatchRooms/" + roomId).header(HttpHeaders.IF_NONE_MATCH, second))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @WithMockUser(username = HOST)
+    @DisplayName("멤버의 접속 상태가 바뀌면 방 버전과 무관하게 새 ETag")
+    void getRoomInfo_PresenceChangeChangesETag() throws Exception {
+        // given: 멤버 하트비트가 온라인 기준보다 오래된 상태로 조회
+        matchRoomRepository.refreshHeartbeats(List.of(MEMBER), 0L);
+        String away = fetchETag(null);
+
+        // when: 스윕이 알리기 전에 하트비트만 갱신
+        matchRoomRepository.refreshHeartbeats(List.of(MEMBER), System.currentTimeMillis());
+
+        // then
+        fetchETag(away);
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Service.RoomEventPipeline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RoomEventPipelineTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final CountDownLatch release = new CountDownLatch(1);
+    private RoomEventPipeline pipeline;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        if (pipeline != null) pipeline.shutdown();
+    }
+
+    // one lane, so a blocked task holds every room behind it until release
+    private RoomEventPipeline newPipeline(int roomCapacity, String dropPolicy) {
+        return newPipeline(roomCapacity, roomCapacity * 2, dropPolicy);
+    }
+
+    private RoomEventPipeline newPipeline(int roomCapacity, int roomHardLimit, String dropPolicy) {
+        pipeline = new RoomEventPipeline(meterRegistry, 1, roomCapacity, roomHardLimit, dropPolicy);
+        return pipeline;
+    }
+
+    private void blockLane(String roomId) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        pipeline.publish(roomId, () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitDrained(String... roomIds) throws InterruptedException {
+        release.countDown();
+        for (String roomId : roomIds) {
+            CountDownLatch done = new CountDownLatch(1);
+            pipeline.publish(roomId, done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private double dropped() {
+        return meterRegistry.find("room.events.dropped").counter().count();
+    }
+
+    private double rejected() {
+        return meterRegistry.find("room.events.rejected").counter().count();
+    }
+
+    @Test
+    @DisplayName("같은 방의 이벤트는 발행 순서대로 실행")
+    void publish_RunsRoomEventsInOrder() throws InterruptedException {
+        // given
+        newPipeline(100, "drop-oldest");
+        blockLane("room-1");
+
+        // when
+        for (int i = 0; i < 50; i++) {
+            String event = "event-" + i;
+            pipeline.publish("room-1", () -> executed.add(event));
+        }
+        awaitDrained("room-1");
+
+        // then
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) expected.add("event-" + i);
+        assertEquals(expected, executed);
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 가장 오래된 델타만 버리고 종료 이벤트는 유지")
+    void publishDroppable_DropOldest_KeepsEssentialEvents() throws InterruptedException {
+        // given: 용량 3인 방 큐
+        newPipeline(3, "drop-oldest");
+        blockLane("room-1");
+
+        // when
+        pipeline.publishDroppable("room-1", 1, () -> executed.add("delta-1"));
+        pipeline.publish("room-1", () -> executed.add("closed"));
+        pipeline.publishDroppable("room-1", 2, () -> executed.add("delta-2"));
+        pipeline.publishDroppable("room-1", 3, () -> executed.add("delta-3"));
+        pipeline.publishDroppable("room-1", 4, () -> executed.add("delta-4"));
+        awaitDrained("room-1");
+
+        // then
+        assertEquals(List.of("closed", "delta-3", "delta-4"), executed);
+        assertEquals(2.0, dropped());
+    }
+
+    @Test
+    @DisplayName("drop-newest 정책은 새 델타를 버리고 큐에 쌓인 이벤트를 유지")
+    void publishDroppable_DropNewest_DiscardsIncomingDelta() throws InterruptedException {
+        // given
+        newPipeline(2, "drop-newest");
+        blockLane("room-1");
+
+        // when
+        pipeline.publishDroppable("room-1", 1, () -> executed.add("delta-1"));
+        pipeline.publishDroppable("room-1", 2, () -> executed.add("delta-2"));
+        pipeline.publishDroppable("room-1", 3, () -> executed.add("delta-3"));
+        pipeline.publish("room-1", () -> executed.add("draw_result"));
+        awaitDrained("room-1");
+
+        // then: 필수 이벤트는 용량을 넘어도 큐에 들어감
+        assertEquals(List.of("delta-1", "delta-2", "draw_result"), executed);
+        assertEquals(1.0, dropped());
+    }
+
+    @Test
+    @DisplayName("같은 키의 스냅샷은 큐 위치를 유지한 채 최신 것으로 교체")
+    void publishConflated_ReplacesQueuedSnapshotInPlace() throws InterruptedException {
+        // given
+        newPipeline(100, "drop-oldest");
+        blockLane("room-1");
+
+        // when
+        pipeline.publishConflated("room-1", "menuStatus", () -> executed.add("menuStatus-1"));
+        pipeline.publish("room-1", () -> executed.add("closed"));
+        pipeline.publishConflated("room-1", "menuStatus", () -> executed.add("menuStatus-2"));
+        awaitDrained("room-1");
+
+        // then
+        assertEquals(List.of("menuStatus-2", "closed"), executed);
+        assertEquals(1.0, meterRegistry.find("room.events.conflated").counter().count());
+    }
+
+    @Test
+    @DisplayName("한 방의 큐가 넘쳐도 다른 방의 이벤트는 버려지지 않음")
+    void publishDroppable_HotRoomDoesNotEvictOtherRooms() throws InterruptedException {
+        // given: 같은 레인을 쓰는 두 방
+        newPipeline(10, "drop-oldest");
+        blockLane("hot-room");
+        pipeline.publishDroppable("quiet-room", 1, () -> executed.add("quiet-delta"));
+
+        // when
+        for (int i = 0; i < 1000; i++) {
+            pipeline.publishDroppable("hot-room", i + 1, () -> executed.add("hot-delta"));
+        }
+        awaitDrained("hot-room", "quiet-room");
+
+        // then
+        assertTrue(executed.contains("quiet-delta"));
+        assertEquals(10, executed.stream().filter("hot-delta"::equals).count());
+        assertEquals(990.0, dropped());
+    }
+
+    @Test
+    @DisplayName("호출자가 먼저 매긴 버전이 큐 도착 순서와 달라도 버전 순서대로 실행")
+    void publishDroppable_QueuesInSequenceOrder() throws InterruptedException {
+        // given
+        newPipeline(10_000, "drop-oldest");
+        blockLane("room-1");
+        AtomicLong version = new AtomicLong();
+        List<Long> sent = Collections.synchronizedList(new ArrayList<>());
+
+        // when: 여러 스레드가 잠금 밖에서 버전을 매긴 뒤 같은 방에 동시에 발행
+        List<Thread> publishers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread publisher = new Thread(() -> {
+                for (int i = 0; i < 250; i++) {
+                    long assigned = version.incrementAndGet();
+                    pipeline.publishDroppable("room-1", assigned, () -> sent.add(assigned));
+                }
+            });
+            publishers.add(publisher);
+            publisher.start();
+        }
+        for (Thread publisher : publishers) publisher.join();
+        awaitDrained("room-1");
+
+        // then
+        assertEquals(1000, sent.size());
+        for (int i = 0; i < sent.size(); i++) {
+            assertEquals(i + 1, sent.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("늦게 도착한 낮은 버전은 더 높은 버전 앞에 들어가지만 먼저 발행된 필수 이벤트는 앞지르지 않음")
+    void publishSequenced_OrdersBySequenceAfterUnsequencedEvents() throws InterruptedException {
+        // given
+        newPipeline(100, "drop-oldest");
+        blockLane("lobby");
+
+        // when
+        pipeline.publishSequenced("lobby", 3, () -> executed.add("v3"));
+        pipeline.publish("lobby", () -> executed.add("closed"));
+        pipeline.publishSequenced("lobby", 5, () -> executed.add("v5"));
+        pipeline.publishSequenced("lobby", 4, () -> executed.add("v4"));
+        awaitDrained("lobby");
+
+        // then
+        assertEquals(List.of("v3", "closed", "v4", "v5"), executed);
+    }
+
+    @Test
+    @DisplayName("순서 보장 발행은 델타 용량을 넘어도 버려지지 않음")
+    void publishSequenced_NotDroppedPastRoomCapacity() throws InterruptedException {
+        // given: 델타 용량 2, 최대 10인 방 큐
+        newPipeline(2, 10, "drop-oldest");
+        blockLane("lobby");
+
+        // when
+        for (int i = 1; i <= 5; i++) {
+            String event = "v" + i;
+            assertTrue(pipeline.publishSequenced("lobby", i, () -> executed.add(event)));
+        }
+        awaitDrained("lobby");
+
+        // then
+        assertEquals(List.of("v1", "v2", "v3", "v4", "v5"), executed);
+        assertEquals(0.0, dropped());
+    }
+
+    @Test
+    @DisplayName("최대 길이에 이른 방 큐는 델타를 먼저 비우고, 비울 델타가 없으면 필수 이벤트와 새 스냅샷도 거부")
+    void publish_HardLimitRejectsOnceNoDeltaIsLeft() throws InterruptedException {
+        // given: 델타 용량 2, 최대 4인 방 큐에 델타 2개와 필수 이벤트 2개
+        newPipeline(2, 4, "drop-newest");
+        blockLane("room-1");
+        pipeline.publishDroppable("room-1", 1, () -> executed.add("delta-1"));
+        pipeline.publishDroppable("room-1", 2, () -> executed.add("delta-2"));
+        pipeline.publish("room-1", () -> executed.add("state-1"));
+        pipeline.publish("room-1", () -> executed.add("state-2"));
+
+        // when
+        boolean drawAccepted = pipeline.publish("room-1", () -> executed.add("draw_result"));
+        boolean closedAccepted = pipeline.publish("room-1", () -> executed.add("closed"));
+        boolean snapshotAccepted = pipeline.publishConflated("room-1", "menuStatus", () -> executed.add("menuStatus"));
+        boolean deltaAccepted = pipeline.publishDroppable("room-1", 3, () -> executed.add("delta-3"));
+        awaitDrained("room-2"); // room-1 is full; the other room on the lane drains after it
+
+        // then: 가장 오래된 델타부터 자리를 내주고, 그 뒤로는 거부
+        assertTrue(drawAccepted);
+        assertTrue(closedAccepted);
+        assertFalse(snapshotAccepted);
+        assertFalse(deltaAccepted);
+        assertEquals(List.of("state-1", "state-2", "draw_result", "closed"), executed);
+        assertEquals(3.0, dropped());
+        assertEquals(1.0, rejected());
+        assertEquals(0, pipeline.getQueueDepth());
+    }
+}
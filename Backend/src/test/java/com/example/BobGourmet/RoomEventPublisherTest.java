@@ -0,0 +1,141 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.DTO.RoomDTO.RoomDelta;
+import com.example.BobGourmet.DTO.WebSocketMessage;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import com.example.BobGourmet.Service.RoomEventPipeline;
+import com.example.BobGourmet.Service.RoomEventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoomEventPublisherTest {
+
+    @Mock
+    private MatchRoomRepository matchRoomRepository;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private RoomEventPipeline eventPipeline;
+
+    private RoomEventPublisher roomEventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        roomEventPublisher = new RoomEventPublisher(matchRoomRepository, messagingTemplate, eventPipeline, "full", 60000);
+    }
+
+    @Test
+    @DisplayName("방 모드는 한 번만 읽고 이후 이벤트에서는 캐시를 사용")
+    void isLargeRoom_ReadsModeOnce() {
+        // given
+        when(matchRoomRepository.isLargeRoom("room-1")).thenReturn(false);
+
+        // when
+        roomEventPublisher.publishDelta("room-1", RoomEventPublisher.OP_MENU_RECOMMENDED, Map.of());
+        roomEventPublisher.publishDelta("room-1", RoomEventPublisher.OP_MENU_RECOMMENDED, Map.of());
+
+        // then
+        assertFalse(roomEventPublisher.isLargeRoom("room-1"));
+        verify(matchRoomRepository, times(1)).isLargeRoom("room-1");
+        verify(matchRoomRepository, times(2)).incrementRoomVersion("room-1");
+        verifyNoInteractions(eventPipeline);
+    }
+
+    // 파이프라인에 넘긴 전송 작업을 실행해 실제로 방송된 델타를 꺼낸다
+    private RoomDelta runQueuedDelta(String roomId, long version) {
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(eventPipeline).publishDroppable(eq(roomId), eq(version), task.capture());
+        task.getValue().run();
+        ArgumentCaptor<Object> message = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/room/" + roomId + "/deltas"), message.capture());
+        WebSocketMessage<?> sent = (WebSocketMessage<?>) message.getValue();
+        assertEquals(RoomEventPublisher.DELTA_EVENT_TYPE, sent.getType());
+        return (RoomDelta) sent.getPayload();
+    }
+
+    @Test
+    @DisplayName("delta 모드에서는 올린 버전으로 델타를 파이프라인에 넣어 deltas 토픽으로 방송")
+    void publishDelta_DeltaMode_QueuesVersionedDelta() {
+        // given
+        roomEventPublisher = new RoomEventPublisher(matchRoomRepository, messagingTemplate, eventPipeline, "delta", 60000);
+        when(matchRoomRepository.incrementRoomVersion("room-1")).thenReturn(7L);
+
+        // when
+        roomEventPublisher.publishDelta("room-1", RoomEventPublisher.OP_MENU_RECOMMENDED, Map.of("menu", "김치찌개", "count", 2));
+
+        // then: 버전은 호출 스레드에서 올리고 방송만 큐에 들어감
+        verifyNoInteractions(messagingTemplate);
+        RoomDelta delta = runQueuedDelta("room-1", 7L);
+        assertEquals("room-1", delta.getRoomId());
+        assertEquals(7L, delta.getVersion());
+        assertEquals(RoomEventPublisher.OP_MENU_RECOMMENDED, delta.getOp());
+        assertEquals(Map.of("menu", "김치찌개", "count", 2), delta.getData());
+        assertFalse(roomEventPublisher.isFullSnapshotEnabled());
+        verify(matchRoomRepository, never()).isLargeRoom(any());
+    }
+
+    @Test
+    @DisplayName("full 모드라도 대형 방은 델타로 방송")
+    void publishDelta_FullModeLargeRoom_QueuesDelta() {
+        // given
+        when(matchRoomRepository.isLargeRoom("room-1")).thenReturn(true);
+        when(matchRoomRepository.incrementRoomVersion("room-1")).thenReturn(3L);
+
+        // when
+        roomEventPublisher.publishDelta("room-1", RoomEventPublisher.OP_USER_LEFT, Map.of("username", "user1"));
+
+        // then
+        assertEquals(RoomEventPublisher.OP_USER_LEFT, runQueuedDelta("room-1", 3L).getOp());
+        assertTrue(roomEventPublisher.isFullSnapshotEnabled());
+    }
+
+    @Test
+    @DisplayName("both 모드는 전체 스냅샷과 델타를 모두 보냄")
+    void publishDelta_BothMode_SnapshotsAndDeltas() {
+        // given
+        roomEventPublisher = new RoomEventPublisher(matchRoomRepository, messagingTemplate, eventPipeline, "both", 60000);
+        when(matchRoomRepository.incrementRoomVersion("room-1")).thenReturn(1L);
+
+        // when
+        roomEventPublisher.publishDelta("room-1", RoomEventPublisher.OP_STATE_CHANGED, Map.of("state", "drawing"));
+
+        // then
+        assertTrue(roomEventPublisher.isFullSnapshotEnabled());
+        assertEquals(1L, runQueuedDelta("room-1", 1L).getVersion());
+    }
+
+    @Test
+    @DisplayName("캐시 유효 시간이 지나면 방 모드를 다시 읽음")
+    void isLargeRoom_ExpiredCache_ReadsAgain() {
+        // given: 유효 시간이 음수면 항상 만료
+        roomEventPublisher = new RoomEventPublisher(matchRoomRepository, messagingTemplate, eventPipeline, "full", -1);
+        when(matchRoomRepository.isLargeRoom("room-1")).thenReturn(false, true);
+
+        // when & then
+        assertFalse(roomEventPublisher.isLargeRoom("room-1"));
+        assertTrue(roomEventPublisher.isLargeRoom("room-1"));
+        verify(matchRoomRepository, times(2)).isLargeRoom("room-1");
+    }
+
+    @Test
+    @DisplayName("알 수 없는 이벤트 모드는 시작 시 거부")
+    void constructor_UnknownMode_Throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new RoomEventPublisher(matchRoomRepository, messagingTemplate, eventPipeline, "deltas", 60000));
+    }
+}
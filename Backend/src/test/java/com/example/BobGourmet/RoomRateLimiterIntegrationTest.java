@@ -0,0 +1,117 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Exception.RateLimitExceededException;
+import com.example.BobGourmet.Service.RoomRateLimiter;
+import com.example.BobGourmet.Service.RoomRateLimiter.Action;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sliding-window limits against a real Redis: the acquire script, the per-user and per-room windows and the large-room exemption.
+ */
+@Testcontainers
+@SpringBootTest(properties = {
+        "app.ratelimit.enabled=true",
+        "app.ratelimit.window-ms=10000",
+        "app.ratelimit.vote.per-user=2",
+        "app.ratelimit.vote.per-room=3"
+})
+class RoomRateLimiterIntegrationTest {
+
+    private static final long WINDOW_MS = 10000;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+    }
+
+    @Autowired
+    private RoomRateLimiter roomRateLimiter;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @AfterEach
+    void tearDown() {
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+
+    private Long windowSize(String key) {
+        return stringRedisTemplate.opsForZSet().zCard(key);
+    }
+
+    @Test
+    @DisplayName("사용자 한도를 넘으면 가장 오래된 요청이 창을 벗어날 때까지의 시간과 함께 거절")
+    void check_UserLimitHit_ReportsRetryAfter() {
+        // given: 사용자 한도 2
+        roomRateLimiter.check(Action.VOTE, "user1", "room-1");
+        roomRateLimiter.check(Action.VOTE, "user1", "room-1");
+
+        // when
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> roomRateLimiter.check(Action.VOTE, "user1", "room-1"));
+
+        // then: 방금 시작한 창이므로 거의 창 길이만큼 기다려야 함
+        assertTrue(ex.getRetryAfterMs() > WINDOW_MS - 2000 && ex.getRetryAfterMs() <= WINDOW_MS,
+                "retryAfterMs=" + ex.getRetryAfterMs());
+        assertEquals(2L, windowSize("ratelimit:vote:user:user1"));
+        assertEquals(2L, windowSize("ratelimit:vote:room:room-1"));
+    }
+
+    @Test
+    @DisplayName("방 한도에 걸린 요청은 사용자 한도를 소모하지 않음")
+    void check_RoomLimitHit_DoesNotConsumeUserBudget() {
+        // given: 방 한도 3을 다른 두 사용자가 채움
+        roomRateLimiter.check(Action.VOTE, "user1", "room-1");
+        roomRateLimiter.check(Action.VOTE, "user1", "room-1");
+        roomRateLimiter.check(Action.VOTE, "user2", "room-1");
+
+        // when
+        RateLimitExceededException ex = assertThrows(RateLimitExceededException.class,
+                () -> roomRateLimiter.check(Action.VOTE, "user3", "room-1"));
+
+        // then: user3의 창은 비어 있고 다른 방에서는 한도 전부를 쓸 수 있음
+        assertTrue(ex.getRetryAfterMs() > 0);
+        assertEquals(0L, windowSize("ratelimit:vote:user:user3"));
+        roomRateLimiter.check(Action.VOTE, "user3", "room-2");
+        roomRateLimiter.check(Action.VOTE, "user3", "room-2");
+        assertThrows(RateLimitExceededException.class, () -> roomRateLimiter.check(Action.VOTE, "user3", "room-2"));
+    }
+
+    @Test
+    @DisplayName("대규모 방은 방 한도 없이 사용자 한도만 적용")
+    void check_LargeRoom_OnlyUserLimitApplies() {
+        // given
+        stringRedisTemplate.opsForHash().put("room:large-1:details", "mode", "large");
+
+        // when: 방 한도 3을 훨씬 넘는 10명의 투표
+        for (int i = 0; i < 10; i++) {
+            roomRateLimiter.check(Action.VOTE, "user" + i, "large-1");
+        }
+
+        // then
+        assertEquals(Boolean.FALSE, stringRedisTemplate.hasKey("ratelimit:vote:room:large-1"));
+        roomRateLimiter.check(Action.VOTE, "user0", "large-1");
+        assertThrows(RateLimitExceededException.class, () -> roomRateLimiter.check(Action.VOTE, "user0", "large-1"));
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Repository.LeaseRepository;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import com.example.BobGourmet.Repository.UserRepository;
+import com.example.BobGourmet.Service.ClusterLeaseService;
+import com.example.BobGourmet.Service.LobbyService;
+import com.example.BobGourmet.Service.MatchroomService;
+import com.example.BobGourmet.Service.MenuService;
+import com.example.BobGourmet.Service.RoomBroadcastCoalescer;
+import com.example.BobGourmet.Service.RoomEventPipeline;
+import com.example.BobGourmet.Service.RoomEventPublisher;
+import com.example.BobGourmet.Service.RoomReaperService;
+import com.example.BobGourmet.Service.RoomStateService;
+import com.example.BobGourmet.utils.ClusterNodeId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoomReaperServiceTest {
+
+    @Mock
+    private MatchRoomRepository matchRoomRepository;
+
+    @Mock
+    private LeaseRepository leaseRepository;
+
+    @Mock
+    private RoomStateService roomStateService;
+
+    @Mock
+    private RoomEventPipeline eventPipeline;
+
+    @Mock
+    private LobbyService lobbyService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RoomReaperService roomReaperService;
+
+    @BeforeEach
+    void setUp() {
+        when(leaseRepository.tryAcquire(anyString(), anyString(), anyLong())).thenReturn(1L);
+        ClusterLeaseService leaseService = new ClusterLeaseService(leaseRepository, new ClusterNodeId("node-a"), 15000, 1, 0);
+        // 실제 방 닫기 경로까지 확인하도록 MatchroomService는 목 협력 객체로 직접 생성
+        MatchroomService matchroomService = new MatchroomService(matchRoomRepository, mock(UserRepository.class),
+                mock(PasswordEncoder.class), mock(SimpMessagingTemplate.class), roomStateService, mock(MenuService.class),
+                leaseService, mock(RoomEventPublisher.class), mock(RoomBroadcastCoalescer.class), eventPipeline, lobbyService);
+        roomReaperService = new RoomReaperService(matchRoomRepository, matchroomService, leaseService,
+                meterRegistry, 1800000, 50);
+    }
+
+    private double reapedRooms() {
+        return meterRegistry.find("rooms.reaped").counter().count();
+    }
+
+    private void verifyClosed(String roomId) {
+        verify(roomStateService).cancelRoomTimers(roomId);
+        verify(matchRoomRepository).deleteRoomData(roomId);
+        verify(matchRoomRepository).removeRoomFromActiveList(roomId);
+        verify(lobbyService).publishRoomClosed(roomId);
+        verify(eventPipeline).publish(eq(roomId), any(Runnable.class));
+    }
+
+    @Test
+    @DisplayName("인덱스가 없는 기존 방은 첫 실행에서 한 번만 인덱싱")
+    void reapIdleRooms_BackfillsIndexesOnce() {
+        // given
+        when(matchRoomRepository.backfillRoomLastActivity(anyLong())).thenReturn(3L);
+        when(matchRoomRepository.findIdleRoomIds(anyLong(), eq(50))).thenReturn(List.of());
+
+        // when
+        roomReaperService.reapIdleRooms();
+        roomReaperService.reapIdleRooms();
+
+        // then
+        verify(matchRoomRepository, times(1)).backfillRoomLastActivity(anyLong());
+        verify(matchRoomRepository, times(1)).backfillFreeSlots();
+        verify(matchRoomRepository, times(2)).findIdleRoomIds(anyLong(), eq(50));
+    }
+
+    @Test
+    @DisplayName("유휴 시간을 넘긴 방은 남은 멤버의 위치를 정리하고 닫은 뒤 개수를 기록")
+    void reapIdleRooms_ExpiredRoom_ClosedWithMembersCleanedUp() {
+        // given
+        long before = System.currentTimeMillis();
+        when(leaseRepository.isFenceCurrent(anyString(), anyLong())).thenReturn(true);
+        when(matchRoomRepository.findIdleRoomIds(anyLong(), eq(50))).thenReturn(List.of("room-1"));
+        when(matchRoomRepository.getRoomLastActivity("room-1")).thenReturn(Optional.of(before - 3600000));
+        when(matchRoomRepository.getRoomUsers("room-1")).thenReturn(Set.of("user1", "user2"));
+
+        // when
+        roomReaperService.reapIdleRooms();
+
+        // then: 기준 시각은 지금부터 유휴 시간만큼 이전
+        verify(matchRoomRepository).findIdleRoomIds(longThat(idleSince ->
+                idleSince >= before - 1800000 && idleSince <= System.currentTimeMillis() - 1800000), eq(50));
+        verifyClosed("room-1");
+        verify(matchRoomRepository).removeUsersLocation(argThat(users -> users.size() == 2
+                && users.containsAll(List.of("user1", "user2"))));
+        verify(matchRoomRepository).removeUserEndpoint("user1");
+        verify(matchRoomRepository).removeUserEndpoint("user2");
+        assertEquals(1.0, reapedRooms());
+    }
+
+    @Test
+    @DisplayName("멤버가 모두 사라진 빈 방도 닫고, 정리할 사용자 위치는 건드리지 않음")
+    void reapIdleRooms_EmptyRoom_Closed() {
+        // given: 활동 기록이 없는 빈 방
+        when(leaseRepository.isFenceCurrent(anyString(), anyLong())).thenReturn(true);
+        when(matchRoomRepository.findIdleRoomIds(anyLong(), eq(50))).thenReturn(List.of("empty-room"));
+        when(matchRoomRepository.getRoomLastActivity("empty-room")).thenReturn(Optional.empty());
+        when(matchRoomRepository.getRoomUsers("empty-room")).thenReturn(Set.of());
+
+        // when
+        roomReaperService.reapIdleRooms();
+
+        // then
+        verifyClosed("empty-room");
+        verify(matchRoomRepository, never()).removeUsersLocation(any());
+        verify(matchRoomRepository, never()).removeUserEndpoint(any());
+        assertEquals(1.0, reapedRooms());
+    }
+
+    @Test
+    @DisplayName("조회 이후에 활동이 생긴 방은 닫지 않고 개수에도 넣지 않음")
+    void reapIdleRooms_TouchedSinceQuery_Skipped() {
+        // given
+        when(leaseRepository.isFenceCurrent(anyString(), anyLong())).thenReturn(true);
+        when(matchRoomRepository.findIdleRoomIds(anyLong(), eq(50))).thenReturn(List.of("room-1"));
+        when(matchRoomRepository.getRoomLastActivity("room-1")).thenReturn(Optional.of(System.currentTimeMillis()));
+
+        // when
+        roomReaperService.reapIdleRooms();
+
+        // then
+        verify(matchRoomRepository, never()).deleteRoomData(any());
+        verifyNoInteractions(lobbyService, eventPipeline);
+        assertEquals(0.0, reapedRooms());
+    }
+
+    @Test
+    @DisplayName("한 방을 닫다 실패해도 같은 배치의 나머지 방은 계속 닫음")
+    void reapIdleRooms_OneRoomFails_OthersReaped() {
+        // given
+        when(leaseRepository.isFenceCurrent(anyString(), anyLong())).thenReturn(true);
+        when(matchRoomRepository.findIdleRoomIds(anyLong(), eq(50))).thenReturn(List.of("broken-room", "room-2"));
+        when(matchRoomRepository.getRoomLastActivity(anyString())).thenReturn(Optional.empty());
+        when(matchRoomRepository.getRoomUsers("broken-room")).thenThrow(new IllegalStateException("redis down"));
+        when(matchRoomRepository.getRoomUsers("room-2")).thenReturn(Set.of());
+
+        // when
+        roomReaperService.reapIdleRooms();
+
+        // then
+        verify(matchRoomRepository, never()).deleteRoomData("broken-room");
+        verifyClosed("room-2");
+        assertEquals(1.0, reapedRooms());
+    }
+
+    @Test
+    @DisplayName("리스를 잃으면 남은 방을 닫지 않고 멈춤")
+    void reapIdleRooms_LeaseLost_Stops() {
+        // given
+        when(leaseRepository.isFenceCurrent(anyString(), anyLong())).thenReturn(false);
+        when(matchRoomRepository.findIdleRoomIds(anyLong(), eq(50))).thenReturn(List.of("room-1", "room-2"));
+
+        // when
+        roomReaperService.reapIdleRooms();
+
+        // then
+        verify(matchRoomRepository, never()).getRoomLastActivity(any());
+        verify(matchRoomRepository, never()).deleteRoomData(any());
+        assertEquals(0.0, reapedRooms());
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.DTO.MenuDTO.MenuStatus;
+import com.example.BobGourmet.DTO.RoomDTO.RoomDetails;
+import com.example.BobGourmet.DTO.RoomDTO.RoomSnapshot;
+import com.example.BobGourmet.Repository.MatchRoomRepository;
+import com.example.BobGourmet.Service.MatchroomService;
+import com.example.BobGourmet.Service.MenuService;
+import com.example.BobGourmet.Service.RoomSnapshotCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoomSnapshotCacheTest {
+
+    @Mock
+    private MatchRoomRepository matchRoomRepository;
+
+    @Mock
+    private MatchroomService matchroomService;
+
+    @Mock
+    private MenuService menuService;
+
+    private RoomSnapshotCache roomSnapshotCache;
+
+    @BeforeEach
+    void setUp() {
+        when(matchRoomRepository.getRoomVersion(anyString())).thenReturn(7L);
+        lenient().when(menuService.buildMenuStatus(anyString())).thenReturn(new MenuStatus());
+        roomSnapshotCache = new RoomSnapshotCache(matchRoomRepository, matchroomService, menuService, new SimpleMeterRegistry(), 60000);
+    }
+
+    @Test
+    @DisplayName("느린 방의 스냅샷 생성 중에도 다른 방은 기다리지 않고, 같은 방 구독자들은 한 번의 생성을 공유")
+    void get_BuildsOutsideTheMapAndSharesOneBuildPerRoom() throws Exception {
+        // given: room-1의 생성은 release 전까지 멈춤
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(matchroomService.buildRoomDetails("room-1")).thenAnswer(invocation -> {
+            building.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new RoomDetails();
+        });
+        when(matchroomService.buildRoomDetails("room-2")).thenReturn(new RoomDetails());
+
+        // when
+        CompletableFuture<RoomSnapshot> first = CompletableFuture.supplyAsync(() -> roomSnapshotCache.get("room-1"));
+        assertTrue(building.await(5, TimeUnit.SECONDS));
+        CompletableFuture<RoomSnapshot> second = CompletableFuture.supplyAsync(() -> roomSnapshotCache.get("room-1"));
+        RoomSnapshot other = roomSnapshotCache.get("room-2");
+
+        // then
+        assertEquals(7L, other.getVersion());
+        assertFalse(second.isDone());
+        release.countDown();
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        verify(matchroomService, times(1)).buildRoomDetails("room-1");
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Repository.RoomTimerRepository;
+import com.example.BobGourmet.Service.ClusterLeaseService;
+import com.example.BobGourmet.Service.RoomTimerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RoomTimerServiceTest {
+
+    @Mock
+    private RoomTimerRepository roomTimerRepository;
+
+    @Mock
+    private ClusterLeaseService clusterLeaseService;
+
+    private RoomTimerService roomTimerService;
+
+    @BeforeEach
+    void setUp() {
+        roomTimerService = new RoomTimerService(roomTimerRepository, clusterLeaseService, new SimpleMeterRegistry(),
+                10, 64, 1, 2000, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        roomTimerService.shutdown();
+    }
+
+    @Test
+    @DisplayName("타이머가 만료되면 클레임 후 핸들러 실행")
+    void schedule_FiresHandlerAfterClaim() throws InterruptedException {
+        // given
+        when(roomTimerRepository.claim(eq("input_deadline|room-1"), anyLong())).thenReturn(true);
+        CountDownLatch fired = new CountDownLatch(1);
+        AtomicReference<String> target = new AtomicReference<>();
+        roomTimerService.registerHandler("input_deadline", roomId -> {
+            target.set(roomId);
+            fired.countDown();
+        });
+
+        // when
+        long dueAt = roomTimerService.schedule("input_deadline", "room-1", 50);
+
+        // then
+        assertTrue(fired.await(2, TimeUnit.SECONDS));
+        assertEquals("room-1", target.get());
+        verify(roomTimerRepository).schedule("input_deadline|room-1", dueAt);
+    }
+
+    @Test
+    @DisplayName("다른 노드가 먼저 클레임하면 핸들러를 실행하지 않음")
+    void schedule_SkipsWhenClaimLost() throws InterruptedException {
+        // given
+        CountDownLatch claimed = new CountDownLatch(1);
+        when(roomTimerRepository.claim(eq("result_view_end|room-2"), anyLong())).thenAnswer(invocation -> {
+            claimed.countDown();
+            return false;
+        });
+        // 핸들러는 타이머 스레드에서 돌기 때문에 fail()이 삼켜지므로, 실행 여부를 기록해 테스트 스레드에서 검증
+        AtomicReference<String> unexpectedRun = new AtomicReference<>();
+        roomTimerService.registerHandler("result_view_end", unexpectedRun::set);
+
+        // when
+        roomTimerService.schedule("result_view_end", "room-2", 20);
+
+        // then
+        assertTrue(claimed.await(2, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertNull(unexpectedRun.get(), "클레임을 잃은 타이머의 핸들러가 실행되었습니다.");
+    }
+
+    @Test
+    @DisplayName("취소된 타이머는 실행되지 않고 Redis에서도 제거")
+    void cancel_PreventsFiring() throws InterruptedException {
+        // given
+        AtomicReference<String> unexpectedRun = new AtomicReference<>();
+        roomTimerService.registerHandler("input_deadline", unexpectedRun::set);
+        roomTimerService.schedule("input_deadline", "room-3", 100);
+
+        // when
+        roomTimerService.cancel("input_deadline", "room-3");
+        Thread.sleep(250);
+
+        // then
+        verify(roomTimerRepository).cancel("input_deadline|room-3");
+        verify(roomTimerRepository, never()).claim(eq("input_deadline|room-3"), anyLong());
+        assertNull(unexpectedRun.get(), "취소된 타이머의 핸들러가 실행되었습니다.");
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Repository.SessionDirectoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-node room session counts against a real Redis: the increment script removes a room at zero
+ * without losing an increment that races with the decrement.
+ */
+@Testcontainers
+@SpringBootTest
+class SessionDirectoryIntegrationTest {
+
+    private static final String NODE = "node-test";
+    private static final String ROOM_SESSIONS_KEY = "ws:room-sessions:" + NODE;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+    }
+
+    @Autowired
+    private SessionDirectoryRepository sessionDirectoryRepository;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @AfterEach
+    void tearDown() {
+        stringRedisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+    }
+
+    @Test
+    @DisplayName("마지막 세션이 빠지면 방 항목을 지우고, 남은 세션이 있으면 개수를 유지")
+    void incrementRoomSessions_RemovesRoomAtZero() {
+        // given
+        sessionDirectoryRepository.incrementRoomSessions(NODE, "room-1", 1);
+        sessionDirectoryRepository.incrementRoomSessions(NODE, "room-1", 1);
+
+        // when & then
+        sessionDirectoryRepository.incrementRoomSessions(NODE, "room-1", -1);
+        assertEquals("1", stringRedisTemplate.opsForHash().get(ROOM_SESSIONS_KEY, "room-1"));
+        assertEquals(1, sessionDirectoryRepository.countRoomSessions("room-1", List.of(NODE)));
+
+        sessionDirectoryRepository.incrementRoomSessions(NODE, "room-1", -1);
+        assertFalse(stringRedisTemplate.opsForHash().hasKey(ROOM_SESSIONS_KEY, "room-1"));
+        assertEquals(0, sessionDirectoryRepository.countRoomSessions("room-1", List.of(NODE)));
+    }
+
+    @Test
+    @DisplayName("다른 세션이 나가며 방 항목을 지우는 동안 들어온 세션의 개수가 사라지지 않음")
+    void incrementRoomSessions_ConcurrentJoinAndLeave_NeverLosesJoin() throws Exception {
+        // when: 8개 스레드가 각각 들어와서 자기 세션이 집계되는지 확인하고 나가기를 반복
+        AtomicInteger lostJoins = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < 200; i++) {
+                    sessionDirectoryRepository.incrementRoomSessions(NODE, "room-1", 1);
+                    if (sessionDirectoryRepository.countRoomSessions("room-1", List.of(NODE)) < 1) {
+                        lostJoins.incrementAndGet();
+                    }
+                    sessionDirectoryRepository.incrementRoomSessions(NODE, "room-1", -1);
+                }
+            }, executor));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(60, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then: 모두 나간 뒤에는 항목이 남지 않음
+        assertEquals(0, lostJoins.get());
+        assertFalse(stringRedisTemplate.opsForHash().hasKey(ROOM_SESSIONS_KEY, "room-1"));
+    }
+}
@@ -0,0 +1,292 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Service.SessionPayloadEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SessionPayloadEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+    private SessionPayloadEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new SessionPayloadEncoder(jsonMapper, meterRegistry, 1024);
+    }
+
+    private void connect(String sessionId, boolean nativeWebSocket, String format, String encoding) {
+        Map<String, Object> attributes = new HashMap<>();
+        if (nativeWebSocket) {
+            attributes.put(SessionPayloadEncoder.NATIVE_WEBSOCKET_ATTRIBUTE, true);
+        }
+        connect(sessionId, attributes, format, encoding);
+    }
+
+    private void connect(String sessionId, Map<String, Object> attributes, String format, String encoding) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId(sessionId);
+        accessor.setSessionAttributes(attributes);
+        if (format != null) {
+            accessor.setNativeHeader(SessionPayloadEncoder.PAYLOAD_FORMAT_HEADER, format);
+        }
+        if (encoding != null) {
+            accessor.setNativeHeader(SessionPayloadEncoder.PAYLOAD_ENCODING_HEADER, encoding);
+        }
+        encoder.handleInbound(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private void connectCbor(String sessionId) {
+        connect(sessionId, true, SessionPayloadEncoder.FORMAT_CBOR, null);
+    }
+
+    private void connectGzip(String sessionId) {
+        connect(sessionId, true, null, SessionPayloadEncoder.ENCODING_GZIP);
+    }
+
+    private void disconnect(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        encoder.handleInbound(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private Message<?> send(String sessionId, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        return encoder.preSend(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()), null);
+    }
+
+    private byte[] deliver(String sessionId, byte[] payload) {
+        return (byte[]) send(sessionId, payload).getPayload();
+    }
+
+    private static String nativeHeader(Message<?> message, String name) {
+        return SimpMessageHeaderAccessor.wrap(message).getFirstNativeHeader(name);
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    // a room state message with nested objects, arrays, numbers, booleans, null and non-ASCII text
+    private byte[] roomStateJson(int participants) {
+        StringBuilder json = new StringBuilder("{\"type\":\"ROOM_STATE_UPDATE\",\"payload\":{\"roomId\":\"room-1\",")
+                .append("\"name\":\"점심 뭐 먹지 🍜\",\"maxUsers\":10,\"version\":9007199254740993,\"ratio\":0.75,")
+                .append("\"isPrivate\":false,\"roundDeadline\":null,\"participants\":[");
+        for (int i = 0; i < participants; i++) {
+            if (i > 0) json.append(',');
+            json.append("{\"username\":\"user-").append(i).append("\",\"nickname\":\"참가자").append(i)
+                    .append("\",\"submittedMenu\":").append(i % 2 == 0).append(",\"status\":\"online\"}");
+        }
+        return json.append("]}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long gzipEncodes() {
+        return meterRegistry.find("websocket.frame.compress").tag("encoding", SessionPayloadEncoder.ENCODING_GZIP).timer().count();
+    }
+
+    private double skippedBelowThreshold() {
+        return meterRegistry.find("websocket.frame.compression.skipped").counter().count();
+    }
+
+    private long cborEncodes() {
+        return meterRegistry.find("websocket.frame.transcode").tag("encoding", SessionPayloadEncoder.FORMAT_CBOR).timer().count();
+    }
+
+    @Test
+    @DisplayName("CBOR 세션에는 JSON과 같은 내용의 CBOR 바이너리 프레임을 전송")
+    void preSend_CborSession_DecodesToSamePayload() throws IOException {
+        // given
+        connectCbor("s1");
+        byte[] json = roomStateJson(3);
+
+        // when
+        Message<?> sent = send("s1", json);
+
+        // then
+        JsonNode decoded = new CBORMapper().readTree((byte[]) sent.getPayload());
+        assertEquals(jsonMapper.readTree(json), decoded);
+        assertEquals(9007199254740993L, decoded.at("/payload/version").longValue());
+        assertEquals(SessionPayloadEncoder.FORMAT_CBOR, nativeHeader(sent, SessionPayloadEncoder.PAYLOAD_FORMAT_HEADER));
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, SimpMessageHeaderAccessor.wrap(sent).getContentType());
+    }
+
+    @Test
+    @DisplayName("SockJS 세션은 CBOR나 gzip을 요청해도 JSON 텍스트 프레임을 그대로 받음")
+    void preSend_SockJsSession_StaysOnJson() {
+        // given: 네이티브 WebSocket 표시가 없는 SockJS 세션
+        connect("sockjs", false, SessionPayloadEncoder.FORMAT_CBOR, SessionPayloadEncoder.ENCODING_GZIP);
+        byte[] json = roomStateJson(50);
+
+        // when
+        Message<?> sent = send("sockjs", json);
+
+        // then
+        assertSame(json, sent.getPayload());
+        assertNull(nativeHeader(sent, SessionPayloadEncoder.PAYLOAD_FORMAT_HEADER));
+        assertNull(nativeHeader(sent, SessionPayloadEncoder.PAYLOAD_ENCODING_HEADER));
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, SimpMessageHeaderAccessor.wrap(sent).getContentType());
+        assertEquals(0, cborEncodes());
+    }
+
+    @Test
+    @DisplayName("CBOR와 gzip을 함께 요청한 세션은 임계값 이상의 CBOR를 gzip으로 받음")
+    void preSend_CborAndGzip_CompressesCborBody() throws IOException {
+        // given
+        connect("s1", true, SessionPayloadEncoder.FORMAT_CBOR, SessionPayloadEncoder.ENCODING_GZIP);
+        byte[] json = roomStateJson(50);
+
+        // when
+        Message<?> sent = send("s1", json);
+
+        // then: 압축을 풀면 JSON과 같은 CBOR
+        assertEquals(SessionPayloadEncoder.ENCODING_GZIP, nativeHeader(sent, SessionPayloadEncoder.PAYLOAD_ENCODING_HEADER));
+        assertEquals(SessionPayloadEncoder.FORMAT_CBOR, nativeHeader(sent, SessionPayloadEncoder.PAYLOAD_FORMAT_HEADER));
+        byte[] cbor = gunzip((byte[]) sent.getPayload());
+        assertEquals(jsonMapper.readTree(json), new CBORMapper().readTree(cbor));
+    }
+
+    @Test
+    @DisplayName("같은 브로커 메시지를 받는 CBOR 세션들은 한 번 인코딩한 결과를 공유")
+    void preSend_EncodesOncePerBrokerMessage() {
+        // given
+        connectCbor("s1");
+        connectCbor("s2");
+        byte[] first = "{\"type\":\"ROOM_DELTA\",\"version\":1}".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "{\"type\":\"ROOM_DELTA\",\"version\":2}".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        byte[] s1First = deliver("s1", first);
+        byte[] s2First = deliver("s2", first);
+        byte[] s1Second = deliver("s1", second);
+
+        // then
+        assertSame(s1First, s2First);
+        assertNotSame(s1First, s1Second);
+        assertEquals(2, cborEncodes());
+    }
+
+    @Test
+    @DisplayName("gzip 세션은 임계값 이상의 JSON을 gzip 바이너리 프레임으로 받음")
+    void preSend_GzipSession_CompressesAboveThreshold() throws IOException {
+        // given
+        connectGzip("s1");
+        byte[] json = roomStateJson(50);
+        assertTrue(json.length >= 1024);
+
+        // when
+        Message<?> sent = send("s1", json);
+
+        // then
+        byte[] body = (byte[]) sent.getPayload();
+        assertTrue(body.length < json.length);
+        assertArrayEquals(json, gunzip(body));
+        assertEquals(SessionPayloadEncoder.ENCODING_GZIP, nativeHeader(sent, SessionPayloadEncoder.PAYLOAD_ENCODING_HEADER));
+        assertEquals(SessionPayloadEncoder.FORMAT_JSON, nativeHeader(sent, SessionPayloadEncoder.PAYLOAD_FORMAT_HEADER));
+        assertEquals(MimeTypeUtils.APPLICATION_OCTET_STREAM, SimpMessageHeaderAccessor.wrap(sent).getContentType());
+        assertEquals(1, meterRegistry.find("websocket.frame.compression.ratio").summary().count());
+    }
+
+    @Test
+    @DisplayName("gzip 세션이라도 임계값 미만의 프레임은 압축하지 않고 그대로 전송")
+    void preSend_GzipSession_BelowThresholdUncompressed() {
+        // given
+        connectGzip("s1");
+        byte[] json = "{\"type\":\"ROOM_DELTA\",\"version\":1}".getBytes(StandardCharsets.UTF_8);
+
+        // when
+        Message<?> sent = send("s1", json);
+
+        // then
+        assertSame(json, sent.getPayload());
+        assertNull(nativeHeader(sent, SessionPayloadEncoder.PAYLOAD_ENCODING_HEADER));
+        assertEquals(MimeTypeUtils.APPLICATION_JSON, SimpMessageHeaderAccessor.wrap(sent).getContentType());
+        assertEquals(1.0, skippedBelowThreshold());
+        assertEquals(0, gzipEncodes());
+    }
+
+    @Test
+    @DisplayName("permessage-deflate를 협상한 세션은 gzip을 요청해도 다시 압축하지 않음")
+    void preSend_PermessageDeflateSession_NotGzipped() {
+        // given
+        WebSocketSession webSocketSession = mock(WebSocketSession.class);
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SessionPayloadEncoder.NATIVE_WEBSOCKET_ATTRIBUTE, true);
+        when(webSocketSession.getAttributes()).thenReturn(attributes);
+        when(webSocketSession.getExtensions()).thenReturn(List.of(new WebSocketExtension(SessionPayloadEncoder.PERMESSAGE_DEFLATE)));
+        encoder.afterConnectionEstablished(webSocketSession);
+        connect("deflate", attributes, null, SessionPayloadEncoder.ENCODING_GZIP);
+        byte[] json = roomStateJson(50);
+
+        // when
+        Message<?> sent = send("deflate", json);
+
+        // then
+        assertEquals(true, attributes.get(SessionPayloadEncoder.PERMESSAGE_DEFLATE_ATTRIBUTE));
+        assertSame(json, sent.getPayload());
+        assertNull(nativeHeader(sent, SessionPayloadEncoder.PAYLOAD_ENCODING_HEADER));
+        assertEquals(0, gzipEncodes());
+        assertEquals(1.0, meterRegistry.find("websocket.sessions.compression")
+                .tag("mode", SessionPayloadEncoder.PERMESSAGE_DEFLATE).counter().count());
+    }
+
+    @Test
+    @DisplayName("임계값이 0이면 gzip 요청을 받지 않음")
+    void preSend_ZeroThreshold_GzipDisabled() {
+        // given
+        encoder = new SessionPayloadEncoder(jsonMapper, meterRegistry, 0);
+        connectGzip("s1");
+        byte[] json = roomStateJson(50);
+
+        // when & then
+        assertSame(json, send("s1", json).getPayload());
+        assertEquals(0, gzipEncodes());
+    }
+
+    @Test
+    @DisplayName("같은 브로커 메시지를 받는 gzip 세션들은 한 번 압축한 결과를 공유하고, 연결을 끊으면 압축을 멈춤")
+    void preSend_GzipOncePerBrokerMessage_StopsAfterDisconnect() {
+        // given
+        connectGzip("s1");
+        connectGzip("s2");
+        byte[] json = roomStateJson(50);
+
+        // when
+        byte[] s1Body = deliver("s1", json);
+        byte[] s2Body = deliver("s2", json);
+        disconnect("s2");
+
+        // then
+        assertSame(s1Body, s2Body);
+        assertEquals(1, gzipEncodes());
+        assertSame(json, deliver("s2", json));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.DTO.MenuDTO.MenuStatus;
+import com.example.BobGourmet.DTO.RoomDTO.RoomDetails;
+import com.example.BobGourmet.DTO.RoomDTO.RoomSnapshot;
+import com.example.BobGourmet.DTO.WebSocketMessage;
+import com.example.BobGourmet.Service.MatchroomService;
+import com.example.BobGourmet.Service.RoomSnapshotCache;
+import com.example.BobGourmet.Service.RoomTimerService;
+import com.example.BobGourmet.Service.StompEventListener;
+import com.example.BobGourmet.Service.WebSocketSessionRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StompEventListenerTest {
+
+    @Mock
+    private MatchroomService matchroomService;
+
+    @Mock
+    private RoomSnapshotCache roomSnapshotCache;
+
+    @Mock
+    private RoomTimerService roomTimerService;
+
+    @Mock
+    private WebSocketSessionRegistry sessionRegistry;
+
+    @InjectMocks
+    private StompEventListener stompEventListener;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stompEventListener, "reconnectGraceMs", 15000L);
+    }
+
+    private SessionDisconnectEvent disconnect(String sessionId, String username) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        accessor.setUser(new UsernamePasswordAuthenticationToken(username, null));
+        return new SessionDisconnectEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()),
+                sessionId, CloseStatus.NORMAL);
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String username, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        accessor.setUser(new UsernamePasswordAuthenticationToken(username, null));
+        return new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    @Test
+    @DisplayName("방 이벤트 구독 시 버전을 포함한 스냅샷 하나를 구독한 세션에만 전송")
+    void subscribe_SendsVersionedSnapshotToSubscribingSession() {
+        // given
+        RoomSnapshot snapshot = new RoomSnapshot(42L, new RoomDetails(), new MenuStatus());
+        when(matchroomService.isUserInMatchroom("user1", "room-1")).thenReturn(true);
+        when(roomSnapshotCache.get("room-1")).thenReturn(snapshot);
+
+        // when
+        stompEventListener.handleWebSocketSubscribeListener(subscribe("s1", "user1", "/topic/room/room-1/events"));
+
+        // then: 상세 정보와 메뉴 상태가 같은 버전으로 한 메시지에 담김
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(sessionRegistry, times(1)).sendToSession(eq("user1"), eq("s1"), eq("/queue/events"), sent.capture());
+        WebSocketMessage<?> message = (WebSocketMessage<?>) sent.getValue();
+        assertEquals(StompEventListener.ROOM_SNAPSHOT_EVENT_TYPE, message.getType());
+        RoomSnapshot payload = (RoomSnapshot) message.getPayload();
+        assertEquals(42L, payload.getVersion());
+        assertSame(snapshot.getRoomDetails(), payload.getRoomDetails());
+        assertSame(snapshot.getMenuStatus(), payload.getMenuStatus());
+        verify(roomTimerService).cancel(StompEventListener.DISCONNECT_GRACE_TIMER, "user1");
+    }
+
+    @Test
+    @DisplayName("대규모 방 관전자도 같은 버전 스냅샷을 받음")
+    void subscribe_LargeRoomSpectator_GetsVersionedSnapshot() {
+        // given
+        RoomSnapshot snapshot = new RoomSnapshot(7L, new RoomDetails(), new MenuStatus());
+        when(matchroomService.isUserInMatchroom("viewer", "room-1")).thenReturn(false);
+        when(matchroomService.isLargeRoom("room-1")).thenReturn(true);
+        when(roomSnapshotCache.get("room-1")).thenReturn(snapshot);
+
+        // when
+        stompEventListener.handleWebSocketSubscribeListener(subscribe("s2", "viewer", "/topic/room/room-1/events"));
+
+        // then
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(sessionRegistry).sendToSession(eq("viewer"), eq("s2"), eq("/queue/events"), sent.capture());
+        assertEquals(7L, ((RoomSnapshot) ((WebSocketMessage<?>) sent.getValue()).getPayload()).getVersion());
+        verify(roomTimerService, never()).cancel(any(), any());
+    }
+
+    @Test
+    @DisplayName("같은 세션의 중복 연결 해제 이벤트는 퇴장 예약을 다시 걸지 않음")
+    void disconnect_DuplicateEventDoesNotRescheduleLeave() {
+        // given
+        when(sessionRegistry.unregisterSession("s1")).thenReturn(true, false);
+        when(sessionRegistry.hasLocalSessions("user1")).thenReturn(false);
+        when(matchroomService.findRoomIdByUser("user1")).thenReturn(Optional.of("room-1"));
+
+        // when
+        stompEventListener.handleWebSocketDisconnectListener(disconnect("s1", "user1"));
+        stompEventListener.handleWebSocketDisconnectListener(disconnect("s1", "user1"));
+
+        // then
+        verify(roomTimerService, times(1)).schedule(eq(StompEventListener.DISCONNECT_GRACE_TIMER), eq("user1"), eq(15000L));
+        verify(sessionRegistry, times(1)).hasLocalSessions("user1");
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.BobGourmet;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.config.WebSocketMessageBrokerStats;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 애플리케이션 컨텍스트 로드: 브로커 통계 빈은 클라이언트 채널 실행기를 TaskExecutor 타입으로 찾으므로,
+ * 채널 실행기 타입이 어긋나면 어떤 브로커 모드에서도 애플리케이션이 뜨지 않는다.
+ */
+@Testcontainers
+@SpringBootTest
+class WebSocketBrokerContextTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        IntegrationTestProperties.register(registry, redis);
+    }
+
+    @Autowired
+    private WebSocketMessageBrokerStats webSocketMessageBrokerStats;
+
+    @Autowired
+    @Qualifier("clientInboundChannelExecutor")
+    private TaskExecutor clientInboundChannelExecutor;
+
+    @Autowired
+    @Qualifier("clientOutboundChannelExecutor")
+    private TaskExecutor clientOutboundChannelExecutor;
+
+    @Test
+    @DisplayName("브로커 통계와 클라이언트 채널 실행기를 포함한 컨텍스트가 로드됨")
+    void contextLoads_WithChannelExecutors() throws InterruptedException {
+        // given
+        CountDownLatch ran = new CountDownLatch(2);
+
+        // when: 두 채널 실행기에 작업 제출
+        clientInboundChannelExecutor.execute(ran::countDown);
+        clientOutboundChannelExecutor.execute(ran::countDown);
+
+        // then
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertNotNull(webSocketMessageBrokerStats.getClientInboundExecutorStatsInfo());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.BobGourmet;
+
+import com.example.BobGourmet.Repository.SessionDirectoryRepository;
+import com.example.BobGourmet.Service.WebSocketSessionRegistry;
+import com.example.BobGourmet.utils.ClusterNodeId;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WebSocketSessionRegistryTest {
+
+    @Mock
+    private SessionDirectoryRepository sessionDirectoryRepository;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private WebSocketSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new WebSocketSessionRegistry(sessionDirectoryRepository, stringRedisTemplate, messagingTemplate,
+                listenerContainer, new ObjectMapper(), new ClusterNodeId("node-a"), new SimpleMeterRegistry(), 15000, "simple");
+    }
+
+    private void directory(Map<String, String> sessions, String... liveNodes) {
+        when(sessionDirectoryRepository.getUserSessions("user1")).thenReturn(new HashMap<>(sessions));
+        lenient().when(sessionDirectoryRepository.getLiveNodes(anyLong())).thenReturn(Set.of(liveNodes));
+    }
+
+    @Test
+    @DisplayName("로컬 세션에는 로컬 브로커로, 다른 살아있는 노드에는 노드당 한 번씩 전달")
+    void sendToUser_DeliversLocallyAndForwardsOncePerRemoteNode() {
+        // given: 이 노드에 1개, node-b에 2개, node-c에 1개 세션
+        registry.registerSession("s1", "user1");
+        directory(Map.of("s1", "node-a", "s2", "node-b", "s3", "node-b", "s4", "node-c"), "node-a", "node-b", "node-c");
+
+        // when
+        registry.sendToUser("user1", "/queue/events", Map.of("type", "TEST"));
+
+        // then
+        verify(messagingTemplate).convertAndSendToUser(eq("user1"), eq("/queue/events"), any(Object.class));
+        verify(stringRedisTemplate).convertAndSend(eq("ws:node:node-b"), anyString());
+        verify(stringRedisTemplate).convertAndSend(eq("ws:node:node-c"), anyString());
+        verifyNoMoreInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    @DisplayName("죽은 노드의 세션 항목은 조회 시 디렉터리에서 제거되고 전달 대상에서 제외")
+    void sendToUser_PrunesSessionsOfDeadNodes() {
+        // given: node-b는 하트비트가 끊김
+        directory(Map.of("s2", "node-b", "s3", "node-c"), "node-c");
+
+        // when
+        registry.sendToUser("user1", "/queue/events", Map.of("type", "TEST"));
+
+        // then
+        verify(sessionDirectoryRepository).removeUserSessions("user1", List.of("s2"));
+        verify(stringRedisTemplate).convertAndSend(eq("ws:node:node-c"), anyString());
+        verify(stringRedisTemplate, never()).convertAndSend(eq("ws:node:node-b"), anyString());
+        verify(messagingTemplate, never()).convertAndSendToUser(anyString(), anyString(), any(Object.class));
+    }
+
+    @Test
+    @DisplayName("사용자 세션 수는 살아있는 노드의 세션과 이 노드가 실제로 가진 세션만 계산")
+    void countUserSessions_CountsOnlyLiveSessions() {
+        // given: s1은 로컬, s9는 이 노드의 항목이지만 연결 해제 이벤트를 놓친 세션
+        registry.registerSession("s1", "user1");
+        directory(Map.of("s1", "node-a", "s9", "node-a", "s2", "node-b", "s3", "node-dead"), "node-a", "node-b");
+
+        // when
+        int count = registry.countUserSessions("user1");
+
+        // then
+        assertEquals(2, count);
+        verify(sessionDirectoryRepository).removeUserSessions(eq("user1"),
+                argThat(sessionIds -> sessionIds.size() == 2 && sessionIds.containsAll(List.of("s9", "s3"))));
+    }
+
+    @Test
+    @DisplayName("방 세션 수는 이 노드를 포함한 살아있는 노드의 카운터 합")
+    void countRoomSessions_IncludesThisNode() {
+        // given
+        when(sessionDirectoryRepository.getLiveNodes(anyLong())).thenReturn(Set.of("node-b"));
+        when(sessionDirectoryRepository.countRoomSessions(eq("room-1"), anyCollection())).thenReturn(5L);
+
+        // when
+        long count = registry.countRoomSessions("room-1");
+
+        // then
+        assertEquals(5L, count);
+        verify(sessionDirectoryRepository).countRoomSessions(eq("room-1"),
+                argThat(nodes -> nodes.size() == 2 && nodes.containsAll(List.of("node-a", "node-b"))));
+    }
+
+    @Test
+    @DisplayName("같은 세션의 중복 해제는 디렉터리를 한 번만 갱신")
+    void unregisterSession_IgnoresDuplicateDisconnect() {
+        // given
+        registry.registerSession("s1", "user1");
+
+        // when
+        boolean first = registry.unregisterSession("s1");
+        boolean second = registry.unregisterSession("s1");
+
+        // then
+        assertTrue(first);
+        assertFalse(second);
+        assertFalse(registry.hasLocalSessions("user1"));
+        verify(sessionDirectoryRepository, times(1)).removeUserSession("user1", "s1");
+    }
+
+    @Test
+    @DisplayName("세션 지정 전송은 해당 세션 헤더로 로컬 브로커에만 보냄")
+    void sendToSession_TargetsOnlyThatSession() {
+        // when
+        registry.sendToSession("user1", "s1", "/queue/events", Map.of("type", "TEST"));
+
+        // then
+        verify(messagingTemplate).convertAndSendToUser(eq("user1"), eq("/queue/events"), any(Object.class),
+                argThat((Map<String, Object> headers) -> "s1".equals(SimpMessageHeaderAccessor.getSessionId(headers))));
+        verifyNoInteractions(stringRedisTemplate, sessionDirectoryRepository);
+    }
+}